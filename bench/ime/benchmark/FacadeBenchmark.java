@@ -0,0 +1,255 @@
+/**
+ * The FacadeBenchmark class measures the time and the memory allocated by every operation of the
+ * IME (Image Manipulation and Enhancement) model on synthetic images of several sizes.
+ */
+
+package ime.benchmark;
+
+import ime.controller.commands.Load;
+import ime.controller.commands.Save;
+import ime.model.MIMEFacade;
+import ime.model.MIMEFacadeImpl;
+import ime.model.PixelRaster;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The FacadeBenchmark class runs every operation of a {@link MIMEFacade} repeatedly on a synthetic
+ * image of each requested size, after a number of warm-up runs, and reports the average and the
+ * fastest time of an operation together with the memory it allocates. Loading and saving are
+ * measured for every supported file format through the load and save commands.
+ * <p>
+ * The operation cache of the model is turned off, so every run computes its result. Memory is
+ * measured with the per-thread allocation counters of the HotSpot virtual machine and is reported
+ * as "n/a" on virtual machines without them.
+ * </p>
+ * <p>
+ * The benchmark is compiled together with the sources and run from the command line, for example
+ * {@code java -cp out ime.benchmark.FacadeBenchmark -sizes 1024x1024 -filter blur}. The options
+ * are:
+ * </p>
+ * <ul>
+ *   <li>{@code -sizes WxH,...} the image sizes, by default 256x256, 1024x1024, 4096x4096 and an
+ *   8192x1024 panorama;</li>
+ *   <li>{@code -warmup n} the number of runs before measuring, 2 by default;</li>
+ *   <li>{@code -iterations n} the number of measured runs, 5 by default;</li>
+ *   <li>{@code -threads n} the parallelism of the model, 1 by default;</li>
+ *   <li>{@code -filter text} runs only the operations whose name contains the text.</li>
+ * </ul>
+ */
+public class FacadeBenchmark {
+
+  /**
+   * The Operation interface represents one benchmarked call on the model.
+   */
+  @FunctionalInterface
+  private interface Operation {
+
+    /**
+     * Runs the operation once.
+     *
+     * @param model The model the operation is run on.
+     * @throws Exception If the operation fails.
+     */
+    void run(MIMEFacade model) throws Exception;
+
+  }
+
+  private static final String[] FORMATS = {"ppm", "pnm", "png", "jpg"};
+
+  private final ThreadMXBean threads;
+  private final boolean allocationSupported;
+
+  private FacadeBenchmark() {
+    this.threads = ManagementFactory.getThreadMXBean();
+    this.allocationSupported = threads instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+    if (allocationSupported) {
+      ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+    }
+  }
+
+  /**
+   * Runs the benchmark with the given options.
+   *
+   * @param args The command line options described in the class documentation.
+   * @throws Exception If an operation fails or the temporary files cannot be written.
+   */
+  public static void main(String[] args) throws Exception {
+    String sizes = "256x256,1024x1024,4096x4096,8192x1024";
+    int warmup = 2;
+    int iterations = 5;
+    int parallelism = 1;
+    String filter = "";
+    for (int i = 0; i < args.length - 1; i += 2) {
+      switch (args[i]) {
+        case "-sizes":
+          sizes = args[i + 1];
+          break;
+        case "-warmup":
+          warmup = Integer.parseInt(args[i + 1]);
+          break;
+        case "-iterations":
+          iterations = Integer.parseInt(args[i + 1]);
+          break;
+        case "-threads":
+          parallelism = Integer.parseInt(args[i + 1]);
+          break;
+        case "-filter":
+          filter = args[i + 1];
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option : " + args[i]);
+      }
+    }
+
+    FacadeBenchmark benchmark = new FacadeBenchmark();
+    System.out.println(String.format(Locale.ROOT, "%-28s %-11s %10s %10s %12s %12s",
+        "operation", "size", "avg ms", "min ms", "alloc MB/op", "alloc MB/s"));
+    for (String size : sizes.split(",")) {
+      String[] dimensions = size.trim().split("x");
+      int width = Integer.parseInt(dimensions[0]);
+      int height = Integer.parseInt(dimensions[1]);
+      benchmark.runSize(width, height, warmup, iterations, parallelism, filter);
+    }
+  }
+
+  private void runSize(int width, int height, int warmup, int iterations, int parallelism,
+                       String filter) throws Exception {
+    MIMEFacade model = new MIMEFacadeImpl();
+    model.setCacheSize(0);
+    model.setParallelism(parallelism);
+    model.loadRaster(syntheticRaster(width, height), "image");
+    model.rgbSplit("image", "red", "green", "blue");
+
+    Path directory = Files.createTempDirectory("ime-benchmark");
+    try {
+      for (String format : FORMATS) {
+        new Save(file(directory, "input", format), "image").run(model);
+      }
+      String size = width + "x" + height;
+      for (Map.Entry<String, Operation> benchmark : operations(directory).entrySet()) {
+        if (benchmark.getKey().contains(filter)) {
+          measure(benchmark.getKey(), size, benchmark.getValue(), model, warmup, iterations);
+        }
+      }
+    } finally {
+      for (File file : directory.toFile().listFiles()) {
+        Files.deleteIfExists(file.toPath());
+      }
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  // Lists the name and the operation of every benchmark.
+  private static Map<String, Operation> operations(Path directory) {
+    Map<String, Operation> operations = new LinkedHashMap<>();
+    for (String format : FORMATS) {
+      String input = file(directory, "input", format);
+      String output = file(directory, "output", format);
+      operations.put("load-" + format, model -> new Load(input, "loaded").run(model));
+      operations.put("save-" + format, model -> new Save(output, "image").run(model));
+    }
+    operations.put("red-component", model -> model.redComponent("image", "out"));
+    operations.put("green-component", model -> model.greenComponent("image", "out"));
+    operations.put("blue-component", model -> model.blueComponent("image", "out"));
+    operations.put("value", model -> model.value("image", "out"));
+    operations.put("intensity", model -> model.intensity("image", "out"));
+    operations.put("luma", model -> model.luma("image", "out"));
+    operations.put("horizontal-flip", model -> model.flipHorizontal("image", "out"));
+    operations.put("vertical-flip", model -> model.flipVertical("image", "out"));
+    operations.put("brighten", model -> model.brighten(30, "image", "out"));
+    operations.put("rgb-split",
+        model -> model.rgbSplit("image", "out-red", "out-green", "out-blue"));
+    operations.put("rgb-combine", model -> model.rgbCombine("red", "green", "blue", "out"));
+    operations.put("blur", model -> model.blur("image", "out"));
+    operations.put("sharpen", model -> model.sharpen("image", "out"));
+    operations.put("sepia", model -> model.sepia("image", "out"));
+    for (int percentage : new int[]{10, 50, 90}) {
+      operations.put("compress-" + percentage,
+          model -> model.compress(percentage, "image", "out"));
+    }
+    operations.put("histogram", model -> model.histogram("image", "out"));
+    operations.put("color-correct", model -> model.colorCorrect("image", "out"));
+    operations.put("levels-adjust", model -> model.adjustLevels(20, 100, 230, "image", "out"));
+    operations.put("blur-split-50", model -> model.blur("image", "out", 50));
+    operations.put("color-correct-split-50", model -> model.colorCorrect("image", "out", 50));
+    operations.put("levels-adjust-split-50",
+        model -> model.adjustLevels(20, 100, 230, "image", "out", 50));
+    return operations;
+  }
+
+  private void measure(String name, String size, Operation operation, MIMEFacade model,
+                       int warmup, int iterations) throws Exception {
+    for (int i = 0; i < warmup; i++) {
+      operation.run(model);
+    }
+    long totalNanos = 0;
+    long minNanos = Long.MAX_VALUE;
+    long totalBytes = 0;
+    for (int i = 0; i < iterations; i++) {
+      long bytes = allocatedBytes();
+      long start = System.nanoTime();
+      operation.run(model);
+      long nanos = System.nanoTime() - start;
+      totalBytes += allocatedBytes() - bytes;
+      totalNanos += nanos;
+      minNanos = Math.min(minNanos, nanos);
+    }
+    double averageMillis = totalNanos / 1e6 / iterations;
+    String allocation = "n/a";
+    String allocationRate = "n/a";
+    if (allocationSupported) {
+      double megabytes = totalBytes / (1024.0 * 1024.0) / iterations;
+      allocation = String.format(Locale.ROOT, "%.2f", megabytes);
+      allocationRate = String.format(Locale.ROOT, "%.1f", megabytes / (averageMillis / 1000));
+    }
+    System.out.println(String.format(Locale.ROOT, "%-28s %-11s %10.3f %10.3f %12s %12s",
+        name, size, averageMillis, minNanos / 1e6, allocation, allocationRate));
+  }
+
+  // Sums the memory allocated so far by all the live threads, which includes the worker threads
+  // of the model.
+  private long allocatedBytes() {
+    if (!allocationSupported) {
+      return 0;
+    }
+    long[] allocated = ((com.sun.management.ThreadMXBean) threads)
+        .getThreadAllocatedBytes(threads.getAllThreadIds());
+    return Arrays.stream(allocated).filter(bytes -> bytes > 0).sum();
+  }
+
+  private static String file(Path directory, String name, String format) {
+    return directory.resolve(name + "." + format).toString();
+  }
+
+  // Creates an image of smooth gradients with some noise, so that the compressed formats and
+  // the histogram based operations see realistic content.
+  private static PixelRaster syntheticRaster(int width, int height) {
+    PixelRaster raster = new PixelRaster(width, height, 255);
+    int[] samples = raster.getSamples();
+    long seed = 42;
+    for (int i = 0, k = 0; i < height; i++) {
+      for (int j = 0; j < width; j++, k += 3) {
+        seed = seed * 6364136223846793005L + 1442695040888963407L;
+        int noise = (int) (seed >>> 59) - 16;
+        samples[k] = clamp(j * 255 / Math.max(1, width - 1) + noise);
+        samples[k + 1] = clamp(i * 255 / Math.max(1, height - 1) + noise);
+        samples[k + 2] = clamp(((i + j) * 255 / Math.max(1, width + height - 2)) / 2 + 64 - noise);
+      }
+    }
+    return raster;
+  }
+
+  private static int clamp(int value) {
+    return Math.max(0, Math.min(255, value));
+  }
+
+}
@@ -5,6 +5,7 @@ import ime.controller.CommandController;
 import ime.controller.FileUtil;
 import ime.controller.GUIController;
 import ime.controller.MIMECommandRepository;
+import ime.controller.ParallelCommandController;
 import ime.model.IViewModel;
 import ime.model.MIMEFacadeImpl;
 import ime.model.ViewModel;
@@ -24,23 +25,57 @@ public class Main {
 
   /**
    * The main method is the entry point for the IME application. It initializes the model,
-   * controller, view and begins user interaction.
+   * controller, view and begins user interaction. The optional arguments {@code -threads n}
+   * set the number of threads used by the per-pixel image operations, and the optional arguments
+   * {@code -memory n} keep the stored images within n megabytes of memory, moving the least
+   * recently used images to temporary files and printing how the images were served once the
+   * script has run. The optional arguments {@code -jobs n} run up to n independent commands of a
+   * script file at the same time, and the optional arguments {@code -cache n} remember the
+   * results of the n most recent operations.
    *
    * @param args Command-line arguments.
    */
   public static void main(String[] args) {
 
     try {
-      IMEFacade model = new MIMEFacadeImpl();
+      Long memoryBudget = null;
+      Integer jobs = null;
+      for (int i = 0; i < args.length - 1; i++) {
+        if (args[i].equals("-memory")) {
+          memoryBudget = Long.parseLong(args[i + 1]) * 1024 * 1024;
+        } else if (args[i].equals("-jobs")) {
+          jobs = Integer.parseInt(args[i + 1]);
+        }
+      }
+      IMEFacade model = memoryBudget != null ? new MIMEFacadeImpl(memoryBudget)
+          : new MIMEFacadeImpl();
+      for (int i = 0; i < args.length - 1; i++) {
+        if (args[i].equals("-threads")) {
+          model.setParallelism(Integer.parseInt(args[i + 1]));
+        } else if (args[i].equals("-cache")) {
+          model.setCacheSize(Integer.parseInt(args[i + 1]));
+        }
+      }
       Readable readable = new InputStreamReader(System.in);
-      if (args.length > 0) {
+      if (args.length > 0 && !args[0].equals("-threads") && !args[0].equals("-memory")
+          && !args[0].equals("-jobs") && !args[0].equals("-cache")) {
         if (args[0].equals("-file")) {
           String commands = FileUtil.cleanFileRead(args[1]);
           readable = new StringReader(commands);
         }
-        Controller controller = new CommandController(readable, System.out,
-            new MIMECommandRepository());
+        Controller controller;
+        if (jobs != null && args[0].equals("-file")) {
+          controller = new ParallelCommandController(readable, System.out,
+              new MIMECommandRepository(), jobs);
+        } else {
+          controller = new CommandController(readable, System.out, new MIMECommandRepository());
+        }
         controller.goAhead(model);
+        if (memoryBudget != null) {
+          long[] counters = model.getRepositoryCounters();
+          System.out.println("Images served from memory: " + counters[0]
+              + ", read back from disk: " + counters[1] + ", moved to disk: " + counters[2]);
+        }
       } else {
         SwingUtilities.invokeLater(() -> {
 
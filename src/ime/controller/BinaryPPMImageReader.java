@@ -0,0 +1,258 @@
+/**
+ * The BinaryPPMImageReader class implements the ImageReader interface and is used
+ * to read P6 format PPM images from a file. P6 is the binary variant of the PPM
+ * (Portable Pixmap) format, storing every color value in one byte, or in two bytes when
+ * the maximum color value is larger than 255.
+ */
+
+package ime.controller;
+
+import ime.model.PixelRaster;
+import ime.model.RasterSource;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The BinaryPPMImageReader class is responsible for reading P6 format PPM images from
+ * a specified file and providing the image data as a raster. The file is read into a
+ * byte buffer in a single operation, or memory-mapped when it is large, and parsed byte by byte.
+ * Since every pixel takes the same number of bytes, a region of the image can also be read on its
+ * own, one run of bytes for each of its rows.
+ */
+public class BinaryPPMImageReader implements ImageReader {
+
+  // Files of at least this many bytes are memory-mapped instead of copied onto the heap.
+  private static final long MAP_THRESHOLD = 16 * 1024 * 1024;
+  // The header of a file opened for reading regions is expected within this many bytes.
+  private static final int HEADER_LIMIT = 64 * 1024;
+
+  // The P6 token used in PPM images.
+  private final String token;
+
+  /**
+   * Constructs a new BinaryPPMImageReader object and initializes the P6 token.
+   */
+  public BinaryPPMImageReader() {
+    this.token = "P6";
+  }
+
+  /**
+   * Reads the pixels of the image in the specified file.
+   *
+   * @param filepath The path to the file from which the image should be read.
+   * @return A raster containing the pixels of the image.
+   * @throws IOException If there is an error during the image reading process or if the
+   *        provided file path is invalid.
+   */
+  @Override
+  public PixelRaster readRaster(String filepath) throws IOException {
+    try {
+      ByteBuffer buffer = readFile(filepath);
+
+      if (buffer.get() != token.charAt(0) || buffer.get() != token.charAt(1)) {
+        throw new IOException("Invalid PPM file: binary file should begin with P6");
+      }
+      int width = readHeaderValue(buffer);
+      int height = readHeaderValue(buffer);
+      int max = readHeaderValue(buffer);
+      if (max <= 0 || max > 65535) {
+        throw new IOException("Invalid PPM file header");
+      }
+      // A single whitespace character separates the header from the raster.
+      buffer.get();
+
+      PixelRaster raster = new PixelRaster(width, height, max);
+      int[] samples = raster.getSamples();
+      if (max < 256) {
+        for (int i = 0; i < samples.length; i++) {
+          samples[i] = buffer.get() & 0xFF;
+        }
+      } else {
+        for (int i = 0; i < samples.length; i++) {
+          samples[i] = buffer.getShort() & 0xFFFF;
+        }
+      }
+
+      return raster;
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException
+             | ArithmeticException e) {
+      throw new IOException("Please input a valid file");
+    }
+  }
+
+  /**
+   * Opens the image in the specified file for reading a region at a time. Only the header is read
+   * when the file is opened; every region is read straight from the file when it is requested.
+   *
+   * @param filepath The path to the file from which the image should be read.
+   * @return A source of the regions of the image, which must be closed after use.
+   * @throws IOException If the file cannot be opened or does not hold a valid P6 image.
+   */
+  @Override
+  public RasterSource openRaster(String filepath) throws IOException {
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ);
+    } catch (IOException | RuntimeException e) {
+      throw new IOException("Please input a valid file");
+    }
+    try {
+      ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), HEADER_LIMIT));
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // keep reading until the whole header is in the buffer
+      }
+      buffer.flip();
+
+      if (buffer.get() != token.charAt(0) || buffer.get() != token.charAt(1)) {
+        throw new IOException("Invalid PPM file: binary file should begin with P6");
+      }
+      int width = readHeaderValue(buffer);
+      int height = readHeaderValue(buffer);
+      int max = readHeaderValue(buffer);
+      if (max <= 0 || max > 65535) {
+        throw new IOException("Invalid PPM file header");
+      }
+      buffer.get();
+      long offset = buffer.position();
+      int sampleBytes = max < 256 ? 1 : 2;
+      if (channel.size() < offset + 3L * sampleBytes * width * height) {
+        throw new IOException("Invalid PPM file: the file ends before the last pixel");
+      }
+      return new RegionReader(channel, offset, width, height, max);
+    } catch (IOException | BufferUnderflowException | ArithmeticException e) {
+      channel.close();
+      throw new IOException("Please input a valid file");
+    }
+  }
+
+  /**
+   * Reads regions of a P6 image straight from its file, which is held open until the reader is
+   * closed.
+   */
+  private static final class RegionReader implements RasterSource {
+
+    private final FileChannel channel;
+    private final long offset;
+    private final int width;
+    private final int height;
+    private final int max;
+
+    RegionReader(FileChannel channel, long offset, int width, int height, int max) {
+      this.channel = channel;
+      this.offset = offset;
+      this.width = width;
+      this.height = height;
+      this.max = max;
+    }
+
+    @Override
+    public int getWidth() {
+      return width;
+    }
+
+    @Override
+    public int getHeight() {
+      return height;
+    }
+
+    @Override
+    public int getMax() {
+      return max;
+    }
+
+    @Override
+    public PixelRaster readRegion(int rowStart, int colStart, int width, int height)
+        throws IOException {
+      if (rowStart < 0 || colStart < 0 || width < 0 || height < 0
+          || rowStart + height > this.height || colStart + width > this.width) {
+        throw new IOException("Please input a valid file");
+      }
+      int sampleBytes = max < 256 ? 1 : 2;
+      PixelRaster raster = new PixelRaster(width, height, max);
+      int[] samples = raster.getSamples();
+      ByteBuffer row = ByteBuffer.allocate(3 * sampleBytes * width);
+      for (int i = 0, k = 0; i < height; i++) {
+        long position = offset + 3L * sampleBytes * ((long) (rowStart + i) * this.width + colStart);
+        row.clear();
+        while (row.hasRemaining()) {
+          int read = channel.read(row, position + row.position());
+          if (read < 0) {
+            throw new IOException("Please input a valid file");
+          }
+        }
+        row.flip();
+        for (int j = 0; j < 3 * width; j++, k++) {
+          samples[k] = sampleBytes == 1 ? row.get() & 0xFF : row.getShort() & 0xFFFF;
+        }
+      }
+      return raster;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /**
+   * Checks whether the file at the given path starts with the P6 token.
+   *
+   * @param filepath The path to the file to be checked.
+   * @return true if the file is a binary PPM file, false otherwise.
+   */
+  public static boolean isBinaryPPM(String filepath) {
+    try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(2);
+      while (magic.hasRemaining() && channel.read(magic) >= 0) {
+        // keep reading until both bytes are available or the file ends
+      }
+      return magic.position() == 2 && magic.get(0) == 'P' && magic.get(1) == '6';
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static ByteBuffer readFile(String filepath) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size >= MAP_THRESHOLD) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // keep reading until the whole file is in the buffer
+      }
+      buffer.flip();
+      return buffer;
+    }
+  }
+
+  // Reads the next decimal value of the header, skipping whitespace and comment lines.
+  private static int readHeaderValue(ByteBuffer buffer) throws IOException {
+    int current = buffer.get();
+    while (Character.isWhitespace(current) || current == '#') {
+      if (current == '#') {
+        while (current != '\n' && current != '\r') {
+          current = buffer.get();
+        }
+      }
+      current = buffer.get();
+    }
+    if (current < '0' || current > '9') {
+      throw new IOException("Invalid PPM file header");
+    }
+    int value = 0;
+    while (current >= '0' && current <= '9') {
+      value = Math.addExact(Math.multiplyExact(value, 10), current - '0');
+      buffer.mark();
+      current = buffer.get();
+    }
+    // Leave the character after the value unread.
+    buffer.reset();
+    return value;
+  }
+}
@@ -0,0 +1,106 @@
+/**
+ * The BinaryPPMImageWriter class implements the ImageWriter interface and is used
+ * to write P6 format PPM images to a file. P6 is the binary variant of the PPM
+ * (Portable Pixmap) format, storing every color value in one byte, or in two bytes when
+ * the maximum color value is larger than 255.
+ */
+
+package ime.controller;
+
+import ime.model.PixelRaster;
+import ime.model.RasterSink;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The BinaryPPMImageWriter class is responsible for writing P6 format PPM
+ * images to a specified file through a buffered byte stream. The header only depends on the
+ * dimensions and maximum value of the image, so the rows can be written as they are computed.
+ */
+public class BinaryPPMImageWriter implements ImageWriter {
+
+  // The P6 token used in PPM images.
+  private final String token;
+
+  /**
+   * Constructs a new BinaryPPMImageWriter object. Initializes the P6 token.
+   */
+  public BinaryPPMImageWriter() {
+    token = "P6";
+  }
+
+  /**
+   * Writes the pixels of a raster to a file.
+   *
+   * @param raster   The raster containing the pixels of the image.
+   * @param filepath The path to the file where the image should be saved.
+   * @throws IOException If there is an error during the image writing process,
+   *         or if the provided file path is invalid.
+   */
+  @Override
+  public void writeRaster(PixelRaster raster, String filepath) throws IOException {
+    try (RasterSink sink = openSink(filepath)) {
+      sink.start(raster.getWidth(), raster.getHeight(), raster.getMax());
+      sink.writeRows(raster);
+    } catch (IOException e) {
+      throw new IOException("Please input a valid file");
+    }
+  }
+
+  /**
+   * Opens the specified file for writing an image a band of rows at a time. Every band is
+   * written to the file as soon as it is received.
+   *
+   * @param filepath The path to the file where the image should be saved.
+   * @return A sink receiving the rows of the image, which must be closed to complete the file.
+   * @throws IOException If the file cannot be opened for writing.
+   */
+  @Override
+  public RasterSink openSink(String filepath) throws IOException {
+    OutputStream file;
+    try {
+      file = new BufferedOutputStream(new FileOutputStream(filepath));
+    } catch (IOException e) {
+      throw new IOException("Please input a valid file");
+    }
+    return new RasterSink() {
+      private int max;
+
+      @Override
+      public void start(int width, int height, int max) throws IOException {
+        this.max = max;
+        String header = token + "\n" + width + " " + height + "\n" + max + "\n";
+        file.write(header.getBytes(StandardCharsets.US_ASCII));
+      }
+
+      @Override
+      public void writeRows(PixelRaster rows) throws IOException {
+        // Every row is encoded into an array of bytes and written with a single call.
+        int[] samples = rows.getSamples();
+        int rowSamples = 3 * rows.getWidth();
+        byte[] row = new byte[max > 255 ? 2 * rowSamples : rowSamples];
+        for (int start = 0; start < samples.length; start += rowSamples) {
+          if (max > 255) {
+            for (int k = 0; k < rowSamples; k++) {
+              row[2 * k] = (byte) (samples[start + k] >> 8);
+              row[2 * k + 1] = (byte) samples[start + k];
+            }
+          } else {
+            for (int k = 0; k < rowSamples; k++) {
+              row[k] = (byte) samples[start + k];
+            }
+          }
+          file.write(row);
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        file.close();
+      }
+    };
+  }
+}
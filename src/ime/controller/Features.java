@@ -4,7 +4,8 @@ import java.io.IOException;
 
 /**
  * Features interface defines callback functions for loading, saving,
- * and manipulating images from the VIEW.
+ * and manipulating images from the VIEW. The operations may run after the callback returns, so
+ * their errors are reported to the view instead of being thrown to the caller.
  */
 public interface Features {
 
@@ -12,154 +13,106 @@ public interface Features {
    * Load an image from the specified file path.
    *
    * @param filepath The path to the image file.
-   * @throws IOException If an I/O error occurs while reading the image file.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void load(String filepath) throws IOException, CloneNotSupportedException;
+  void load(String filepath);
 
   /**
-   * Save the current image to the specified file path.
+   * Save the current image to the specified file path. The view is told once the image has been
+   * saved.
    *
    * @param filepath The path to save the image.
-   * @throws IOException If an I/O error occurs while writing the image file.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void save(String filepath) throws IOException, CloneNotSupportedException;
+  void save(String filepath);
 
   /**
    * Get the red component of the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void redComponent() throws IOException, CloneNotSupportedException;
+  void redComponent();
 
   /**
    * Get the green component of the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void greenComponent() throws IOException, CloneNotSupportedException;
+  void greenComponent();
 
   /**
    * Get the blue component of the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void blueComponent() throws IOException, CloneNotSupportedException;
+  void blueComponent();
 
   /**
    * Get the value of the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void value() throws IOException, CloneNotSupportedException;
+  void value();
 
   /**
    * Get the intensity of the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void intensity() throws IOException, CloneNotSupportedException;
+  void intensity();
 
   /**
    * Get the luma value of the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void luma() throws IOException, CloneNotSupportedException;
+  void luma();
 
   /**
    * Get the luma value of the image with a specified split percentage.
    *
    * @param splitPercentage The percentage at which to split the luma calculation.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
-   * @throws IOException If an I/O error
    */
-  void luma(double splitPercentage) throws CloneNotSupportedException, IOException;
+  void luma(double splitPercentage);
 
   /**
    * Flip the image horizontally.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void flipHorizontal() throws IOException, CloneNotSupportedException;
+  void flipHorizontal();
 
   /**
    * Flip the image vertically.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void flipVertical() throws IOException, CloneNotSupportedException;
+  void flipVertical();
 
   /**
    * Apply a blur effect to the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void blur() throws IOException, CloneNotSupportedException;
+  void blur();
 
   /**
    * Apply a blur effect to the image with a specified split percentage.
    *
    * @param splitPercentage The percentage at which to split the blur effect.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
-   * @throws IOException If an I/O error occurs.
    */
-  void blur(double splitPercentage) throws CloneNotSupportedException, IOException;
+  void blur(double splitPercentage);
 
   /**
    * Apply a sharpening effect to the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void sharpen() throws IOException, CloneNotSupportedException;
+  void sharpen();
 
   /**
    * Apply a sharpening effect to the image with a specified split percentage.
    *
    * @param splitPercentage The percentage at which to split the sharpening effect.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
-   * @throws IOException If an I/O error occurs.
    */
-  void sharpen(double splitPercentage) throws CloneNotSupportedException, IOException;
+  void sharpen(double splitPercentage);
 
   /**
    * Apply a sepia effect to the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void sepia() throws IOException, CloneNotSupportedException;
+  void sepia();
 
   /**
    * Apply a sepia tone effect to the image with a specified split percentage.
    *
    * @param splitPercentage The percentage at which to split the sepia effect.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
-   * @throws IOException If an I/O error occurs.
    */
-  void sepia(double splitPercentage) throws CloneNotSupportedException, IOException;
+  void sepia(double splitPercentage);
 
   /**
    * Compress the image by a specified percentage.
    *
    * @param percentage The percentage by which to compress the image.
-   * @throws IllegalArgumentException If the percentage is invalid.
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void compress(double percentage)
-      throws IllegalArgumentException, IOException, CloneNotSupportedException;
+  void compress(double percentage);
 
   /**
    * Generate a histogram for the image.
@@ -171,20 +124,15 @@ public interface Features {
 
   /**
    * Perform color correction on the image.
-   *
-   * @throws IOException If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void colorCorrect() throws IOException, CloneNotSupportedException;
+  void colorCorrect();
 
   /**
    * Perform color correction on the image with a specified split percentage.
    *
    * @param splitPercentage The percentage at which to split the color correction.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
-   * @throws IOException If an I/O error occurs.
    */
-  void colorCorrect(double splitPercentage) throws CloneNotSupportedException, IOException;
+  void colorCorrect(double splitPercentage);
 
   /**
    * Adjust the levels of the image.
@@ -192,12 +140,8 @@ public interface Features {
    * @param black The black level.
    * @param mid   The mid level.
    * @param white The white level.
-   * @throws IllegalArgumentException If the levels are invalid.
-   * @throws IOException              If an I/O error occurs.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
    */
-  void adjustLevels(int black, int mid, int white)
-      throws IllegalArgumentException, IOException, CloneNotSupportedException;
+  void adjustLevels(int black, int mid, int white);
 
   /**
    * Adjust the levels of the image with a specified split percentage.
@@ -206,15 +150,18 @@ public interface Features {
    * @param mid             The mid level.
    * @param white           The white level.
    * @param splitPercentage The percentage at which to split the level adjustment.
-   * @throws CloneNotSupportedException If cloning the image is not supported.
-   * @throws IOException If an I/O error occurs.
    */
-  void adjustLevels(int black, int mid, int white, double splitPercentage)
-      throws CloneNotSupportedException, IOException;
+  void adjustLevels(int black, int mid, int white, double splitPercentage);
 
   /**
    * Disable the split view mode, if enabled.
    * This method deactivates any split view functionality in the image display.
    */
   void disableSplitView();
+
+  /**
+   * Cancel the operation that is running and the operations waiting to run.
+   * The images are left as they were before the cancelled operations.
+   */
+  void cancel();
 }
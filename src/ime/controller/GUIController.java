@@ -17,6 +17,7 @@ import ime.controller.commands.Load;
 import ime.controller.commands.Luma;
 import ime.controller.commands.LumaWithParams;
 import ime.controller.commands.RedComponent;
+import ime.controller.commands.Remove;
 import ime.controller.commands.Save;
 import ime.controller.commands.Sepia;
 import ime.controller.commands.SepiaWithParams;
@@ -28,189 +29,267 @@ import ime.model.IMEFacade;
 import ime.view.IView;
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.InputMismatchException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
 
 /**
  * GUIController is responsible for managing the interaction between the graphical user
  * interface (GUI), the underlying image processing model (IMEFacade), and the view (IView).
  * It implements the Features interface to provide image processing functionality to the GUI.
+ * <p>
+ * The operations requested by the view run one at a time, in the order they were requested, on
+ * a background thread, so the view stays responsive while an image is processed. The view is
+ * told when operations start and stop running, and it is refreshed or shown the error of every
+ * operation on its own thread. It is told an image was saved only once the file has been written.
+ * A split view preview is skipped if another operation is requested before it starts, so only the
+ * latest of several quickly repeated previews is computed. Running and waiting operations can be
+ * cancelled, which leaves the images as they were.
+ * </p>
  */
 public class GUIController implements Features {
 
   private final IMEFacade model;
   private final IView view;
+  private final Executor background;
+  private final Executor display;
   private final String currentImage;
   private final String currentHistogramImage;
   private final String currentSplitViewImage;
 
+  // The number of operations requested so far, and the number requested when the last
+  // cancellation happened.
+  private long requested;
+  private long cancelled;
+  // The number of operations that are waiting or running.
+  private int pending;
+  // The thread running the current operation, or null while no operation is running.
+  private Thread running;
+
   /**
-   * Constructs a new GUIController with the specified IMEFacade model and IView.
+   * Constructs a new GUIController with the specified IMEFacade model and IView. Operations run
+   * on a background thread and the view is updated on the Swing event dispatch thread.
    *
    * @param model The underlying image processing model.
    * @param view  The view component for displaying images and interacting with the user.
    */
   public GUIController(IMEFacade model, IView view) {
+    this(model, view, Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "GRIME worker");
+      thread.setDaemon(true);
+      return thread;
+    }), SwingUtilities::invokeLater);
+  }
+
+  /**
+   * Constructs a new GUIController with the specified IMEFacade model and IView that runs the
+   * operations with the given executor and updates the view with the other.
+   *
+   * @param model      The underlying image processing model.
+   * @param view       The view component for displaying images and interacting with the user.
+   * @param background The executor running the operations, one at a time in the order they are
+   *                   requested.
+   * @param display    The executor running the updates of the view.
+   */
+  public GUIController(IMEFacade model, IView view, Executor background, Executor display) {
     this.model = model;
     this.view = view;
+    this.background = background;
+    this.display = display;
     view.addFeatures(this);
     currentImage = "b1a34ce9-af60-489f-a0f3-9e20ca55789d";
     currentHistogramImage = "fe25d39c-ed69-4816-a4e1-2d30db48b905";
     currentSplitViewImage = "ba2b6a3d-aece-489f-9228-90f5500c55e3";
   }
 
-  private void refresh(String currentImageName, String histogramImageName) {
-    view.refresh(currentImageName, histogramImageName);
+  // Runs a command on the current image, then updates its histogram and shows both.
+  private void apply(IMECommand command) {
+    submit(command, currentImage, true, null);
+  }
+
+  // Runs a command producing the split view preview of the current image, then shows it.
+  private void preview(IMECommand command) {
+    submit(command, currentSplitViewImage, false, null);
+  }
+
+  // Queues a command. Once it succeeds the shown image is refreshed, and then the completion, if
+  // any, runs on the display executor.
+  private void submit(IMECommand command, String shownImage, boolean updateHistogram,
+                      Runnable completion) {
+    long request;
+    synchronized (this) {
+      request = ++requested;
+      if (pending++ == 0) {
+        display.execute(() -> view.showProgress(true));
+      }
+    }
+    boolean preview = shownImage.equals(currentSplitViewImage);
+    background.execute(() -> {
+      try {
+        if (start(request, preview)) {
+          run(request, command, shownImage, updateHistogram, completion);
+        }
+      } finally {
+        synchronized (this) {
+          if (--pending == 0) {
+            display.execute(() -> view.showProgress(false));
+          }
+        }
+      }
+    });
+  }
+
+  // Decides whether the requested operation still has to run, and if so marks it as running.
+  private synchronized boolean start(long request, boolean preview) {
+    if (request <= cancelled || (preview && request < requested)) {
+      return false;
+    }
+    running = Thread.currentThread();
+    return true;
   }
 
-  private void executeCommand(IMECommand command) throws IOException, CloneNotSupportedException {
+  private void run(long request, IMECommand command, String shownImage,
+                   boolean updateHistogram, Runnable completion) {
     try {
-      command.run(model);
-    } catch (IllegalArgumentException | InputMismatchException e) {
-      view.displayErrorMessage(e, e.getMessage());
+      try {
+        command.run(model);
+      } finally {
+        synchronized (this) {
+          running = null;
+          // Forget a cancellation that arrived after the model was already updated.
+          Thread.interrupted();
+        }
+      }
+      if (updateHistogram) {
+        histogram();
+      }
+      display.execute(() -> view.refresh(shownImage, currentHistogramImage));
+      if (completion != null) {
+        display.execute(completion);
+      }
+    } catch (CancellationException e) {
+      // The operation stopped before storing its result, so there is nothing new to show.
+    } catch (IOException | CloneNotSupportedException | RuntimeException e) {
+      boolean wasCancelled;
+      synchronized (this) {
+        wasCancelled = request <= cancelled;
+      }
+      if (!wasCancelled) {
+        display.execute(() -> view.displayErrorMessage(e, e.getMessage()));
+      }
     }
   }
 
   @Override
-  public void load(String filepath) throws IOException, CloneNotSupportedException {
-    executeCommand(new Load(filepath, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void load(String filepath) {
+    apply(new Load(filepath, currentImage));
   }
 
   @Override
-  public void save(String filepath) throws IOException, CloneNotSupportedException {
-    executeCommand(new Save(filepath, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void save(String filepath) {
+    submit(new Save(filepath, currentImage), currentImage, true,
+        () -> view.showSaved(filepath));
   }
 
   @Override
-  public void redComponent() throws IOException, CloneNotSupportedException {
-    executeCommand(new RedComponent(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void redComponent() {
+    apply(new RedComponent(currentImage, currentImage));
   }
 
   @Override
-  public void greenComponent() throws IOException, CloneNotSupportedException {
-    executeCommand(new GreenComponent(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void greenComponent() {
+    apply(new GreenComponent(currentImage, currentImage));
   }
 
   @Override
-  public void blueComponent() throws IOException, CloneNotSupportedException {
-    executeCommand(new BlueComponent(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void blueComponent() {
+    apply(new BlueComponent(currentImage, currentImage));
   }
 
   @Override
-  public void value() throws IOException, CloneNotSupportedException {
-    executeCommand(new Value(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void value() {
+    apply(new Value(currentImage, currentImage));
   }
 
   @Override
-  public void intensity() throws IOException, CloneNotSupportedException {
-    executeCommand(new Intensity(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void intensity() {
+    apply(new Intensity(currentImage, currentImage));
   }
 
   @Override
-  public void luma() throws IOException, CloneNotSupportedException {
-    executeCommand(new Luma(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void luma() {
+    apply(new Luma(currentImage, currentImage));
   }
 
   @Override
-  public void luma(double splitPercentage) throws CloneNotSupportedException, IOException {
-    executeCommand(new LumaWithParams(currentImage,
+  public void luma(double splitPercentage) {
+    preview(new LumaWithParams(currentImage,
             currentSplitViewImage, new HashMap<>() {
               {
                 put("split", String.valueOf(splitPercentage));
               }
-            } ));
-    refresh(currentSplitViewImage, currentHistogramImage);
+            }));
   }
 
   @Override
-  public void flipHorizontal() throws IOException, CloneNotSupportedException {
-    executeCommand(new HorizontalFlip(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void flipHorizontal() {
+    apply(new HorizontalFlip(currentImage, currentImage));
   }
 
   @Override
-  public void flipVertical() throws IOException, CloneNotSupportedException {
-    executeCommand(new VerticalFlip(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void flipVertical() {
+    apply(new VerticalFlip(currentImage, currentImage));
   }
 
   @Override
-  public void blur() throws IOException, CloneNotSupportedException {
-    executeCommand(new Blur(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void blur() {
+    apply(new Blur(currentImage, currentImage));
   }
 
   @Override
-  public void blur(double splitPercentage) throws CloneNotSupportedException, IOException {
-    executeCommand(new BlurWithParams(currentImage,
+  public void blur(double splitPercentage) {
+    preview(new BlurWithParams(currentImage,
             currentSplitViewImage, new HashMap<>() {
               {
                 put("split", String.valueOf(splitPercentage));
               }
-            } ));
-    refresh(currentSplitViewImage, currentHistogramImage);
+            }));
   }
 
   @Override
-  public void sharpen() throws IOException, CloneNotSupportedException {
-    executeCommand(new Sharpen(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void sharpen() {
+    apply(new Sharpen(currentImage, currentImage));
   }
 
   @Override
-  public void sharpen(double splitPercentage) throws CloneNotSupportedException, IOException {
-    executeCommand(new SharpenWithParams(currentImage,
+  public void sharpen(double splitPercentage) {
+    preview(new SharpenWithParams(currentImage,
             currentSplitViewImage, new HashMap<>() {
               {
                 put("split", String.valueOf(splitPercentage));
               }
-            } ));
-    refresh(currentSplitViewImage, currentHistogramImage);
+            }));
   }
 
   @Override
-  public void sepia() throws IOException, CloneNotSupportedException {
-    executeCommand(new Sepia(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void sepia() {
+    apply(new Sepia(currentImage, currentImage));
   }
 
   @Override
-  public void sepia(double splitPercentage) throws CloneNotSupportedException, IOException {
-    executeCommand(new SepiaWithParams(currentImage,
+  public void sepia(double splitPercentage) {
+    preview(new SepiaWithParams(currentImage,
             currentSplitViewImage, new HashMap<>() {
               {
                 put("split", String.valueOf(splitPercentage));
               }
             }));
-    refresh(currentSplitViewImage, currentHistogramImage);
   }
 
   @Override
-  public void compress(double percentage)
-      throws IllegalArgumentException, IOException, CloneNotSupportedException {
-    executeCommand(new Compress(percentage, currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void compress(double percentage) {
+    apply(new Compress(percentage, currentImage, currentImage));
   }
 
   @Override
@@ -219,48 +298,50 @@ public class GUIController implements Features {
   }
 
   @Override
-  public void colorCorrect() throws IOException, CloneNotSupportedException {
-    executeCommand(new ColorCorrect(currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void colorCorrect() {
+    apply(new ColorCorrect(currentImage, currentImage));
   }
 
   @Override
-  public void colorCorrect(double splitPercentage) throws CloneNotSupportedException, IOException {
-    executeCommand(new ColorCorrectWithParams(currentImage,
+  public void colorCorrect(double splitPercentage) {
+    preview(new ColorCorrectWithParams(currentImage,
         currentSplitViewImage,
             new HashMap<>() {
         {
           put("split", String.valueOf(splitPercentage));
         }
-      } ));
-    refresh(currentSplitViewImage, currentHistogramImage);
+      }));
   }
 
   @Override
-  public void adjustLevels(int black, int mid, int white)
-      throws IllegalArgumentException, IOException, CloneNotSupportedException {
-    executeCommand(new LevelsAdjust(black, mid, white, currentImage, currentImage));
-    histogram();
-    refresh(currentImage, currentHistogramImage);
+  public void adjustLevels(int black, int mid, int white) {
+    apply(new LevelsAdjust(black, mid, white, currentImage, currentImage));
   }
 
   @Override
-  public void adjustLevels(int black, int mid, int white, double splitPercentage)
-      throws CloneNotSupportedException, IOException {
-    executeCommand(new LevelsAdjustWithParams(black, mid, white, currentImage,
+  public void adjustLevels(int black, int mid, int white, double splitPercentage) {
+    preview(new LevelsAdjustWithParams(black, mid, white, currentImage,
         currentSplitViewImage,
             new HashMap<>() {
         {
           put("split", String.valueOf(splitPercentage));
         }
-      } ));
-    refresh(currentSplitViewImage, currentHistogramImage);
+      }));
   }
 
   @Override
   public void disableSplitView() {
-    view.refresh(currentImage, currentHistogramImage);
+    submit(new Remove(currentSplitViewImage), currentImage, false, null);
+  }
+
+  @Override
+  public void cancel() {
+    synchronized (this) {
+      cancelled = requested;
+      if (running != null) {
+        running.interrupt();
+      }
+    }
   }
 
 }
@@ -9,12 +9,16 @@ package ime.controller;
 import ime.controller.commands.BlueComponent;
 import ime.controller.commands.Blur;
 import ime.controller.commands.Brighten;
+import ime.controller.commands.CacheSize;
 import ime.controller.commands.GreenComponent;
 import ime.controller.commands.HorizontalFlip;
 import ime.controller.commands.IMECommand;
 import ime.controller.commands.Intensity;
+import ime.controller.commands.LazyEvaluation;
 import ime.controller.commands.Load;
 import ime.controller.commands.Luma;
+import ime.controller.commands.Parallelism;
+import ime.controller.commands.Remove;
 import ime.controller.commands.RGBCombine;
 import ime.controller.commands.RGBSplit;
 import ime.controller.commands.RedComponent;
@@ -62,6 +66,10 @@ public class IMECommandRepository implements CommandRepository {
     commands.put("sharpen", s -> new Sharpen(s.next(), s.next()));
     commands.put("sepia", s -> new Sepia(s.next(), s.next()));
     commands.put("run", s -> new RunScript(s.next()));
+    commands.put("parallelism", s -> new Parallelism(s.nextInt()));
+    commands.put("remove", s -> new Remove(s.next()));
+    commands.put("cache-size", s -> new CacheSize(s.nextInt()));
+    commands.put("lazy-evaluation", s -> new LazyEvaluation(s.nextBoolean()));
   }
 
   /**
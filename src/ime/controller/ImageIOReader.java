@@ -1,65 +1,483 @@
 /**
  * The ImageIOReader class implements the ImageReader interface and is used to read images
- * using Java's ImageIO library. It converts image data from a specified file into an input stream.
+ * using Java's ImageIO library. It converts image data from a specified file into a raster.
  */
 
 package ime.controller;
 
-import java.awt.Color;
+import ime.model.PixelRaster;
+import ime.model.RasterSource;
+import java.awt.image.BandedSampleModel;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.NoSuchElementException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
 
 /**
  * The ImageIOReader class is responsible for reading images in various formats using Java's
  *        ImageIO library. Supported image extensions are "bmp", "jpg" and "png".
+ *        Images stored as 8-bit BGR bytes or packed RGB integers, which covers most JPEG, BMP
+ *        and PNG files, are copied straight from their data buffer; any other image is converted
+ *        a whole row at a time. An image opened for reading regions is decoded a single time into
+ *        a temporary file, from which its regions are read.
  */
 public class ImageIOReader implements ImageReader {
 
   /**
-   * Reads image data from the specified file and provides it as an input stream.
+   * Reads the pixels of the image in the specified file.
    *
    * @param filepath The path to the image file to be read.
-   * @return An input stream containing the image data.
+   * @return A raster containing the pixels of the image.
    * @throws IOException If there is an error during the image reading process or if the
    *        file path is invalid.
    */
   @Override
-  public InputStream readImage(String filepath) throws IOException {
+  public PixelRaster readRaster(String filepath) throws IOException {
     try {
       BufferedImage bufferedImage = ImageIO.read(new File(filepath));
-      StringBuilder imageRGB = new StringBuilder();
-      int max = 0;
       int width = bufferedImage.getWidth();
       int height = bufferedImage.getHeight();
+      int[] samples = samples(bufferedImage);
+      return new PixelRaster(width, height, largest(samples), samples);
+    } catch (IOException | NoSuchElementException e) {
+      throw new IOException("Please input a valid file");
+    }
 
-      for (int y = 0; y < height; y++) {
-        for (int x = 0; x < width; x++) {
-          int pixel = bufferedImage.getRGB(x, y);
-          Color color = new Color(pixel);
-          int red = color.getRed();
-          int green = color.getGreen();
-          int blue = color.getBlue();
-          max = Math.max(Math.max(Math.max(max, red), green), blue);
-          imageRGB.append(red).append(System.lineSeparator());
-          imageRGB.append(green).append(System.lineSeparator());
-          imageRGB.append(blue).append(System.lineSeparator());
+  }
+
+  /**
+   * Opens the image in the specified file for reading a region at a time. The image is decoded
+   * once when it is opened, into a temporary binary PPM file from which the regions are read
+   * afterwards. Only a row of the image is held in memory while it is decoded: the decoder writes
+   * into an image whose rows are kept in a scratch file, and the rows are then converted to red,
+   * green and blue values from top to bottom. As when the whole image is read, the maximum color
+   * value of the image is its largest color component, which is found during the conversion.
+   * <p>
+   * The BMP decoder only writes into the standard data buffers of an image, so a BMP image is read
+   * whole into memory instead, as are images whose color values are not integers. Any other
+   * failure of the decoder is reported as an invalid file.
+   * </p>
+   *
+   * @param filepath The path to the image file to be read.
+   * @return A source of the regions of the image, which must be closed after use.
+   * @throws IOException If the file cannot be opened or cannot be decoded.
+   */
+  @Override
+  public RasterSource openRaster(String filepath) throws IOException {
+    ImageInputStream input;
+    try {
+      input = ImageIO.createImageInputStream(new File(filepath));
+    } catch (IOException e) {
+      input = null;
+    }
+    if (input == null) {
+      throw new IOException("Please input a valid file");
+    }
+    Path spill = null;
+    try {
+      javax.imageio.ImageReader reader = ImageIO.getImageReaders(input).next();
+      try {
+        reader.setInput(input, true, true);
+        spill = createSpill();
+        int max;
+        try (FileChannel channel = FileChannel.open(spill, StandardOpenOption.WRITE)) {
+          max = decode(reader, channel);
+        }
+        if (max >= 0) {
+          return new SpilledSource(new BinaryPPMImageReader().openRaster(spill.toString()),
+              spill, max);
         }
+      } finally {
+        reader.dispose();
       }
+    } catch (IOException | RuntimeException e) {
+      deleteSpill(spill);
+      throw new IOException("Please input a valid file");
+    } finally {
+      input.close();
+    }
+    deleteSpill(spill);
+    return ImageReader.super.openRaster(filepath);
+  }
 
-      String imageData = width + " "
-          + height + System.lineSeparator()
-          + max + System.lineSeparator()
-          + imageRGB;
+  // Decodes the image into a binary PPM file, returning its largest color component, or -1 if
+  // the decoder cannot write into an image whose rows are kept in a file. Rows the decoder does
+  // not write are black, as they are when the whole image is read.
+  private static int decode(javax.imageio.ImageReader reader, FileChannel channel)
+      throws IOException {
+    int width = reader.getWidth(0);
+    int height = reader.getHeight(0);
+    ImageTypeSpecifier type = reader.getImageTypes(0).next();
+    SampleModel sampleModel = type.getSampleModel(width, height);
+    if (sampleModel instanceof ComponentSampleModel) {
+      // Banded samples keep the index of every element within an int for very large images.
+      sampleModel = new BandedSampleModel(sampleModel.getDataType(), width, height,
+          sampleModel.getNumBands());
+    }
+    int stride = RowSpill.stride(sampleModel);
+    if (stride <= 0 || height == 0) {
+      return -1;
+    }
+    Path scratch = createSpill();
+    try (FileChannel rowFile = FileChannel.open(scratch, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      RowSpill rows = new RowSpill(sampleModel, stride, height, rowFile);
+      BufferedImage image = new BufferedImage(type.getColorModel(),
+          Raster.createWritableRaster(sampleModel, rows, null),
+          type.getColorModel().isAlphaPremultiplied(), null);
+      ImageReadParam param = reader.getDefaultReadParam();
+      param.setDestination(image);
+      try {
+        reader.read(0, param);
+      } catch (ClassCastException e) {
+        // The decoder casts the data buffer of the image to one of the standard ones.
+        return -1;
+      }
+      rows.finish();
+      return convert(image, rows, channel);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      deleteSpill(scratch);
+    }
+  }
 
-      return new ByteArrayInputStream(imageData.getBytes());
-    } catch (IOException | NoSuchElementException e) {
-      throw new IOException("Please input a valid file");
+  // Writes the rows of the decoded image to a binary PPM file from top to bottom, returning the
+  // largest color component.
+  private static int convert(BufferedImage image, RowSpill rows, FileChannel channel)
+      throws IOException {
+    int width = image.getWidth();
+    ByteBuffer header = ByteBuffer.wrap(("P6\n" + width + " " + image.getHeight() + "\n255\n")
+        .getBytes(StandardCharsets.US_ASCII));
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+    int max = 0;
+    int[] pixels = new int[width];
+    ByteBuffer bytes = ByteBuffer.allocate(3 * width);
+    for (int y = 0; y < image.getHeight(); y++) {
+      rows.select(y);
+      image.getRGB(0, y, width, 1, pixels, 0, width);
+      bytes.clear();
+      for (int pixel : pixels) {
+        int red = (pixel >> 16) & 0xFF;
+        int green = (pixel >> 8) & 0xFF;
+        int blue = pixel & 0xFF;
+        max = Math.max(max, Math.max(red, Math.max(green, blue)));
+        bytes.put((byte) red).put((byte) green).put((byte) blue);
+      }
+      bytes.flip();
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+    return max;
+  }
+
+  private static Path createSpill() throws IOException {
+    Path spill = Files.createTempFile("ime-stream", ".ppm");
+    spill.toFile().deleteOnExit();
+    return spill;
+  }
+
+  private static void deleteSpill(Path spill) {
+    if (spill != null) {
+      try {
+        Files.deleteIfExists(spill);
+      } catch (IOException e) {
+        // The file is left for the temporary directory to clean up.
+      }
+    }
+  }
+
+  /**
+   * A data buffer that holds a single row of an image in memory and keeps the other rows in a
+   * scratch file. Moving to another row writes the current row to its place in the file and reads
+   * the other row back if it was written before, so decoders that fill the image in several
+   * passes, such as the ones for progressive JPEG and interlaced PNG images, still work, while a
+   * decoder writing the rows in order writes each of them once.
+   */
+  private static final class RowSpill extends DataBuffer {
+
+    private final int stride;
+    private final int rowBytes;
+    private final int elementBytes;
+    private final FileChannel file;
+    private final int[][] row;
+    private final ByteBuffer bytes;
+    private final BitSet written;
+    private int current;
+
+    RowSpill(SampleModel sampleModel, int stride, int height, FileChannel file) {
+      super(sampleModel.getDataType(), stride * height, banks(sampleModel));
+      this.stride = stride;
+      this.file = file;
+      this.elementBytes = DataBuffer.getDataTypeSize(getDataType()) / 8;
+      this.rowBytes = getNumBanks() * stride * elementBytes;
+      this.row = new int[getNumBanks()][stride];
+      this.bytes = ByteBuffer.allocate(rowBytes);
+      this.written = new BitSet(height);
+      this.current = -1;
+    }
+
+    // Gets the number of elements in a row of every bank, or -1 if the samples of a row are not
+    // stored together or are not integers.
+    static int stride(SampleModel sampleModel) {
+      int dataType = sampleModel.getDataType();
+      if (dataType == TYPE_FLOAT || dataType == TYPE_DOUBLE) {
+        return -1;
+      }
+      if (sampleModel instanceof ComponentSampleModel) {
+        return ((ComponentSampleModel) sampleModel).getScanlineStride();
+      } else if (sampleModel instanceof SinglePixelPackedSampleModel) {
+        return ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride();
+      } else if (sampleModel instanceof MultiPixelPackedSampleModel) {
+        return ((MultiPixelPackedSampleModel) sampleModel).getScanlineStride();
+      }
+      return -1;
+    }
+
+    private static int banks(SampleModel sampleModel) {
+      return sampleModel instanceof ComponentSampleModel ? sampleModel.getNumBands() : 1;
+    }
+
+    // Writes the current row to the file.
+    void finish() {
+      move(-1);
+    }
+
+    // Makes the given row the one held in memory.
+    void select(int target) {
+      if (target != current) {
+        move(target);
+      }
     }
 
+    @Override
+    public int getElem(int bank, int i) {
+      return row[bank][column(bank, i)];
+    }
+
+    @Override
+    public void setElem(int bank, int i, int val) {
+      int column = column(bank, i);
+      switch (getDataType()) {
+        case TYPE_BYTE:
+          val &= 0xFF;
+          break;
+        case TYPE_USHORT:
+          val &= 0xFFFF;
+          break;
+        case TYPE_SHORT:
+          val = (short) val;
+          break;
+        default:
+          break;
+      }
+      row[bank][column] = val;
+    }
+
+    // Finds the element within its row, moving to that row first if it is not the current one.
+    private int column(int bank, int i) {
+      int index = i - getOffsets()[bank];
+      select(index / stride);
+      return index % stride;
+    }
+
+    private void move(int target) {
+      try {
+        if (current >= 0) {
+          bytes.clear();
+          for (int[] bank : row) {
+            for (int value : bank) {
+              putElement(value);
+            }
+          }
+          bytes.flip();
+          long position = (long) rowBytes * current;
+          while (bytes.hasRemaining()) {
+            file.write(bytes, position + bytes.position());
+          }
+          written.set(current);
+        }
+        current = target;
+        if (target >= 0 && written.get(target)) {
+          bytes.clear();
+          long position = (long) rowBytes * target;
+          while (bytes.hasRemaining()) {
+            if (file.read(bytes, position + bytes.position()) < 0) {
+              throw new IOException("Scratch file ended early");
+            }
+          }
+          bytes.flip();
+          for (int[] bank : row) {
+            for (int k = 0; k < bank.length; k++) {
+              bank[k] = getElement();
+            }
+          }
+        } else {
+          for (int[] bank : row) {
+            Arrays.fill(bank, 0);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void putElement(int value) {
+      if (elementBytes == 1) {
+        bytes.put((byte) value);
+      } else if (elementBytes == 2) {
+        bytes.putShort((short) value);
+      } else {
+        bytes.putInt(value);
+      }
+    }
+
+    private int getElement() {
+      if (elementBytes == 1) {
+        return bytes.get() & 0xFF;
+      } else if (elementBytes == 2) {
+        return getDataType() == TYPE_SHORT ? bytes.getShort() : bytes.getShort() & 0xFFFF;
+      }
+      return bytes.getInt();
+    }
+  }
+
+  /**
+   * Reads regions of an image from the temporary binary PPM file it was decoded into, reporting
+   * the largest color component of the image as its maximum color value. Closing the source
+   * deletes the file.
+   */
+  static final class SpilledSource implements RasterSource {
+
+    private final RasterSource file;
+    private final Path path;
+    private final int max;
+
+    SpilledSource(RasterSource file, Path path, int max) {
+      this.file = file;
+      this.path = path;
+      this.max = max;
+    }
+
+    @Override
+    public int getWidth() {
+      return file.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+      return file.getHeight();
+    }
+
+    @Override
+    public int getMax() {
+      return max;
+    }
+
+    @Override
+    public PixelRaster readRegion(int rowStart, int colStart, int width, int height)
+        throws IOException {
+      PixelRaster region = file.readRegion(rowStart, colStart, width, height);
+      return new PixelRaster(width, height, max, region.getSamples());
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        file.close();
+      } finally {
+        deleteSpill(path);
+      }
+    }
+  }
+
+  // Converts the pixels of an image into red, green and blue values in row-major order.
+  private static int[] samples(BufferedImage bufferedImage) {
+    int width = bufferedImage.getWidth();
+    int height = bufferedImage.getHeight();
+    int[] samples = new int[3 * width * height];
+
+    if (!readBytes(bufferedImage, samples)) {
+      int[] row = new int[width];
+      for (int y = 0, k = 0; y < height; y++) {
+        if (!readInts(bufferedImage, y, row)) {
+          bufferedImage.getRGB(0, y, width, 1, row, 0, width);
+        }
+        for (int x = 0; x < width; x++, k += 3) {
+          int pixel = row[x];
+          samples[k] = (pixel >> 16) & 0xFF;
+          samples[k + 1] = (pixel >> 8) & 0xFF;
+          samples[k + 2] = pixel & 0xFF;
+        }
+      }
+    }
+    return samples;
+  }
+
+  private static int largest(int[] samples) {
+    int max = 0;
+    for (int value : samples) {
+      max = Math.max(max, value);
+    }
+    return max;
+  }
+
+  // Copies a row of an image stored as packed RGB integers without any color conversion.
+  private static boolean readInts(BufferedImage image, int y, int[] row) {
+    int type = image.getType();
+    if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB) {
+      return false;
+    }
+    image.getRaster().getDataElements(0, y, row.length, 1, row);
+    return true;
+  }
+
+  // Copies an image stored as interleaved blue, green and red bytes without any color conversion.
+  private static boolean readBytes(BufferedImage image, int[] samples) {
+    if (image.getType() != BufferedImage.TYPE_3BYTE_BGR
+        || !(image.getRaster().getDataBuffer() instanceof DataBufferByte)
+        || !(image.getSampleModel() instanceof PixelInterleavedSampleModel)) {
+      return false;
+    }
+    PixelInterleavedSampleModel sampleModel = (PixelInterleavedSampleModel) image.getSampleModel();
+    int width = image.getWidth();
+    if (sampleModel.getPixelStride() != 3 || sampleModel.getScanlineStride() != 3 * width
+        || image.getRaster().getSampleModelTranslateX() != 0
+        || image.getRaster().getSampleModelTranslateY() != 0) {
+      return false;
+    }
+    int[] bandOffsets = sampleModel.getBandOffsets();
+    byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    int offset = ((DataBufferByte) image.getRaster().getDataBuffer()).getOffset();
+    for (int k = 0; k < samples.length; k += 3) {
+      samples[k] = data[offset + k + bandOffsets[0]] & 0xFF;
+      samples[k + 1] = data[offset + k + bandOffsets[1]] & 0xFF;
+      samples[k + 2] = data[offset + k + bandOffsets[2]] & 0xFF;
+    }
+    return true;
   }
 }
@@ -1,51 +1,70 @@
 /**
  * The ImageIOWriter class implements the ImageWriter interface and is used to write
- * images using Java's ImageIO library. It converts image data from an input stream
+ * images using Java's ImageIO library. It converts the pixels of a raster
  * into a common image format and saves it to a specified file path.
  */
 
 package ime.controller;
 
+import ime.model.PixelRaster;
+import ime.model.RasterSink;
+import ime.model.RasterSource;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Scanner;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import javax.imageio.ImageIO;
 
 /**
  * The ImageIOWriter class is responsible for writing images in various formats using Java's
  *        ImageIO library. Supported image extensions are "bmp", "jpg" and "png".
+ *        An image written a band of rows at a time is kept in a temporary binary PPM file until
+ *        its last row has arrived, and is then encoded from that file a band at a time.
  */
 public class ImageIOWriter implements ImageWriter {
 
+  // The number of rows read from the temporary file at a time while an image is encoded.
+  private static final int BAND_ROWS = 64;
+
+  // The red, green and blue masks of the packed pixels handed to the ImageIO writers.
+  private static final int[] MASKS = {0xFF0000, 0xFF00, 0xFF};
+
   /**
-   * Writes image data from an input stream to a file using Java's ImageIO library.
+   * Writes the pixels of a raster to a file using Java's ImageIO library.
    *
-   * @param out      The input stream containing image data to be written.
+   * @param raster   The raster containing the pixels of the image.
    * @param filepath The path to the file where the image should be saved.
    * @throws IOException If there is an error during the image writing process or if the
    *        file path is invalid.
    */
   @Override
-  public void writeImage(OutputStream out, String filepath) throws IOException {
+  public void writeRaster(PixelRaster raster, String filepath) throws IOException {
 
     try {
-      Scanner sc = new Scanner(out.toString());
-      int width = sc.nextInt();
-      int height = sc.nextInt();
-      int max = sc.nextInt();
+      int width = raster.getWidth();
+      int height = raster.getHeight();
+      int[] samples = raster.getSamples();
       BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
       WritableRaster writableRaster = bufferedImage.getRaster();
 
-      for (int y = 0; y < height; y++) {
-        for (int x = 0; x < width; x++) {
-          int red = sc.nextInt();
-          int green = sc.nextInt();
-          int blue = sc.nextInt();
-          writableRaster.setPixel(x, y, new int[]{red, green, blue});
+      // Only the low 8 bits of each color value fit in the image.
+      int[] row = new int[width];
+      for (int y = 0, k = 0; y < height; y++) {
+        for (int x = 0; x < width; x++, k += 3) {
+          row[x] = (samples[k] & 0xFF) << 16 | (samples[k + 1] & 0xFF) << 8
+              | (samples[k + 2] & 0xFF);
         }
+        writableRaster.setDataElements(0, y, width, 1, row);
       }
 
       String fileExtension = FileUtil.getFileExtension(filepath);
@@ -56,4 +75,150 @@ public class ImageIOWriter implements ImageWriter {
     }
 
   }
+
+  /**
+   * Opens the specified file for writing an image a band of rows at a time. The rows are written
+   * to a temporary binary PPM file as they arrive. Once every row has been written, closing the
+   * sink encodes the image from the temporary file, which the ImageIO writers read a band of rows
+   * at a time, so the whole image is never held in memory. The temporary file is deleted
+   * afterwards.
+   *
+   * @param filepath The path to the file where the image should be saved.
+   * @return A sink receiving the rows of the image, which must be closed to complete the file.
+   * @throws IOException If the format is not supported or the file cannot be opened for writing.
+   */
+  @Override
+  public RasterSink openSink(String filepath) throws IOException {
+    String format = FileUtil.getFileExtension(filepath);
+    if (!ImageIO.getImageWritersBySuffix(format).hasNext()) {
+      throw new IOException("Please input a valid file");
+    }
+    OutputStream file;
+    Path spill;
+    RasterSink rows;
+    try {
+      file = new BufferedOutputStream(new FileOutputStream(filepath));
+    } catch (IOException e) {
+      throw new IOException("Please input a valid file");
+    }
+    try {
+      spill = Files.createTempFile("ime-stream", ".pnm");
+      spill.toFile().deleteOnExit();
+      rows = new BinaryPPMImageWriter().openSink(spill.toString());
+    } catch (IOException e) {
+      file.close();
+      throw e;
+    }
+    return new RasterSink() {
+      private int height = -1;
+      private int rowsWritten;
+
+      @Override
+      public void start(int width, int height, int max) throws IOException {
+        if (width == 0 || height == 0) {
+          throw new IOException("An empty image cannot be written as " + format);
+        }
+        // The ImageIO writers index the pixels of an image with an int.
+        if ((long) width * height > Integer.MAX_VALUE) {
+          throw new IOException("Image is too large to be written as " + format);
+        }
+        // A binary PPM file needs a positive maximum value, which only sets the size of a value.
+        rows.start(width, height, Math.max(1, max));
+        this.height = height;
+      }
+
+      @Override
+      public void writeRows(PixelRaster band) throws IOException {
+        rows.writeRows(band);
+        rowsWritten += band.getHeight();
+      }
+
+      @Override
+      public void close() throws IOException {
+        try {
+          rows.close();
+          // An image that was not completed is not encoded.
+          if (rowsWritten == height) {
+            encode(spill, format, file);
+          }
+        } finally {
+          try {
+            file.close();
+          } finally {
+            Files.deleteIfExists(spill);
+          }
+        }
+      }
+    };
+  }
+
+  // Encodes the image in the binary PPM file at the given path into the output stream.
+  private static void encode(Path spill, String format, OutputStream file) throws IOException {
+    try (RasterSource source = new BinaryPPMImageReader().openRaster(spill.toString())) {
+      int width = source.getWidth();
+      int height = source.getHeight();
+      BufferedImage image = new BufferedImage(new DirectColorModel(24, MASKS[0], MASKS[1],
+          MASKS[2]), Raster.createWritableRaster(new SinglePixelPackedSampleModel(
+              DataBuffer.TYPE_INT, width, height, MASKS), new BandBuffer(source), null),
+          false, null);
+      if (!ImageIO.write(image, format, file)) {
+        throw new IOException("Please input a valid file");
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * A read-only data buffer holding the packed pixels of an image in a binary PPM file. The rows
+   * are read from the file a band at a time when one of their pixels is first requested, and only
+   * the last band read is kept in memory. As when a whole raster is written, only the low 8 bits
+   * of each color value are kept.
+   */
+  private static final class BandBuffer extends DataBuffer {
+
+    private final RasterSource source;
+    private final int width;
+    private final int[] band;
+    private int bandStart;
+    private int bandRows;
+
+    BandBuffer(RasterSource source) {
+      super(TYPE_INT, source.getWidth() * source.getHeight());
+      this.source = source;
+      this.width = source.getWidth();
+      this.band = new int[width * Math.min(BAND_ROWS, source.getHeight())];
+      this.bandStart = -1;
+    }
+
+    @Override
+    public int getElem(int bank, int i) {
+      int row = i / width;
+      if (bandStart < 0 || row < bandStart || row >= bandStart + bandRows) {
+        read(row - row % BAND_ROWS);
+      }
+      return band[i - bandStart * width];
+    }
+
+    @Override
+    public void setElem(int bank, int i, int val) {
+      throw new UnsupportedOperationException("Streamed images cannot be modified");
+    }
+
+    private void read(int rowStart) {
+      int rows = Math.min(BAND_ROWS, source.getHeight() - rowStart);
+      int[] samples;
+      try {
+        samples = source.readRegion(rowStart, 0, width, rows).getSamples();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      for (int k = 0, j = 0; k < rows * width; k++, j += 3) {
+        band[k] = (samples[j] & 0xFF) << 16 | (samples[j + 1] & 0xFF) << 8
+            | (samples[j + 2] & 0xFF);
+      }
+      bandStart = rowStart;
+      bandRows = rows;
+    }
+  }
 }
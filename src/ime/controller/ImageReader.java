@@ -5,12 +5,18 @@
 
 package ime.controller;
 
+import ime.model.PixelRaster;
+import ime.model.RasterSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
 /**
  * The ImageReader interface specifies a method for reading image data from an input stream,
- * which is usually loaded from a file.
+ * which is usually loaded from a file. Readers decode the file into a {@link PixelRaster} that is
+ * handed to the model directly; the stream based method remains for callers that still exchange
+ * the text format.
  */
 public interface ImageReader {
 
@@ -22,5 +28,63 @@ public interface ImageReader {
    * @throws IOException If there is an error during the image reading process or if
    *        the file path is invalid.
    */
-  InputStream readImage(String filepath) throws IOException;
+  default InputStream readImage(String filepath) throws IOException {
+    ByteArrayOutputStream imageData = new ByteArrayOutputStream();
+    readRaster(filepath).write(imageData);
+    return new ByteArrayInputStream(imageData.toByteArray());
+  }
+
+  /**
+   * Reads the pixels of the image in the specified file.
+   *
+   * @param filepath The path to the file from which the image data should be read.
+   * @return A raster containing the pixels of the image.
+   * @throws IOException If there is an error during the image reading process or if
+   *        the file path is invalid.
+   */
+  PixelRaster readRaster(String filepath) throws IOException;
+
+  /**
+   * Opens the image in the specified file for reading a region at a time. Readers that cannot
+   * read a region of the file on its own read the whole image into memory when it is opened.
+   *
+   * @param filepath The path to the file from which the image data should be read.
+   * @return A source of the regions of the image, which must be closed after use.
+   * @throws IOException If there is an error during the image reading process or if
+   *        the file path is invalid.
+   */
+  default RasterSource openRaster(String filepath) throws IOException {
+    PixelRaster raster = readRaster(filepath);
+    return new RasterSource() {
+      @Override
+      public int getWidth() {
+        return raster.getWidth();
+      }
+
+      @Override
+      public int getHeight() {
+        return raster.getHeight();
+      }
+
+      @Override
+      public int getMax() {
+        return raster.getMax();
+      }
+
+      @Override
+      public PixelRaster readRegion(int rowStart, int colStart, int width, int height)
+          throws IOException {
+        try {
+          return raster.getRegion(rowStart, colStart, width, height);
+        } catch (IllegalArgumentException e) {
+          throw new IOException("Please input a valid file");
+        }
+      }
+
+      @Override
+      public void close() {
+        // Nothing is held open once the image is in memory.
+      }
+    };
+  }
 }
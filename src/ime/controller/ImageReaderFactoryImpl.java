@@ -8,7 +8,8 @@ package ime.controller;
 
 /**
  * The ImageReaderFactoryImpl class offers a method to create an ImageReader
- * based on the file extension of the image file.
+ * based on the file extension of the image file. PPM files are read as plain P3 or
+ * binary P6 images depending on the token at the start of the file.
  */
 public class ImageReaderFactoryImpl implements ImageReaderFactory {
 
@@ -28,6 +29,10 @@ public class ImageReaderFactoryImpl implements ImageReaderFactory {
     String fileExtension = FileUtil.getFileExtension(imagePath).strip();
     switch (fileExtension) {
       case "ppm":
+      case "pnm":
+        if (BinaryPPMImageReader.isBinaryPPM(imagePath)) {
+          return new BinaryPPMImageReader();
+        }
         return new PPMImageReader();
       case "jpg":
       case "png":
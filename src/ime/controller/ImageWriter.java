@@ -5,12 +5,17 @@
 
 package ime.controller;
 
+import ime.model.PixelRaster;
+import ime.model.RasterSink;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
 /**
  * The ImageWriter interface specifies a method for writing image data to
- * an output stream and saving it to a file.
+ * an output stream and saving it to a file. Writers encode a {@link PixelRaster} handed over by
+ * the model directly; the stream based method remains for callers that still exchange the text
+ * format.
  */
 public interface ImageWriter {
 
@@ -23,5 +28,56 @@ public interface ImageWriter {
    * @throws IOException If there is an error during the image writing process
    *          or if the file path is invalid.
    */
-  void writeImage(OutputStream out, String filepath) throws IOException;
+  default void writeImage(OutputStream out, String filepath) throws IOException {
+    writeRaster(PixelRaster.read(new ByteArrayInputStream(out.toString().getBytes())), filepath);
+  }
+
+  /**
+   * Writes the pixels of a raster to the specified file.
+   *
+   * @param raster   The raster containing the pixels of the image.
+   * @param filepath The path to the file where the image should be saved.
+   * @throws IOException If there is an error during the image writing process
+   *          or if the file path is invalid.
+   */
+  void writeRaster(PixelRaster raster, String filepath) throws IOException;
+
+  /**
+   * Opens the specified file for writing an image a band of rows at a time. Unless a writer
+   * overrides this method, the whole image is collected in memory and written when the sink is
+   * closed, so an image with more color values than an array can hold is refused when it starts.
+   *
+   * @param filepath The path to the file where the image should be saved.
+   * @return A sink receiving the rows of the image, which must be closed to complete the file.
+   * @throws IOException If the file cannot be opened for writing.
+   */
+  default RasterSink openSink(String filepath) throws IOException {
+    return new RasterSink() {
+      private PixelRaster raster;
+      private int rowsWritten;
+
+      @Override
+      public void start(int width, int height, int max) throws IOException {
+        try {
+          raster = new PixelRaster(width, height, max);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+          throw new IOException("Image is too large to be written to " + filepath);
+        }
+      }
+
+      @Override
+      public void writeRows(PixelRaster rows) {
+        System.arraycopy(rows.getSamples(), 0, raster.getSamples(),
+            3 * rowsWritten * raster.getWidth(), rows.getSamples().length);
+        rowsWritten += rows.getHeight();
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (raster != null) {
+          writeRaster(raster, filepath);
+        }
+      }
+    };
+  }
 }
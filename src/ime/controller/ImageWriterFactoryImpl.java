@@ -9,7 +9,8 @@ package ime.controller;
 
 /**
  * The ImageWriterFactoryImpl class provides methods for creating ImageWriter instances
- * based on the file extension.
+ * based on the file extension. Images saved as "ppm" are written as plain P3 files and
+ * images saved as "pnm" are written as binary P6 files.
  */
 public class ImageWriterFactoryImpl implements ImageWriterFactory {
 
@@ -28,6 +29,8 @@ public class ImageWriterFactoryImpl implements ImageWriterFactory {
     switch (fileExtension) {
       case "ppm":
         return new PPMImageWriter();
+      case "pnm":
+        return new BinaryPPMImageWriter();
       case "jpg":
       case "jpeg":
       case "png":
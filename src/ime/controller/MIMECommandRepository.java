@@ -13,7 +13,10 @@ import ime.controller.commands.LevelsAdjustWithParams;
 import ime.controller.commands.LumaWithParams;
 import ime.controller.commands.SepiaWithParams;
 import ime.controller.commands.SharpenWithParams;
+import ime.controller.commands.Stream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
@@ -47,8 +50,9 @@ public class MIMECommandRepository extends IMECommandRepository {
       String inputImageName = sc.next();
       String outputImageName = sc.next();
       Map<String, String> params = new HashMap<>();
-      if (sc.hasNext("split")) {
-        params.put(sc.next(), sc.next());
+      while (sc.hasNext("split|radius|box")) {
+        String param = sc.next();
+        params.put(param, param.equals("box") ? "" : sc.next());
       }
       return new BlurWithParams(inputImageName, outputImageName, params);
     });
@@ -95,6 +99,26 @@ public class MIMECommandRepository extends IMECommandRepository {
       }
       return new ColorCorrectWithParams(inputImageName, outputImageName, params);
     });
+    commands.put("stream", s -> {
+      Scanner sc = new Scanner(s.nextLine());
+      String operation = sc.next();
+      List<Integer> params = new ArrayList<>();
+      // A blur with a radius takes the radius and whether it is a single box, as blur does.
+      if (operation.equals("blur") && sc.hasNext("radius")) {
+        sc.next();
+        params.add(sc.nextInt());
+        boolean box = sc.hasNext("box");
+        if (box) {
+          sc.next();
+        }
+        params.add(box ? 1 : 0);
+      }
+      while (sc.hasNextInt()) {
+        params.add(sc.nextInt());
+      }
+      int[] parameters = params.stream().mapToInt(Integer::intValue).toArray();
+      return new Stream(operation, parameters, sc.next(), sc.next());
+    });
   }
 
 }
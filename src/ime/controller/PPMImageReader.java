@@ -7,15 +7,14 @@
 
 package ime.controller;
 
-import java.io.ByteArrayInputStream;
+import ime.model.PixelRaster;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 /**
  * The PPMImageReader class is responsible for reading P3 format PPM images from
- * a specified file and providing the image data as an input stream.
+ * a specified file and providing the image data as a raster.
  */
 public class PPMImageReader implements ImageReader {
 
@@ -30,32 +29,40 @@ public class PPMImageReader implements ImageReader {
   }
 
   /**
-   * Reads an image from the specified file and provides it as an input stream.
+   * Reads the pixels of the image in the specified file.
    *
    * @param filepath The path to the file from which the image should be read.
-   * @return An input stream containing the image data.
+   * @return A raster containing the pixels of the image.
    * @throws IOException If there is an error during the image reading process or if the
    *        provided file path is invalid.
    */
   @Override
-  public InputStream readImage(String filepath) throws IOException {
+  public PixelRaster readRaster(String filepath) throws IOException {
     try {
       String fileContent = FileUtil.cleanFileRead(filepath);
 
       Scanner sc = new Scanner(fileContent);
       String token = sc.next();
-      StringBuilder imageData = new StringBuilder();
 
       if (!token.equals(this.token)) {
         throw new IOException("Invalid PPM file: plain RAW file should begin with P3");
       }
 
-      while (sc.hasNext()) {
-        imageData.append(sc.next()).append(System.lineSeparator());
+      int width = sc.nextInt();
+      int height = sc.nextInt();
+      int max = sc.nextInt();
+      PixelRaster raster = new PixelRaster(width, height, max);
+      int[] samples = raster.getSamples();
+      for (int i = 0; i < samples.length; i++) {
+        samples[i] = sc.nextInt();
+      }
+      if (sc.hasNext()) {
+        throw new IOException("Invalid PPM file: unexpected data after the pixels");
       }
 
-      return new ByteArrayInputStream(imageData.toString().getBytes());
-    } catch (IOException | NoSuchElementException e) {
+      return raster;
+    } catch (IOException | IllegalArgumentException | NoSuchElementException
+             | ArithmeticException e) {
       throw new IOException("Please input a valid file");
     }
 
@@ -6,10 +6,12 @@
 
 package ime.controller;
 
+import ime.model.PixelRaster;
+import ime.model.RasterSink;
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.util.Scanner;
+import java.io.Writer;
 
 /**
  * The PPMImageWriter class is responsible for writing P3 format PPM
@@ -28,44 +30,61 @@ public class PPMImageWriter implements ImageWriter {
   }
 
   /**
-   * Writes an image to the specified output stream and saves it to a file.
+   * Writes the pixels of a raster to a file.
    *
-   * @param out      The output stream to write the image data to.
+   * @param raster   The raster containing the pixels of the image.
    * @param filepath The path to the file where the image should be saved.
    * @throws IOException If there is an error during the image writing process,
    *         or if the provided file path is invalid.
    */
   @Override
-  public void writeImage(OutputStream out, String filepath) throws IOException {
-    try {
-      Scanner sc = new Scanner(out.toString());
-      StringBuilder imageData = new StringBuilder();
-
-      int width = sc.nextInt();
-      int height = sc.nextInt();
-      int max = sc.nextInt();
-
-      imageData.append(this.token).append(System.lineSeparator());
-      imageData.append(width).append(" ").append(height).append(System.lineSeparator());
-      imageData.append(max).append(System.lineSeparator());
+  public void writeRaster(PixelRaster raster, String filepath) throws IOException {
+    try (RasterSink sink = openSink(filepath)) {
+      sink.start(raster.getWidth(), raster.getHeight(), raster.getMax());
+      sink.writeRows(raster);
+    } catch (IOException e) {
+      throw new IOException("Please input a valid file");
+    }
 
-      for (int y = 0; y < height; y++) {
-        for (int x = 0; x < width; x++) {
-          int red = sc.nextInt();
-          int green = sc.nextInt();
-          int blue = sc.nextInt();
-          imageData.append(red).append(System.lineSeparator());
-          imageData.append(green).append(System.lineSeparator());
-          imageData.append(blue).append(System.lineSeparator());
-        }
-      }
+  }
 
-      FileWriter writer = new FileWriter(filepath);
-      writer.write(imageData.toString());
-      writer.close();
+  /**
+   * Opens the specified file for writing an image a band of rows at a time. Every band is
+   * written to the file as soon as it is received.
+   *
+   * @param filepath The path to the file where the image should be saved.
+   * @return A sink receiving the rows of the image, which must be closed to complete the file.
+   * @throws IOException If the file cannot be opened for writing.
+   */
+  @Override
+  public RasterSink openSink(String filepath) throws IOException {
+    Writer writer;
+    try {
+      writer = new BufferedWriter(new FileWriter(filepath));
     } catch (IOException e) {
       throw new IOException("Please input a valid file");
     }
+    String lineSeparator = System.lineSeparator();
+    return new RasterSink() {
+      @Override
+      public void start(int width, int height, int max) throws IOException {
+        writer.write(token + lineSeparator);
+        writer.write(width + " " + height + lineSeparator);
+        writer.write(max + lineSeparator);
+      }
 
+      @Override
+      public void writeRows(PixelRaster rows) throws IOException {
+        for (int value : rows.getSamples()) {
+          writer.write(Integer.toString(value));
+          writer.write(lineSeparator);
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        writer.close();
+      }
+    };
   }
 }
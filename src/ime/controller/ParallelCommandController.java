@@ -0,0 +1,258 @@
+/**
+ * The ParallelCommandController class implements the Controller interface and runs a script of
+ * IME (Image Manipulation and Enhancement) commands, executing commands that do not depend on
+ * each other concurrently.
+ */
+
+package ime.controller;
+
+import ime.controller.commands.IMECommand;
+import ime.model.IMEFacade;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * The ParallelCommandController class reads the whole script before running any command. Each
+ * command depends on the earlier commands that write an image or file it reads, and on the
+ * earlier commands that read or write an image or file it writes. Commands run on a pool of
+ * worker threads as soon as the commands they depend on have finished, so every command sees the
+ * same images it would see if the script were run line by line. Commands that do not declare the
+ * images they use wait for every earlier command, and every later command waits for them.
+ * <p>
+ * The messages of the commands are written in the order of the script, each one as soon as the
+ * messages of all the earlier commands have been written, so the output is the same as the
+ * output of the {@link CommandController}.
+ * </p>
+ */
+public class ParallelCommandController implements Controller {
+
+  private final Readable in;
+  private final Appendable out;
+  private final CommandRepository commandRepository;
+  private final int workers;
+
+  /**
+   * Constructs a new ParallelCommandController with the specified input and output sources,
+   * command repository and number of worker threads.
+   *
+   * @param in                The Readable input source for reading the script.
+   * @param out               The Appendable output source for displaying operation results.
+   * @param commandRepository The repository of IME commands.
+   * @param workers           The number of commands that may run at the same time.
+   * @throws IllegalArgumentException If the number of workers is not positive.
+   */
+  public ParallelCommandController(Readable in, Appendable out,
+                                   CommandRepository commandRepository, int workers)
+      throws IllegalArgumentException {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Number of workers must be a positive integer");
+    }
+    this.in = in;
+    this.out = out;
+    this.commandRepository = commandRepository;
+    this.workers = workers;
+  }
+
+  /**
+   * A command of the script together with the commands waiting for it and its outcome.
+   */
+  private static class Step {
+
+    private final int index;
+    private final String name;
+    private final IMECommand command;
+    private final List<Step> dependents;
+    private int pending;
+    private String message;
+    private Throwable failure;
+
+    Step(int index, String name, IMECommand command, String message) {
+      this.index = index;
+      this.name = name;
+      this.command = command;
+      this.dependents = new ArrayList<>();
+      this.message = message;
+    }
+
+    void dependOn(Step step) {
+      if (step != null && step != this && !step.dependents.contains(this)) {
+        step.dependents.add(this);
+        pending++;
+      }
+    }
+  }
+
+  /**
+   * Reads the whole script, then executes its commands on the model, running independent
+   * commands concurrently.
+   *
+   * @param model The IMEFacade model to interact with.
+   * @throws IOException If the results cannot be written to the output.
+   */
+  @Override
+  public void goAhead(IMEFacade model) throws IOException {
+
+    Objects.requireNonNull(model);
+    List<Step> steps = parse();
+    link(steps);
+
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    BlockingQueue<Step> finished = new LinkedBlockingQueue<>();
+    try {
+      // Lines that could not be read are finished from the start.
+      boolean[] done = new boolean[steps.size()];
+      int running = 0;
+      for (Step step : steps) {
+        if (step.command == null) {
+          done[step.index] = true;
+        } else {
+          running++;
+          if (step.pending == 0) {
+            submit(pool, step, model, finished);
+          }
+        }
+      }
+
+      int written = write(steps, done, 0);
+      while (running > 0) {
+        Step step = finished.take();
+        running--;
+        done[step.index] = true;
+        written = write(steps, done, written);
+        // Dependents start only after the messages before them are written, since a command
+        // such as run writes to the standard output itself.
+        for (Step dependent : step.dependents) {
+          dependent.pending--;
+          if (dependent.pending == 0) {
+            submit(pool, dependent, model, finished);
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Script execution was interrupted");
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  // Writes the messages of the finished commands that follow the ones already written, stopping
+  // at the first command that has not finished, and returns the number of messages written.
+  private int write(List<Step> steps, boolean[] done, int written) throws IOException {
+    while (written < steps.size() && done[written]) {
+      Step step = steps.get(written);
+      if (step.failure instanceof Error) {
+        throw (Error) step.failure;
+      } else if (step.failure != null) {
+        throw (RuntimeException) step.failure;
+      }
+      out.append(step.message).append(System.lineSeparator());
+      written++;
+    }
+    return written;
+  }
+
+  // Reads every command of the script. Lines that cannot be turned into a command keep the
+  // message they would have produced.
+  private List<Step> parse() {
+    List<Step> steps = new ArrayList<>();
+    Scanner sc = new Scanner(in);
+    while (sc.hasNext()) {
+      String name = sc.next();
+      if (name.equalsIgnoreCase("q") || name.equalsIgnoreCase("quit")) {
+        break;
+      }
+      try {
+        Function<Scanner, IMECommand> cmd = commandRepository.get(name);
+        if (cmd == null) {
+          throw new IllegalArgumentException("Please input a command that is supported");
+        }
+        steps.add(new Step(steps.size(), name, cmd.apply(sc), null));
+      } catch (IllegalArgumentException | NoSuchElementException e) {
+        steps.add(new Step(steps.size(), name, null, e.getMessage()));
+      }
+    }
+    return steps;
+  }
+
+  // Makes every command depend on the earlier commands it must not overtake.
+  private static void link(List<Step> steps) {
+    Map<String, Step> lastWriter = new HashMap<>();
+    Map<String, List<Step>> readersSinceWrite = new HashMap<>();
+    List<Step> sinceBarrier = new ArrayList<>();
+    Step barrier = null;
+
+    for (Step step : steps) {
+      if (step.command == null) {
+        continue;
+      }
+      List<String> reads;
+      List<String> writes;
+      try {
+        reads = step.command.getReads();
+        writes = step.command.getWrites();
+      } catch (IllegalArgumentException e) {
+        reads = null;
+        writes = null;
+      }
+
+      if (reads == null || writes == null) {
+        step.dependOn(barrier);
+        for (Step earlier : sinceBarrier) {
+          step.dependOn(earlier);
+        }
+        barrier = step;
+        sinceBarrier.clear();
+        lastWriter.clear();
+        readersSinceWrite.clear();
+        continue;
+      }
+
+      step.dependOn(barrier);
+      for (String resource : reads) {
+        step.dependOn(lastWriter.get(resource));
+      }
+      for (String resource : writes) {
+        step.dependOn(lastWriter.get(resource));
+        for (Step reader : readersSinceWrite.getOrDefault(resource, List.of())) {
+          step.dependOn(reader);
+        }
+      }
+      for (String resource : reads) {
+        readersSinceWrite.computeIfAbsent(resource, r -> new ArrayList<>()).add(step);
+      }
+      for (String resource : writes) {
+        lastWriter.put(resource, step);
+        readersSinceWrite.remove(resource);
+      }
+      sinceBarrier.add(step);
+    }
+  }
+
+  private static void submit(ExecutorService pool, Step step, IMEFacade model,
+                             BlockingQueue<Step> finished) {
+    pool.execute(() -> {
+      try {
+        step.command.run(model);
+        step.message = "Operation completed: " + step.name;
+      } catch (IOException | IllegalArgumentException | NoSuchElementException
+               | CloneNotSupportedException e) {
+        step.message = e.getMessage();
+      } catch (RuntimeException | Error e) {
+        step.failure = e;
+      }
+      finished.add(step);
+    });
+  }
+}
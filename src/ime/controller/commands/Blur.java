@@ -7,6 +7,7 @@
 package ime.controller.commands;
 
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The Blur class is responsible for executing the "blur" command on the model.
@@ -36,4 +37,14 @@ public class Blur implements IMECommand {
   public void run(IMEFacade model) throws CloneNotSupportedException {
     model.blur(inputImageName, outputImageName);
   }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
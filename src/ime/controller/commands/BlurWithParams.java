@@ -19,7 +19,8 @@ public class BlurWithParams extends Blur {
    *
    * @param inputImageName  The name of the input image to be blurred.
    * @param outputImageName The name of the output image where the blurred image will be saved.
-   * @param params          Additional parameters for the blur command, such as 'split.'
+   * @param params          Additional parameters for the blur command, such as 'split',
+   *                        'radius' and 'box'.
    */
   public BlurWithParams(String inputImageName, String outputImageName, Map<String, String> params) {
     super(inputImageName, outputImageName);
@@ -27,16 +28,27 @@ public class BlurWithParams extends Blur {
   }
 
   /**
-   * Runs the blur command with optional parameters. If the 'split' parameter is present, it
-   * invokes the blur method on a MIMEFacade instance; otherwise, it falls back to the default
-   * blur behavior.
+   * Runs the blur command with optional parameters. If the 'radius' parameter is present, it
+   * blurs with a box of that radius, applied three times to approximate a Gaussian unless the
+   * 'box' parameter is present. If the 'split' parameter is present, it invokes the split blur
+   * method on a MIMEFacade instance; otherwise, it falls back to the default blur behavior.
    *
    * @param model The IMEFacade model used for image processing.
    * @throws CloneNotSupportedException If cloning of the model is not supported.
    */
   @Override
   public void run(IMEFacade model) throws CloneNotSupportedException {
-    if (params.containsKey("split")) {
+    if (params.containsKey("radius")) {
+      MIMEFacade model1 = (MIMEFacade) model;
+      int radius = Integer.parseInt(params.get("radius"));
+      boolean gaussian = !params.containsKey("box");
+      if (params.containsKey("split")) {
+        model1.blur(inputImageName, outputImageName, radius, gaussian,
+            Double.parseDouble(params.get("split")));
+      } else {
+        model1.blur(inputImageName, outputImageName, radius, gaussian);
+      }
+    } else if (params.containsKey("split")) {
       MIMEFacade model1 = (MIMEFacade) model;
       model1.blur(inputImageName, outputImageName, Double.parseDouble(params.get("split")));
     } else {
@@ -7,6 +7,7 @@
 package ime.controller.commands;
 
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The Brighten class is responsible for executing the "brighten" command on the model.
@@ -41,4 +42,13 @@ public class Brighten implements IMECommand {
     model.brighten(increment, inputImageName, outputImageName);
   }
 
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
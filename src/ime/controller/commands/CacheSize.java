@@ -0,0 +1,37 @@
+/**
+ * The CacheSize class implements the IMECommand interface and represents a specific IME (Image
+ * Manipulation and Enhancement) command to set the number of operation results remembered by the
+ * model.
+ */
+
+package ime.controller.commands;
+
+import ime.model.IMEFacade;
+
+/**
+ * The CacheSize class is responsible for executing the "cache-size" command on the model.
+ */
+public class CacheSize implements IMECommand {
+
+  private final int cacheSize;
+
+  /**
+   * Constructs a new CacheSize command with the number of results to be remembered.
+   *
+   * @param cacheSize The number of operation results remembered by the model.
+   */
+  public CacheSize(int cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * Executes the "cache-size" command by invoking the corresponding method in the model.
+   *
+   * @param model The IMEFacade model whose cache size is to be set.
+   */
+  @Override
+  public void run(IMEFacade model) {
+    model.setCacheSize(cacheSize);
+  }
+
+}
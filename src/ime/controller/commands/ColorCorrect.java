@@ -9,6 +9,7 @@ import ime.model.IMEFacade;
 import ime.model.MIMEFacade;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The ColorCorrect class implements the IMECommand interface and represents a command
@@ -44,4 +45,14 @@ public class ColorCorrect implements IMECommand {
       model1.colorCorrect(inputImageName, outputImageName);
     }
   }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
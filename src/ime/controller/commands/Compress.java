@@ -9,6 +9,7 @@ package ime.controller.commands;
 import ime.model.IMEFacade;
 import ime.model.MIMEFacade;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The Compress class implements the IMECommand interface and represents a command
@@ -63,4 +64,14 @@ public class Compress implements IMECommand {
       model1.compress(percentage, inputImageName, outputImageName);
     }
   }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
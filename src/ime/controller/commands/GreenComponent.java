@@ -7,6 +7,7 @@
 package ime.controller.commands;
 
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The GreenComponent class is responsible for executing the "green-component" command on the model.
@@ -36,4 +37,14 @@ public class GreenComponent implements IMECommand {
   public void run(IMEFacade model) {
     model.greenComponent(inputImageName, outputImageName);
   }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
@@ -9,6 +9,7 @@ import ime.model.IMEFacade;
 import ime.model.MIMEFacade;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The Histogram class implements the IMECommand interface and represents a command
@@ -44,4 +45,14 @@ public class Histogram implements IMECommand {
       model1.histogram(inputImageName, outputImageName);
     }
   }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
@@ -7,6 +7,7 @@
 package ime.controller.commands;
 
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The HorizontalFlip class is responsible for executing the "horizontal-flip" command on the model.
@@ -37,4 +38,13 @@ public class HorizontalFlip implements IMECommand {
     model.flipHorizontal(inputImageName, outputImageName);
   }
 
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
@@ -8,6 +8,8 @@
 package ime.controller.commands;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
 import ime.model.IMEFacade;
 
 /**
@@ -25,4 +27,38 @@ public interface IMECommand {
    */
   void run(IMEFacade model) throws IOException, CloneNotSupportedException;
 
+  /**
+   * Gets the images and files read by the command, so that commands which do not depend on each
+   * other can be run concurrently. Images are identified by their names and files by the result
+   * of {@link #file(String)}. A command that does not declare what it reads returns null, and is
+   * never run alongside any other command.
+   *
+   * @return The images and files read by the command, or null if they are not known.
+   */
+  default List<String> getReads() {
+    return null;
+  }
+
+  /**
+   * Gets the images and files written by the command, identified in the same way as the ones
+   * returned by {@link #getReads()}. A command that does not declare what it writes returns
+   * null, and is never run alongside any other command.
+   *
+   * @return The images and files written by the command, or null if they are not known.
+   */
+  default List<String> getWrites() {
+    return null;
+  }
+
+  /**
+   * Identifies a file read or written by a command. The identifier contains a space, so it never
+   * matches the name of an image given in a script.
+   *
+   * @param path The path to the file.
+   * @return The identifier of the file.
+   */
+  static String file(String path) {
+    return "file " + Paths.get(path).toAbsolutePath().normalize();
+  }
+
 }
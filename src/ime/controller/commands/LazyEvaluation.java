@@ -0,0 +1,38 @@
+/**
+ * The LazyEvaluation class implements the IMECommand interface and represents a specific IME
+ * (Image Manipulation and Enhancement) command to turn lazy evaluation of the per-pixel operations
+ * of the model on or off.
+ */
+
+package ime.controller.commands;
+
+import ime.model.IMEFacade;
+
+/**
+ * The LazyEvaluation class is responsible for executing the "lazy-evaluation" command on the
+ * model.
+ */
+public class LazyEvaluation implements IMECommand {
+
+  private final boolean lazyEvaluation;
+
+  /**
+   * Constructs a new LazyEvaluation command that turns lazy evaluation on or off.
+   *
+   * @param lazyEvaluation Whether the per-pixel operations of the model are evaluated lazily.
+   */
+  public LazyEvaluation(boolean lazyEvaluation) {
+    this.lazyEvaluation = lazyEvaluation;
+  }
+
+  /**
+   * Executes the "lazy-evaluation" command by invoking the corresponding method in the model.
+   *
+   * @param model The IMEFacade model whose evaluation is to be changed.
+   */
+  @Override
+  public void run(IMEFacade model) {
+    model.setLazyEvaluation(lazyEvaluation);
+  }
+
+}
@@ -9,6 +9,7 @@ package ime.controller.commands;
 import ime.model.IMEFacade;
 import ime.model.MIMEFacade;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The LevelsAdjust class implements the IMECommand interface and represents a specific IME
@@ -81,4 +82,13 @@ public class LevelsAdjust implements IMECommand {
     }
   }
 
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
@@ -11,6 +11,7 @@ import ime.controller.ImageReaderFactory;
 import ime.controller.ImageReaderFactoryImpl;
 import java.io.IOException;
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The Load class is responsible for executing the "load" command on the model.
@@ -42,6 +43,16 @@ public class Load implements IMECommand {
   public void run(IMEFacade model) throws IOException {
     ImageReaderFactory readerFactory = new ImageReaderFactoryImpl();
     ImageReader imageReader = readerFactory.getImageReader(imagePath);
-    model.load(imageReader.readImage(imagePath), imageName);
+    model.loadRaster(imageReader.readRaster(imagePath), imageName);
+  }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(IMECommand.file(imagePath));
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(imageName);
   }
 }
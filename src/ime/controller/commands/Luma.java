@@ -7,6 +7,7 @@
 package ime.controller.commands;
 
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The Luma class is responsible for executing the "luma" command on the model.
@@ -38,4 +39,13 @@ public class Luma implements IMECommand {
     model.luma(inputImageName, outputImageName);
   }
 
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
@@ -0,0 +1,37 @@
+/**
+ * The Parallelism class implements the IMECommand interface and represents a specific IME (Image
+ * Manipulation and Enhancement) command to set the number of threads used by the per-pixel
+ * image operations.
+ */
+
+package ime.controller.commands;
+
+import ime.model.IMEFacade;
+
+/**
+ * The Parallelism class is responsible for executing the "parallelism" command on the model.
+ */
+public class Parallelism implements IMECommand {
+
+  private final int parallelism;
+
+  /**
+   * Constructs a new Parallelism command with the number of threads to be used.
+   *
+   * @param parallelism The number of threads used by the per-pixel image operations.
+   */
+  public Parallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Executes the "parallelism" command by invoking the corresponding method in the model.
+   *
+   * @param model The IMEFacade model whose parallelism is to be set.
+   */
+  @Override
+  public void run(IMEFacade model) {
+    model.setParallelism(parallelism);
+  }
+
+}
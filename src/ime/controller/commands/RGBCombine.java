@@ -7,6 +7,7 @@
 package ime.controller.commands;
 
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The RGBCombine class is responsible for executing the "rgb-combine" command on the model.
@@ -45,4 +46,15 @@ public class RGBCombine implements IMECommand {
     model.rgbCombine(redComponentInputImageName, greenComponentInputImageName,
         blueComponentInputImageName, outputImageName);
   }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(redComponentInputImageName, greenComponentInputImageName,
+        blueComponentInputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(outputImageName);
+  }
 }
@@ -7,6 +7,7 @@
 package ime.controller.commands;
 
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The RGBSplit class is responsible for executing the "rgb-split" command on the model.
@@ -45,4 +46,15 @@ public class RGBSplit implements IMECommand {
     model.rgbSplit(inputImageName, redComponentOutputImageName, greenComponentOutputImageName,
         blueComponentOutputImageName);
   }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(inputImageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(redComponentOutputImageName, greenComponentOutputImageName,
+        blueComponentOutputImageName);
+  }
 }
@@ -0,0 +1,46 @@
+/**
+ * The Remove class implements the IMECommand interface and represents a specific IME (Image
+ * Manipulation and Enhancement) command to remove an image that is no longer needed.
+ */
+
+package ime.controller.commands;
+
+import ime.model.IMEFacade;
+import java.util.List;
+
+/**
+ * The Remove class is responsible for executing the "remove" command on the model.
+ */
+public class Remove implements IMECommand {
+
+  private final String imageName;
+
+  /**
+   * Constructs a new Remove command with the name of the image to be removed.
+   *
+   * @param imageName The name of the image to be removed.
+   */
+  public Remove(String imageName) {
+    this.imageName = imageName;
+  }
+
+  /**
+   * Executes the "remove" command by invoking the corresponding method in the model.
+   *
+   * @param model The IMEFacade model from which the image is removed.
+   */
+  @Override
+  public void run(IMEFacade model) {
+    model.remove(imageName);
+  }
+
+  @Override
+  public List<String> getReads() {
+    return List.of();
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(imageName);
+  }
+}
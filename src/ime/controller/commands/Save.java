@@ -11,6 +11,7 @@ import ime.controller.ImageWriterFactory;
 import ime.controller.ImageWriterFactoryImpl;
 import java.io.IOException;
 import ime.model.IMEFacade;
+import java.util.List;
 
 /**
  * The Save class is responsible for executing the "save" command on the model.
@@ -42,6 +43,16 @@ public class Save implements IMECommand {
   public void run(IMEFacade model) throws IOException {
     ImageWriterFactory writerFactory = new ImageWriterFactoryImpl();
     ImageWriter imageWriter = writerFactory.getImageWriter(imagePath);
-    imageWriter.writeImage(model.save(imageName), imagePath);
+    imageWriter.writeRaster(model.saveRaster(imageName), imagePath);
+  }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(imageName);
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(IMECommand.file(imagePath));
   }
 }
@@ -0,0 +1,82 @@
+/**
+ * The Stream class implements the IMECommand interface and represents a specific IME (Image
+ * Manipulation and Enhancement) command to apply an operation to an image file and save the
+ * result to another file, without loading either image into the application.
+ */
+
+package ime.controller.commands;
+
+import ime.controller.ImageReader;
+import ime.controller.ImageReaderFactory;
+import ime.controller.ImageReaderFactoryImpl;
+import ime.controller.ImageWriter;
+import ime.controller.ImageWriterFactory;
+import ime.controller.ImageWriterFactoryImpl;
+import ime.model.IMEFacade;
+import ime.model.MIMEFacade;
+import ime.model.RasterSink;
+import ime.model.RasterSource;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The Stream class is responsible for executing the "stream" command on the model. The image is
+ * read, processed and written a tile at a time, so images larger than the available memory can be
+ * processed. PPM files are read and written without holding the whole image. PNG and JPEG files
+ * are decoded once into a temporary file that is read in bands, and BMP files are read into
+ * memory. A PNG, JPEG or BMP result is collected in a temporary file and encoded from it in bands.
+ */
+public class Stream implements IMECommand {
+
+  private final String operation;
+  private final int[] parameters;
+  private final String inputPath;
+  private final String outputPath;
+
+  /**
+   * Constructs a new Stream command with the operation, its parameters and the paths to the input
+   * and output files.
+   *
+   * @param operation  The name of the operation to be applied, as used in scripts.
+   * @param parameters The parameters of the operation.
+   * @param inputPath  The path to the image file to be processed.
+   * @param outputPath The path to the file where the result will be saved.
+   */
+  public Stream(String operation, int[] parameters, String inputPath, String outputPath) {
+    this.operation = operation;
+    this.parameters = parameters;
+    this.inputPath = inputPath;
+    this.outputPath = outputPath;
+  }
+
+  /**
+   * Executes the "stream" command by opening the input file for reading and the output file for
+   * writing, and streaming the image between them through the model.
+   *
+   * @param model The IMEFacade model on which to execute the "stream" command.
+   * @throws IOException              If an error occurs while reading or writing the images.
+   * @throws IllegalArgumentException If the operation cannot be streamed or its parameters are
+   *                                  invalid.
+   */
+  @Override
+  public void run(IMEFacade model) throws IOException, IllegalArgumentException {
+    ImageReaderFactory readerFactory = new ImageReaderFactoryImpl();
+    ImageReader imageReader = readerFactory.getImageReader(inputPath);
+    ImageWriterFactory writerFactory = new ImageWriterFactoryImpl();
+    ImageWriter imageWriter = writerFactory.getImageWriter(outputPath);
+    try (RasterSource source = imageReader.openRaster(inputPath);
+         RasterSink sink = imageWriter.openSink(outputPath)) {
+      ((MIMEFacade) model).stream(operation, parameters, source, sink);
+    }
+  }
+
+  @Override
+  public List<String> getReads() {
+    return List.of(IMECommand.file(inputPath));
+  }
+
+  @Override
+  public List<String> getWrites() {
+    return List.of(IMECommand.file(outputPath));
+  }
+}
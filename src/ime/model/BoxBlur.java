@@ -0,0 +1,185 @@
+/**
+ * The BoxBlur class implements the ImageProcessor interface and blurs an image by replacing every
+ * pixel with the average of a square of pixels around it, in time that does not depend on the
+ * size of the square.
+ */
+
+package ime.model;
+
+import java.util.Arrays;
+
+/**
+ * The BoxBlur class averages every color component over a square window with the given radius.
+ * The window is averaged as a horizontal pass followed by a vertical pass, and each pass keeps a
+ * running sum that adds the value entering the window and subtracts the value leaving it, so
+ * every pixel costs the same whatever the radius. Pixels outside the image count as black, as
+ * they do for a {@link Filter}. Every pass rounds its averages to integers, so the result only
+ * depends on the pixels within reach and not on the order in which they are summed.
+ * <p>
+ * Repeating the box blur approximates a Gaussian blur: three passes with radius r have the
+ * variance of a Gaussian with standard deviation {@code sqrt(r * (r + 1))} and reach 3r pixels.
+ * </p>
+ */
+class BoxBlur implements ImageProcessor {
+
+  private final int radius;
+  private final int passes;
+  private final RowBandExecutor executor;
+
+  /**
+   * Constructs a BoxBlur that applies a box of the given radius the given number of times,
+   * processing the rows of the image with the given executor.
+   *
+   * @param radius   The radius of the box, so that the box is {@code 2 * radius + 1} pixels wide.
+   * @param passes   The number of times the box is applied.
+   * @param executor The executor used to process the bands of rows.
+   * @throws IllegalArgumentException If the radius is negative or there is not at least one pass.
+   */
+  public BoxBlur(int radius, int passes, RowBandExecutor executor)
+      throws IllegalArgumentException {
+    if (radius < 0) {
+      throw new IllegalArgumentException("Blur radius cannot be negative");
+    }
+    if (passes < 1) {
+      throw new IllegalArgumentException("Blur needs at least one pass");
+    }
+    this.radius = radius;
+    this.passes = passes;
+    this.executor = executor;
+  }
+
+  /**
+   * Blurs the input image.
+   *
+   * @param inputImage The input image to be processed.
+   * @return An Image object representing the blurred image.
+   */
+  @Override
+  public Image process(Image inputImage) {
+    Image outputImage = ImageUtil.createImage(inputImage.getWidth(), inputImage.getHeight(),
+        inputImage.getMax());
+    processInto(inputImage, outputImage);
+    return outputImage;
+  }
+
+  /**
+   * Blurs the input image, writing the result into the leftmost columns of the output image.
+   * Only the input image is read, so pixels of the output image beyond the width of the input
+   * image count as black.
+   *
+   * @param inputImage  The input image to be processed.
+   * @param outputImage The image receiving the blurred image.
+   */
+  @Override
+  public void processInto(Image inputImage, Image outputImage) {
+    int width = inputImage.getWidth();
+    int height = inputImage.getHeight();
+
+    int[][] channels = new int[3][width * height];
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
+    for (int i = 0; i < height; i++) {
+      inputImage.getRow(i, red, green, blue);
+      System.arraycopy(red, 0, channels[0], i * width, width);
+      System.arraycopy(green, 0, channels[1], i * width, width);
+      System.arraycopy(blue, 0, channels[2], i * width, width);
+    }
+
+    int[][] buffers = new int[3][width * height];
+    for (int pass = 0; pass < passes; pass++) {
+      blurRows(channels, buffers, width, height);
+      blurColumns(buffers, channels, width, height);
+    }
+
+    executor.forEachBand(height, (rowStart, rowEnd) -> {
+      int[] redRow = new int[width];
+      int[] greenRow = new int[width];
+      int[] blueRow = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        System.arraycopy(channels[0], i * width, redRow, 0, width);
+        System.arraycopy(channels[1], i * width, greenRow, 0, width);
+        System.arraycopy(channels[2], i * width, blueRow, 0, width);
+        outputImage.setRowSegment(i, 0, width, redRow, greenRow, blueRow);
+      }
+    });
+  }
+
+  // Averages every row of the source channels over the width of the box.
+  private void blurRows(int[][] source, int[][] target, int width, int height) {
+    long size = 2L * radius + 1;
+    executor.forEachBand(height, (rowStart, rowEnd) -> {
+      for (int c = 0; c < 3; c++) {
+        int[] from = source[c];
+        int[] to = target[c];
+        for (int i = rowStart; i < rowEnd; i++) {
+          int offset = i * width;
+          long sum = 0;
+          for (int j = 0; j < Math.min(radius, width); j++) {
+            sum += from[offset + j];
+          }
+          for (int j = 0; j < width; j++) {
+            if (radius < width - j) {
+              sum += from[offset + j + radius];
+            }
+            to[offset + j] = average(sum, size);
+            if (j >= radius) {
+              sum -= from[offset + j - radius];
+            }
+          }
+        }
+      }
+    });
+  }
+
+  // Averages every column of the source channels over the height of the box. The columns are
+  // summed a row at a time so that the channels are read in the order they are stored.
+  private void blurColumns(int[][] source, int[][] target, int width, int height) {
+    long size = 2L * radius + 1;
+    executor.forEachBand(width, (colStart, colEnd) -> {
+      long[] sums = new long[colEnd - colStart];
+      for (int c = 0; c < 3; c++) {
+        int[] from = source[c];
+        int[] to = target[c];
+        Arrays.fill(sums, 0);
+        for (int i = 0; i < Math.min(radius, height); i++) {
+          for (int j = colStart; j < colEnd; j++) {
+            sums[j - colStart] += from[i * width + j];
+          }
+        }
+        for (int i = 0; i < height; i++) {
+          boolean enters = radius < height - i;
+          boolean leaves = i >= radius;
+          int entering = enters ? (i + radius) * width : 0;
+          int leaving = leaves ? (i - radius) * width : 0;
+          for (int j = colStart; j < colEnd; j++) {
+            long sum = sums[j - colStart];
+            if (enters) {
+              sum += from[entering + j];
+            }
+            to[i * width + j] = average(sum, size);
+            if (leaves) {
+              sum -= from[leaving + j];
+            }
+            sums[j - colStart] = sum;
+          }
+        }
+      }
+    });
+  }
+
+  // Rounds the average of a window to the nearest integer, rounding halves up.
+  private static int average(long sum, long size) {
+    return (int) ((2 * sum + size) / (2 * size));
+  }
+
+  /**
+   * Gets how far the blur reads around a pixel, which is the radius of the box for every pass.
+   *
+   * @return The reach of the blur.
+   */
+  @Override
+  public int getReach() {
+    return (int) Math.min(Integer.MAX_VALUE, (long) radius * passes);
+  }
+}
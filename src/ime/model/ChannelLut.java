@@ -0,0 +1,148 @@
+/**
+ * The ChannelLut class is an ImageProcessor that maps every color component of an image through
+ * a precomputed lookup table.
+ */
+
+package ime.model;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The ChannelLut class applies a point operation, that is an operation where the new value of a
+ * color component depends only on its old value, by looking the value up in a table with one entry
+ * for every value the image can hold. Each channel has its own table, so operations such as color
+ * correction that shift the channels differently are also supported. Two lookup tables can be
+ * composed into a single table, so a chain of point operations costs one lookup per component.
+ */
+class ChannelLut implements PointOperation {
+
+  private final int[][] tables;
+  private final int outputMax;
+  private final RowBandExecutor executor;
+
+  /**
+   * Constructs a ChannelLut from one lookup table per channel.
+   *
+   * @param tables    The red, green and blue lookup tables, indexed by the input value.
+   * @param outputMax The maximum color value of the images produced by the lookup.
+   * @param executor  The executor used to process the bands of rows.
+   * @throws IllegalArgumentException If there are not exactly three tables of equal length.
+   */
+  public ChannelLut(int[][] tables, int outputMax, RowBandExecutor executor)
+      throws IllegalArgumentException {
+    if (tables.length != 3 || tables[0].length != tables[1].length
+        || tables[0].length != tables[2].length) {
+      throw new IllegalArgumentException("A lookup table is needed for each of the 3 channels");
+    }
+    this.tables = tables;
+    this.outputMax = outputMax;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a ChannelLut that applies the same function to every channel of an image.
+   *
+   * @param function  The function computing the new value of a color component. The function is
+   *                  responsible for restricting its result to the desired range.
+   * @param inputMax  The maximum color value of the images the lookup is applied to.
+   * @param outputMax The maximum color value of the images produced by the lookup.
+   * @param executor  The executor used to process the bands of rows.
+   * @return A ChannelLut for the given function.
+   */
+  public static ChannelLut of(IntUnaryOperator function, int inputMax, int outputMax,
+                              RowBandExecutor executor) {
+    int[] table = new int[tableSize(inputMax)];
+    for (int value = 0; value < table.length; value++) {
+      table[value] = function.applyAsInt(value);
+    }
+    return new ChannelLut(new int[][]{table, table, table}, outputMax, executor);
+  }
+
+  /**
+   * Gets the number of entries a lookup table needs to cover every value an image with the given
+   * maximum color value can hold.
+   *
+   * @param max The maximum color value of the image.
+   * @return The length of the lookup table.
+   */
+  public static int tableSize(int max) {
+    return Math.max(max, PackedRGBImage.MAX_PACKED_VALUE) + 1;
+  }
+
+  /**
+   * Composes this lookup with the given lookup into a single table that has the same effect as
+   * applying this lookup and then the given lookup.
+   *
+   * @param next The lookup to be applied on the result of this lookup.
+   * @return The composed lookup.
+   */
+  public ChannelLut andThen(ChannelLut next) {
+    int[][] composed = new int[3][tables[0].length];
+    int last = next.tables[0].length - 1;
+    for (int c = 0; c < 3; c++) {
+      for (int value = 0; value < composed[c].length; value++) {
+        // The intermediate image would have clamped the value to what it can hold.
+        composed[c][value] = next.tables[c][MathUtil.clamp(tables[c][value], last)];
+      }
+    }
+    return new ChannelLut(composed, next.outputMax, executor);
+  }
+
+  /**
+   * Gets the transform that maps the color components of a row through the lookup tables.
+   *
+   * @param inputMax The maximum color value of the image the lookup is applied to.
+   * @return The transform applied to the color components of a row.
+   * @throws IllegalArgumentException If the tables do not cover the values of such an image.
+   */
+  @Override
+  public RowTransform getRowTransform(int inputMax) throws IllegalArgumentException {
+    if (tableSize(inputMax) > tables[0].length) {
+      throw new IllegalArgumentException("Lookup table does not cover the values of the image");
+    }
+    int[] redTable = tables[0];
+    int[] greenTable = tables[1];
+    int[] blueTable = tables[2];
+    return (red, green, blue, width, max) -> {
+      for (int j = 0; j < width; j++) {
+        red[j] = redTable[red[j]];
+        green[j] = greenTable[green[j]];
+        blue[j] = blueTable[blue[j]];
+      }
+    };
+  }
+
+  @Override
+  public int getOutputMax(int inputMax) {
+    return outputMax;
+  }
+
+  /**
+   * Maps every color component of the input image through the lookup tables.
+   *
+   * @param inputImage The input image to be processed.
+   * @return An image with the mapped color components.
+   * @throws IllegalArgumentException If the tables do not cover the values of the image.
+   */
+  @Override
+  public Image process(Image inputImage) throws IllegalArgumentException {
+    Image outputImage = ImageUtil.createImage(inputImage.getWidth(), inputImage.getHeight(),
+        outputMax);
+    processInto(inputImage, outputImage);
+    return outputImage;
+  }
+
+  /**
+   * Maps every color component of the input image through the lookup tables, writing the mapped
+   * components into the leftmost columns of the output image.
+   *
+   * @param inputImage  The input image to be processed.
+   * @param outputImage The image receiving the mapped color components.
+   * @throws IllegalArgumentException If the tables do not cover the values of the image.
+   */
+  @Override
+  public void processInto(Image inputImage, Image outputImage) throws IllegalArgumentException {
+    new PixelTransformer(getRowTransform(inputImage.getMax()), executor)
+        .processInto(inputImage, outputImage);
+  }
+}
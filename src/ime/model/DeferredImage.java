@@ -0,0 +1,252 @@
+/**
+ * The DeferredImage class represents the result of a chain of point operations on an image, which
+ * is computed in a single pass over the image when its pixels are first needed.
+ */
+
+package ime.model;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The DeferredImage class records the point operations applied to a source image instead of
+ * applying them one at a time. Applying a further point operation to a deferred image that has not
+ * been computed yet extends its chain, so a script that brightens, tones and adjusts the levels of
+ * an image reads the source image once and creates a single new image, rather than one image per
+ * operation. Every intermediate result remains an image of its own, which is computed from the
+ * source image by its part of the chain if it is ever read. Consecutive linear color
+ * transformations are folded into one where their composed matrix gives exactly the same result.
+ *
+ * <p>The chain is computed the first time a pixel of the image is read or written. Every
+ * operation sees exactly the components the intermediate image would have stored, so the result
+ * is the same as applying the operations one after the other. Until it is computed, a deferred
+ * image keeps its source image in memory. The source image must not be modified while the
+ * deferred image is in use; images stored by the facade are never modified once they are stored.
+ */
+class DeferredImage implements Image {
+
+  /**
+   * One operation of the chain, together with the maximum color values of the image it is
+   * applied to and of its result.
+   */
+  private static final class Stage {
+
+    private final PointOperation operation;
+    private final int inputMax;
+    private final RowTransform transform;
+    private final int outputMax;
+
+    Stage(PointOperation operation, int inputMax) throws IllegalArgumentException {
+      this.operation = operation;
+      this.inputMax = inputMax;
+      this.transform = operation.getRowTransform(inputMax);
+      this.outputMax = operation.getOutputMax(inputMax);
+    }
+  }
+
+  private final Stage[] stages;
+  private final Supplier<RowBandExecutor> executor;
+  private final int width;
+  private final int height;
+  private final int max;
+
+  // The image the chain is applied to, released once the chain has been computed.
+  private volatile Image source;
+  // The computed image, or null while the chain has not been computed.
+  private volatile Image materialized;
+
+  private DeferredImage(Image source, Stage[] stages, Supplier<RowBandExecutor> executor) {
+    this.source = source;
+    this.stages = stages;
+    this.executor = executor;
+    this.width = source.getWidth();
+    this.height = source.getHeight();
+    this.max = stages[stages.length - 1].outputMax;
+  }
+
+  /**
+   * Creates an image that applies the given point operation to an image when its pixels are
+   * needed. If the image is itself a deferred image that has not been computed yet, the operation
+   * is appended to its chain.
+   *
+   * @param image     The image the operation is applied to.
+   * @param operation The point operation to be applied.
+   * @param executor  Supplies the executor used to compute the chain when it is needed.
+   * @return The deferred result of the operation.
+   * @throws IllegalArgumentException If the operation cannot be applied to the image.
+   */
+  static Image of(Image image, PointOperation operation, Supplier<RowBandExecutor> executor)
+      throws IllegalArgumentException {
+    Stage stage = new Stage(operation, image.getMax());
+    if (image instanceof DeferredImage) {
+      DeferredImage deferred = (DeferredImage) image;
+      // The source is released only after the computed image is published.
+      Image source = deferred.source;
+      if (source != null) {
+        int last = deferred.stages.length - 1;
+        Stage folded = fold(deferred.stages[last], stage);
+        Stage[] stages = Arrays.copyOf(deferred.stages, folded != null ? last + 1 : last + 2);
+        stages[stages.length - 1] = folded != null ? folded : stage;
+        return new DeferredImage(source, stages, executor);
+      }
+      image = deferred.materialized;
+    }
+    return new DeferredImage(image, new Stage[]{stage}, executor);
+  }
+
+  // Combines two consecutive stages into one with the same effect, or returns null if they
+  // cannot be combined exactly.
+  private static Stage fold(Stage first, Stage second) {
+    if (first.operation instanceof LinearColorTransformer
+        && second.operation instanceof LinearColorTransformer) {
+      LinearColorTransformer firstTransformer = (LinearColorTransformer) first.operation;
+      LinearColorTransformer secondTransformer = (LinearColorTransformer) second.operation;
+      if (firstTransformer.composesExactlyWith(secondTransformer)) {
+        return new Stage(firstTransformer.andThen(secondTransformer), first.inputMax);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the image holding the pixels of the given image, computing it if the given image is a
+   * deferred image. Other images are returned unchanged.
+   *
+   * @param image The image to be resolved.
+   * @return An image with the same pixels that is not a deferred image.
+   */
+  static Image resolve(Image image) {
+    if (image instanceof DeferredImage) {
+      return ((DeferredImage) image).computed();
+    }
+    return image;
+  }
+
+  // Returns the computed image, computing the whole chain on the first call.
+  private Image computed() {
+    Image image = materialized;
+    if (image == null) {
+      synchronized (this) {
+        image = materialized;
+        if (image == null) {
+          image = compute(source);
+          materialized = image;
+          source = null;
+        }
+      }
+    }
+    return image;
+  }
+
+  private Image compute(Image sourceImage) {
+    Image outputImage = ImageUtil.createImage(width, height, max);
+    int sourceMax = sourceImage.getMax();
+    executor.get().forEachBand(height, (rowStart, rowEnd) -> {
+      int[] red = new int[width];
+      int[] green = new int[width];
+      int[] blue = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        sourceImage.getRow(i, red, green, blue);
+        int inputMax = sourceMax;
+        for (int s = 0; s < stages.length; s++) {
+          stages[s].transform.apply(red, green, blue, width, inputMax);
+          inputMax = stages[s].outputMax;
+          if (s < stages.length - 1) {
+            // The intermediate image would have clamped the components to what it can hold.
+            int limit = ChannelLut.tableSize(inputMax) - 1;
+            for (int j = 0; j < width; j++) {
+              red[j] = MathUtil.clamp(red[j], limit);
+              green[j] = MathUtil.clamp(green[j], limit);
+              blue[j] = MathUtil.clamp(blue[j], limit);
+            }
+          }
+        }
+        outputImage.setRowSegment(i, 0, width, red, green, blue);
+      }
+    });
+    return outputImage;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getMax() {
+    return max;
+  }
+
+  @Override
+  public Pixel getPixel(int row, int col) {
+    return computed().getPixel(row, col);
+  }
+
+  @Override
+  public void setPixel(int row, int col, Pixel pixel) {
+    computed().setPixel(row, col, pixel);
+  }
+
+  @Override
+  public int getRed(int row, int col) {
+    return computed().getRed(row, col);
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    return computed().getGreen(row, col);
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    return computed().getBlue(row, col);
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    computed().setRGB(row, col, red, green, blue);
+  }
+
+  @Override
+  public void getRow(int row, int[] red, int[] green, int[] blue) {
+    computed().getRow(row, red, green, blue);
+  }
+
+  @Override
+  public void setRow(int row, int[] red, int[] green, int[] blue) {
+    computed().setRow(row, red, green, blue);
+  }
+
+  @Override
+  public void setRowSegment(int row, int colStart, int length, int[] red, int[] green,
+                            int[] blue) throws IllegalArgumentException {
+    computed().setRowSegment(row, colStart, length, red, green, blue);
+  }
+
+  @Override
+  public Image getPortion(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+    return computed().getPortion(rowStart, rowEnd, columnStart, columnEnd);
+  }
+
+  @Override
+  public void replacePortion(int rowStart, int colStart, Image newPortion) {
+    computed().replacePortion(rowStart, colStart, newPortion);
+  }
+
+  /**
+   * Creates a copy of the computed image.
+   *
+   * @return The copy of the image.
+   * @throws CloneNotSupportedException If cloning of the computed image is not supported.
+   */
+  @Override
+  public Image clone() throws CloneNotSupportedException {
+    return computed().clone();
+  }
+
+}
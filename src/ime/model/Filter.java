@@ -7,11 +7,24 @@ package ime.model;
 
 /**
  * The Filter class is responsible for applying a convolution operation on an input
- * image using a given kernel.
+ * image using a given kernel. Pixels outside the image contribute nothing to the convolution.
+ * <p>
+ * The color channels are copied into primitive arrays padded with a black border as wide as the
+ * kernel radius, so the inner loops never check the image bounds. A kernel that is the outer
+ * product of a column and a row vector, such as the Gaussian blur kernel, is applied as a
+ * horizontal pass followed by a vertical pass. Any other kernel is applied directly over square
+ * tiles of the image so the rows of the tile being read stay in the cache.
+ * </p>
  */
 class Filter implements ImageProcessor {
 
+  // Side of the square tiles used by the direct convolution.
+  private static final int TILE_SIZE = 64;
+
   private final double[][] kernel;
+  private final RowBandExecutor executor;
+  private final double[] columnVector;
+  private final double[] rowVector;
 
   /**
    * Constructs a new Filter with the specified convolution kernel.
@@ -19,7 +32,24 @@ class Filter implements ImageProcessor {
    * @param kernel The 2D array representing the convolution kernel used for image processing.
    */
   public Filter(double[][] kernel) {
+    this(kernel, new RowBandExecutor(1));
+  }
+
+  /**
+   * Constructs a new Filter with the specified convolution kernel that processes the rows of the
+   * image with the given executor.
+   *
+   * @param kernel   The 2D array representing the convolution kernel used for image processing.
+   * @param executor The executor used to process the bands of rows.
+   */
+  public Filter(double[][] kernel, RowBandExecutor executor) {
     this.kernel = kernel;
+    this.executor = executor;
+    int size = kernel.length;
+    double[] column = new double[size];
+    double[] row = new double[size];
+    this.columnVector = separate(kernel, column, row) ? column : null;
+    this.rowVector = columnVector != null ? row : null;
   }
 
   /**
@@ -30,36 +60,181 @@ class Filter implements ImageProcessor {
    */
   @Override
   public Image process(Image inputImage) {
+    Image outputImage = ImageUtil.createImage(inputImage.getWidth(), inputImage.getHeight(),
+        inputImage.getMax());
+    processInto(inputImage, outputImage);
+    return outputImage;
+  }
+
+  /**
+   * Applies the convolution operation on the input image, writing the result into the leftmost
+   * columns of the output image. Only the input image is read, so pixels of the output image
+   * beyond the width of the input image contribute nothing to the convolution.
+   *
+   * @param inputImage  The input image to be processed.
+   * @param outputImage The image receiving the result of the convolution operation.
+   */
+  @Override
+  public void processInto(Image inputImage, Image outputImage) {
     int width = inputImage.getWidth();
     int height = inputImage.getHeight();
-    int kernelSize = kernel.length;
-    RGBImage outputImage = new RGBImage(width, height, inputImage.getMax());
+    int max = inputImage.getMax();
+    int radius = kernel.length / 2;
+    int paddedWidth = width + 2 * radius;
+    int paddedHeight = height + 2 * radius;
 
+    int[][] channels = new int[3][paddedWidth * paddedHeight];
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
     for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        double red = 0;
-        double green = 0;
-        double blue = 0;
-        int kMin = Math.max(0, i - kernelSize / 2);
-        int kMax = Math.min(height - 1, (i + kernelSize / 2));
-        int lMin = Math.max(0, j - kernelSize / 2);
-        int lMax = Math.min(width - 1, (j + kernelSize / 2));
-        int mMin = (kernelSize / 2) - (i - kMin);
-        int nMin = (kernelSize / 2) - (j - lMin);
-        for (int k = kMin, m = mMin; k <= kMax; k++, m++) {
-          for (int l = lMin, n = nMin; l <= lMax; l++, n++) {
-            RGBPixel pixel = (RGBPixel) inputImage.getPixel(k, l);
-            red += kernel[m][n] * pixel.getRed();
-            green += kernel[m][n] * pixel.getGreen();
-            blue += kernel[m][n] * pixel.getBlue();
+      inputImage.getRow(i, red, green, blue);
+      int offset = (i + radius) * paddedWidth + radius;
+      System.arraycopy(red, 0, channels[0], offset, width);
+      System.arraycopy(green, 0, channels[1], offset, width);
+      System.arraycopy(blue, 0, channels[2], offset, width);
+    }
+
+    if (columnVector != null) {
+      convolveSeparable(channels, width, height, radius, max, outputImage);
+    } else {
+      convolveTiled(channels, width, height, radius, max, outputImage);
+    }
+  }
+
+  /**
+   * Gets the radius of the kernel, which is how far from a pixel the convolution reads.
+   *
+   * @return The radius of the kernel.
+   */
+  @Override
+  public int getReach() {
+    return kernel.length / 2;
+  }
+
+  private void convolveSeparable(int[][] channels, int width, int height, int radius, int max,
+                                 Image outputImage) {
+    int size = kernel.length;
+    int paddedWidth = width + 2 * radius;
+    int paddedHeight = height + 2 * radius;
+
+    // Horizontal pass over every padded row, so the vertical pass sees the black border rows.
+    double[][] horizontal = new double[3][width * paddedHeight];
+    executor.forEachBand(paddedHeight, (rowStart, rowEnd) -> {
+      for (int c = 0; c < 3; c++) {
+        int[] source = channels[c];
+        double[] target = horizontal[c];
+        for (int i = rowStart; i < rowEnd; i++) {
+          int sourceOffset = i * paddedWidth;
+          int targetOffset = i * width;
+          for (int j = 0; j < width; j++) {
+            double sum = 0;
+            for (int n = 0; n < size; n++) {
+              sum += rowVector[n] * source[sourceOffset + j + n];
+            }
+            target[targetOffset + j] = sum;
           }
         }
-        outputImage.setPixel(i, j,
-            new RGBPixel((int) Math.round(red), (int) Math.round(green), (int) Math.round(blue),
-                inputImage.getMax()));
       }
-    }
+    });
 
-    return outputImage;
+    executor.forEachBand(height, (rowStart, rowEnd) -> {
+      int[][] rows = new int[3][width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        for (int c = 0; c < 3; c++) {
+          double[] source = horizontal[c];
+          int[] target = rows[c];
+          for (int j = 0; j < width; j++) {
+            double sum = 0;
+            for (int m = 0, offset = i * width + j; m < size; m++, offset += width) {
+              sum += columnVector[m] * source[offset];
+            }
+            target[j] = MathUtil.clamp((int) Math.round(sum), max);
+          }
+        }
+        outputImage.setRowSegment(i, 0, width, rows[0], rows[1], rows[2]);
+      }
+    });
+  }
+
+  private void convolveTiled(int[][] channels, int width, int height, int radius, int max,
+                             Image outputImage) {
+    int size = kernel.length;
+    int paddedWidth = width + 2 * radius;
+    int tileRows = (height + TILE_SIZE - 1) / TILE_SIZE;
+
+    executor.forEachBand(tileRows, (tileStart, tileEnd) -> {
+      int[][][] rows = new int[3][TILE_SIZE][width];
+      for (int tile = tileStart; tile < tileEnd; tile++) {
+        int rowStart = tile * TILE_SIZE;
+        int rowEnd = Math.min(height, rowStart + TILE_SIZE);
+        for (int colStart = 0; colStart < width; colStart += TILE_SIZE) {
+          int colEnd = Math.min(width, colStart + TILE_SIZE);
+          for (int c = 0; c < 3; c++) {
+            int[] source = channels[c];
+            for (int i = rowStart; i < rowEnd; i++) {
+              int[] target = rows[c][i - rowStart];
+              for (int j = colStart; j < colEnd; j++) {
+                double sum = 0;
+                for (int m = 0; m < size; m++) {
+                  double[] kernelRow = kernel[m];
+                  int offset = (i + m) * paddedWidth + j;
+                  for (int n = 0; n < size; n++) {
+                    sum += kernelRow[n] * source[offset + n];
+                  }
+                }
+                target[j] = MathUtil.clamp((int) Math.round(sum), max);
+              }
+            }
+          }
+        }
+        for (int i = rowStart; i < rowEnd; i++) {
+          outputImage.setRowSegment(i, 0, width, rows[0][i - rowStart],
+              rows[1][i - rowStart], rows[2][i - rowStart]);
+        }
+      }
+    });
+  }
+
+  /**
+   * Splits the kernel into a column vector and a row vector whose outer product reproduces every
+   * coefficient of the kernel exactly.
+   *
+   * @param kernel The kernel to be split.
+   * @param column The array that receives the column vector.
+   * @param row    The array that receives the row vector.
+   * @return true if the kernel is separable, false otherwise.
+   */
+  private static boolean separate(double[][] kernel, double[] column, double[] row) {
+    int size = kernel.length;
+    int pivotRow = 0;
+    int pivotColumn = 0;
+    for (int m = 0; m < size; m++) {
+      if (kernel[m].length != size) {
+        return false;
+      }
+      for (int n = 0; n < size; n++) {
+        if (Math.abs(kernel[m][n]) > Math.abs(kernel[pivotRow][pivotColumn])) {
+          pivotRow = m;
+          pivotColumn = n;
+        }
+      }
+    }
+    double pivot = kernel[pivotRow][pivotColumn];
+    if (pivot == 0) {
+      return false;
+    }
+    for (int m = 0; m < size; m++) {
+      column[m] = kernel[m][pivotColumn] / pivot;
+      row[m] = kernel[pivotRow][m];
+    }
+    for (int m = 0; m < size; m++) {
+      for (int n = 0; n < size; n++) {
+        if (column[m] * row[n] != kernel[m][n]) {
+          return false;
+        }
+      }
+    }
+    return true;
   }
 }
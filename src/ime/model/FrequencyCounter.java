@@ -25,5 +25,13 @@ interface FrequencyCounter {
    */
   Map<Integer, Integer> getFrequency();
 
+  /**
+   * Gets the frequency of a single value in the dataset.
+   *
+   * @param value The value whose frequency is needed.
+   * @return The frequency of the value, or zero if the value does not occur in the dataset.
+   */
+  int getFrequency(int value);
+
 }
 
@@ -7,28 +7,74 @@ import java.util.Map;
  * The {@code FrequencyCounterImpl} class implements the {@code FrequencyCounter} interface and
  * represents a utility for computing the frequency of each unique value in an array.
  *
- * <p>This implementation uses a map to store the frequency of each unique value in the provided
- * array.
+ * <p>This implementation stores the frequencies in an array indexed by the value, so counting a
+ * value is a single array increment. Counters of the same range can be filled separately, for
+ * example for different parts of an image, and merged afterwards.
  */
 class FrequencyCounterImpl implements FrequencyCounter {
 
-  private final int[] data;
-  private final Map<Integer, Integer> frequency;
+  private final int[] counts;
+  private final int offset;
 
   /**
    * Constructs a new {@code FrequencyCounterImpl} object with the specified array of data values.
-   * It initializes the frequency map and computes the frequency of each unique value.
+   * It computes the frequency of each unique value.
    *
    * @param data The array of data values.
    */
   public FrequencyCounterImpl(int[] data) {
-    this.data = data;
-    frequency = new HashMap<>();
-    computeFrequency();
+    int min = 0;
+    int max = 0;
+    if (data.length > 0) {
+      min = data[0];
+      max = data[0];
+      for (int value : data) {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    this.offset = min;
+    this.counts = new int[max - min + 1];
+    count(data, data.length);
+  }
+
+  /**
+   * Constructs a new {@code FrequencyCounterImpl} object that has not counted any value yet and
+   * can count the values from zero up to, but excluding, the given size.
+   *
+   * @param size The number of distinct values that can be counted.
+   */
+  public FrequencyCounterImpl(int size) {
+    this.offset = 0;
+    this.counts = new int[size];
+  }
+
+  /**
+   * Counts the first values of the given array.
+   *
+   * @param values The values to be counted.
+   * @param length The number of values to be counted.
+   */
+  public void count(int[] values, int length) {
+    for (int i = 0; i < length; i++) {
+      counts[values[i] - offset]++;
+    }
   }
 
   /**
-   * Retrieves the peak value and its frequency in the array.
+   * Adds the frequencies counted by another counter of the same range to this counter.
+   *
+   * @param other The counter whose frequencies are added.
+   */
+  public void merge(FrequencyCounterImpl other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+  }
+
+  /**
+   * Retrieves the peak value and its frequency in the array. If several values share the peak
+   * frequency, the smallest of them is returned.
    *
    * @return A {@code Pair} object representing the peak value and its frequency.
    */
@@ -37,26 +83,16 @@ class FrequencyCounterImpl implements FrequencyCounter {
     int maxFrequency = 0;
     int peakValue = 0;
 
-    for (Map.Entry<Integer, Integer> entry : frequency.entrySet()) {
-      int value = entry.getKey();
-      int currentFrequency = entry.getValue();
-
-      if (currentFrequency > maxFrequency) {
-        maxFrequency = currentFrequency;
-        peakValue = value;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > maxFrequency) {
+        maxFrequency = counts[i];
+        peakValue = i + offset;
       }
     }
 
     return new IntegerPair(peakValue, maxFrequency);
   }
 
-  // Private method to compute the frequency of each unique value in the array.
-  private void computeFrequency() {
-    for (int value : data) {
-      frequency.put(value, frequency.getOrDefault(value, 0) + 1);
-    }
-  }
-
   /**
    * Retrieves the frequency map containing each unique value and its corresponding frequency.
    *
@@ -64,7 +100,25 @@ class FrequencyCounterImpl implements FrequencyCounter {
    */
   @Override
   public Map<Integer, Integer> getFrequency() {
+    Map<Integer, Integer> frequency = new HashMap<>();
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0) {
+        frequency.put(i + offset, counts[i]);
+      }
+    }
     return frequency;
   }
 
+  /**
+   * Retrieves the frequency of the given value.
+   *
+   * @param value The value whose frequency is retrieved.
+   * @return The number of times the value was counted.
+   */
+  @Override
+  public int getFrequency(int value) {
+    int index = value - offset;
+    return index >= 0 && index < counts.length ? counts[index] : 0;
+  }
+
 }
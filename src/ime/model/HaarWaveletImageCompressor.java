@@ -10,8 +10,6 @@
 
 package ime.model;
 
-import java.util.Arrays;
-
 /**
  * The HaarWaveletImageCompressor class implements the ImageCompressor interface and provides
  * functionality for compressing an image using the Haar wavelet transformation.
@@ -21,14 +19,29 @@ import java.util.Arrays;
  */
 class HaarWaveletImageCompressor implements ImageCompressor {
   private final Image image;
+  private final RowBandExecutor executor;
 
   /**
-   * Constructs a new HaarWaveletImageCompressor with the specified image.
+   * Constructs a new HaarWaveletImageCompressor with the specified image that compresses the
+   * image on the calling thread.
    *
    * @param image The image to be compressed using the Haar wavelet transformation.
    */
   public HaarWaveletImageCompressor(Image image) {
+    this(image, new RowBandExecutor(1));
+  }
+
+  /**
+   * Constructs a new HaarWaveletImageCompressor with the specified image that processes the
+   * three channels together in bands of rows and columns with the given executor. The compressed
+   * image does not depend on the parallelism of the executor.
+   *
+   * @param image    The image to be compressed using the Haar wavelet transformation.
+   * @param executor The executor used to process the bands of rows and columns.
+   */
+  public HaarWaveletImageCompressor(Image image, RowBandExecutor executor) {
     this.image = image;
+    this.executor = executor;
   }
 
   protected double[][][] getChannels() {
@@ -40,75 +53,130 @@ class HaarWaveletImageCompressor implements ImageCompressor {
     double[][] greenChannel = new double[height][width];
     double[][] blueChannel = new double[height][width];
 
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        RGBPixel rgbPixel = (RGBPixel) image.getPixel(i, j);
-        int red = rgbPixel.getRed();
-        int green = rgbPixel.getGreen();
-        int blue = rgbPixel.getBlue();
-        redChannel[i][j] = red;
-        greenChannel[i][j] = green;
-        blueChannel[i][j] = blue;
+    executor.forEachBand(height, (rowStart, rowEnd) -> {
+      int[] red = new int[width];
+      int[] green = new int[width];
+      int[] blue = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        image.getRow(i, red, green, blue);
+        for (int j = 0; j < width; j++) {
+          redChannel[i][j] = red[j];
+          greenChannel[i][j] = green[j];
+          blueChannel[i][j] = blue[j];
+        }
       }
-    }
+    });
 
     return new double[][][]{redChannel, greenChannel, blueChannel};
 
   }
 
   protected double[][][] transformChannels(double[][][] channels) {
-    double[][][] transformed =  new double[channels.length][][];
-    for (int i = 0; i < channels.length; i++) {
-      transformed[i] = HaarWaveletUtil.transform(channels[i]);
-    }
-    return transformed;
+    return HaarWaveletUtil.transform(channels, executor);
   }
 
   protected double[][][] invertChannels(double[][][] channels) {
-    double[][][] inverted =  new double[channels.length][][];
-    for (int i = 0; i < channels.length; i++) {
-      inverted[i] = HaarWaveletUtil.invert(channels[i], image.getHeight(), image.getWidth());
-    }
-    return inverted;
+    return HaarWaveletUtil.invert(channels, image.getHeight(), image.getWidth(), executor);
   }
 
   protected double getThreshold(double[][][] channels, double compressionPercentage) {
-    double[] unique = Arrays.stream(new double[][][]{channels[0], channels[1], channels[2]})
-        .flatMap(Arrays::stream)
-        .flatMapToDouble(Arrays::stream)
-        .map(Math::abs)
-        .distinct()
-        .sorted()
-        .toArray();
-    return unique[Math.max(0,
-            (int)Math.round(unique.length * (compressionPercentage / 100.0)) - 1)];
+    int count = 0;
+    for (double[][] channel : channels) {
+      for (double[] row : channel) {
+        count += row.length;
+      }
+    }
+
+    // The bits of a non-negative double sort in the same order as its value.
+    long[] magnitudes = new long[count];
+    int index = 0;
+    for (double[][] channel : channels) {
+      for (double[] row : channel) {
+        for (double value : row) {
+          magnitudes[index++] = Double.doubleToLongBits(Math.abs(value));
+        }
+      }
+    }
+
+    radixSort(magnitudes);
+    int unique = 0;
+    for (int i = 0; i < count; i++) {
+      if (i == 0 || magnitudes[i] != magnitudes[unique - 1]) {
+        magnitudes[unique++] = magnitudes[i];
+      }
+    }
+    return Double.longBitsToDouble(magnitudes[Math.max(0,
+            (int)Math.round(unique * (compressionPercentage / 100.0)) - 1)]);
+  }
+
+  /**
+   * Sorts non-negative keys with a least significant digit radix sort, in linear time.
+   */
+  private static void radixSort(long[] keys) {
+    int digitBits = 16;
+    int radix = 1 << digitBits;
+    int digits = Long.SIZE / digitBits;
+    int[][] counts = new int[digits][radix + 1];
+    for (long key : keys) {
+      for (int d = 0; d < digits; d++) {
+        counts[d][(int) ((key >>> (d * digitBits)) & (radix - 1)) + 1]++;
+      }
+    }
+
+    long[] source = keys;
+    long[] target = new long[keys.length];
+    for (int d = 0; d < digits; d++) {
+      int[] offsets = counts[d];
+      if (offsets[(int) ((keys[0] >>> (d * digitBits)) & (radix - 1)) + 1] == keys.length) {
+        continue; // every key has the same digit
+      }
+      for (int i = 0; i < radix; i++) {
+        offsets[i + 1] += offsets[i];
+      }
+      for (long key : source) {
+        target[offsets[(int) ((key >>> (d * digitBits)) & (radix - 1))]++] = key;
+      }
+      long[] swap = source;
+      source = target;
+      target = swap;
+    }
+    if (source != keys) {
+      System.arraycopy(source, 0, keys, 0, keys.length);
+    }
   }
 
   protected void thresholdChannels(double[][][] channels, double threshold) {
-    for (int i = 0; i < channels.length; i++) {
-      for (int j = 0; j < channels[i].length; j++) {
-        for (int k = 0; k < channels[i][0].length; k++) {
-          if (Math.abs(channels[i][j][k]) <= threshold) {
-            channels[i][j][k] = 0;
-          }
+    executor.forEachBand(channels[0].length, (rowStart, rowEnd) -> {
+      for (int i = 0; i < channels.length; i++) {
+        for (int j = rowStart; j < rowEnd; j++) {
+          for (int k = 0; k < channels[i][0].length; k++) {
+            if (Math.abs(channels[i][j][k]) <= threshold) {
+              channels[i][j][k] = 0;
+            }
 
+          }
         }
       }
-    }
+    });
   }
 
   protected Image getCompressedImage(double[][][] channels) {
-    Image outputImage = new RGBImage(image.getWidth(), image.getHeight(), image.getMax());
-    for (int i = 0 ; i < image.getHeight(); i++) {
-      for (int j = 0; j < image.getWidth(); j++) {
-        outputImage.setPixel(i, j, new RGBPixel(
-            (int) Math.max(0, Math.round(channels[0][i][j])),
-            (int) Math.max(0, Math.round(channels[1][i][j])),
-            (int) Math.max(0, Math.round(channels[2][i][j])),
-            255
-        ));
+    int width = image.getWidth();
+    int height = image.getHeight();
+    Image outputImage = ImageUtil.createImage(width, height, image.getMax());
+    executor.forEachBand(height, (rowStart, rowEnd) -> {
+      int[] red = new int[width];
+      int[] green = new int[width];
+      int[] blue = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        for (int j = 0; j < width; j++) {
+          red[j] = MathUtil.clamp((int) Math.round(channels[0][i][j]), 255);
+          green[j] = MathUtil.clamp((int) Math.round(channels[1][i][j]), 255);
+          blue[j] = MathUtil.clamp((int) Math.round(channels[2][i][j]), 255);
+        }
+        outputImage.setRow(i, red, green, blue);
       }
-    }
+    });
     return outputImage;
   }
 
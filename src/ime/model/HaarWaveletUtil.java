@@ -8,101 +8,54 @@
 
 package ime.model;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 /**
  * The HaarWaveletUtil class provides utility methods for performing Haar wavelet transformations
  * on arrays and lists of numerical data. This class is designed to be used within the IME framework
  * for image processing.
+ * <p>
+ * Every level of the transform works in place on the matrix. The rows and the columns of a level
+ * are independent of each other, so they are processed in bands by a {@link RowBandExecutor},
+ * which may run the bands concurrently. Each band allocates one scratch buffer and reuses it for
+ * every row or column of the band, and several matrices of the same size, such as the channels of
+ * an image, are processed together in the same bands.
+ * </p>
  */
 class HaarWaveletUtil {
 
-  private static double[] transformSequence(double[] input) {
-
-    int n = input.length;
-    double[] result = new double[n];
-    Arrays.fill(result, 0);
+  private static final double SQRT_TWO = Math.sqrt(2);
 
-    if (n > 1) {
-
-      List<Double> avg = new ArrayList<>();
-      List<Double> diff = new ArrayList<>();
-
-      int i = 0;
-      while (i + 1 < n) {
-        double a = input[i];
-        double b = input[i + 1];
-        double normalized_avg = (a + b) / Math.sqrt(2);
-        double normalized_diff = (a - b) / Math.sqrt(2);
-        avg.add(normalized_avg);
-        diff.add(normalized_diff);
-        i += 2;
-      }
-
-      avg.addAll(diff);
-      for (int j = 0; j < n; j++) {
-        result[j] = avg.get(j);
-      }
-
-
-    }
-    else {
-      result[0] = input[0];
+  /**
+   * Replaces the first n values of the sequence with their normalized pairwise averages followed
+   * by their normalized pairwise differences.
+   */
+  private static void transformSequence(double[] sequence, int n, double[] scratch) {
+    int half = n / 2;
+    for (int i = 0; i < half; i++) {
+      double a = sequence[2 * i];
+      double b = sequence[2 * i + 1];
+      scratch[i] = (a + b) / SQRT_TWO;
+      scratch[half + i] = (a - b) / SQRT_TWO;
     }
-
-    return result;
+    System.arraycopy(scratch, 0, sequence, 0, n);
   }
 
-  private static double[] invertSequence(double[] input) {
-
-    int n = input.length;
-    double[] result = new double[n];
-    Arrays.fill(result, 0);
-
-    if (n == 1) {
-      result[0] = input[0];
-    }
-    else {
-
-      int i = 0;
-      int j = n / 2;
-
-      List<Double> avg = new ArrayList<>();
-      List<Double> diff = new ArrayList<>();
-
-      while (j < n) {
-        double a = input[i];
-        double b = input[j];
-        double normalized_avg = (a + b) / Math.sqrt(2);
-        double normalized_diff = (a - b) / Math.sqrt(2);
-        avg.add(normalized_avg);
-        diff.add(normalized_diff);
-        i += 1;
-        j += 1;
-      }
-
-      i = 0;
-      j = 0;
-      while (i + 1 < n) {
-        result[i] = avg.get(j);
-        result[i + 1] = diff.get(j);
-        i += 2;
-        j += 1;
-      }
-
+  /**
+   * Reverses transformSequence on the first n values of the sequence, interleaving the
+   * reconstructed pairs again.
+   */
+  private static void invertSequence(double[] sequence, int n, double[] scratch) {
+    int half = n / 2;
+    for (int i = 0; i < half; i++) {
+      double a = sequence[i];
+      double b = sequence[half + i];
+      scratch[2 * i] = (a + b) / SQRT_TWO;
+      scratch[2 * i + 1] = (a - b) / SQRT_TWO;
     }
-    return result;
-
+    System.arraycopy(scratch, 0, sequence, 0, n);
   }
 
-  private static double[][] padInput(double[][] input, int maxSize) {
-    double[][] paddedInput = new double[maxSize][maxSize];
-
-    for (int i = 0; i < maxSize; i++) {
-      Arrays.fill(paddedInput[i], 0);
-    }
+  private static double[][] padInput(double[][] input, int paddedHeight, int paddedWidth) {
+    double[][] paddedInput = new double[paddedHeight][paddedWidth];
 
     for (int i = 0; i < input.length; i++) {
       System.arraycopy(input[i], 0, paddedInput[i], 0, input[i].length);
@@ -111,6 +64,14 @@ class HaarWaveletUtil {
     return paddedInput;
   }
 
+  /**
+   * Gets the number of levels of a transform of a matrix with the given padded dimensions. A
+   * dimension that has been reduced to a single value is not transformed any further.
+   */
+  private static int getLevels(int paddedHeight, int paddedWidth) {
+    return Integer.numberOfTrailingZeros(Math.max(paddedHeight, paddedWidth));
+  }
+
   /**
    * Applies a 2D Haar wavelet transform to the given input matrix.
    *
@@ -118,68 +79,69 @@ class HaarWaveletUtil {
    * @return A matrix representing the result of the 2D Haar wavelet transform.
    */
   public static double[][] transform(double[][] input) {
+    return transform(new double[][][]{input}, new RowBandExecutor(1))[0];
+  }
 
-    int height = input.length;
-    int width = input[0].length;
-    int maxSize = Math.max(MathUtil.getNearestPowerOfTwo(height),
-            MathUtil.getNearestPowerOfTwo(width));
+  /**
+   * Applies a 2D Haar wavelet transform to each of the given input matrices, which must all have
+   * the same dimensions. The height and the width are each padded to their own nearest power of
+   * two, so a square input is padded to a square.
+   *
+   * @param inputs   The input matrices to be transformed.
+   * @param executor The executor used to process the bands of rows and columns.
+   * @return The matrices representing the result of the 2D Haar wavelet transform.
+   */
+  public static double[][][] transform(double[][][] inputs, RowBandExecutor executor) {
 
-    double[][] paddedInput = padInput(input, maxSize);
+    int paddedHeight = MathUtil.getNearestPowerOfTwo(inputs[0].length);
+    int paddedWidth = MathUtil.getNearestPowerOfTwo(inputs[0][0].length);
 
-    while (maxSize > 1) {
-      transformRows(paddedInput, maxSize);
-      transformColumns(paddedInput, maxSize);
-      maxSize /= 2;
+    double[][][] paddedInputs = new double[inputs.length][][];
+    for (int c = 0; c < inputs.length; c++) {
+      paddedInputs[c] = padInput(inputs[c], paddedHeight, paddedWidth);
     }
 
-    return paddedInput;
-  }
-
-  private static void transformRows(double[][] input, int size) {
-    for (int i = 0; i < size; i++) {
-      double[] temp = new double[size];
-      Arrays.fill(temp, 0);
-      System.arraycopy(input[i], 0, temp, 0, size);
-      temp = transformSequence(temp);
-      System.arraycopy(temp, 0, input[i], 0, size);
-    }
-  }
-
-  private static void transformColumns(double[][] input, int size) {
-    for (int i = 0; i < size; i++) {
-      double[] temp = new double[size];
-      Arrays.fill(temp, 0);
-      for (int j = 0; j < size; j++) {
-        temp[j] = input[j][i];
+    int levels = getLevels(paddedHeight, paddedWidth);
+    for (int level = 0; level < levels; level++) {
+      int height = Math.max(1, paddedHeight >> level);
+      int width = Math.max(1, paddedWidth >> level);
+      if (width > 1) {
+        executor.forEachBand(height, (rowStart, rowEnd) -> {
+          double[] scratch = new double[width];
+          for (double[][] input : paddedInputs) {
+            for (int i = rowStart; i < rowEnd; i++) {
+              transformSequence(input[i], width, scratch);
+            }
+          }
+        });
       }
-      temp = transformSequence(temp);
-      for (int j = 0; j < size; j++) {
-        input[j][i] = temp[j];
+      if (height > 1) {
+        executor.forEachBand(width, (colStart, colEnd) -> {
+          double[] column = new double[height];
+          double[] scratch = new double[height];
+          for (double[][] input : paddedInputs) {
+            for (int i = colStart; i < colEnd; i++) {
+              getColumn(input, i, height, column);
+              transformSequence(column, height, scratch);
+              setColumn(input, i, height, column);
+            }
+          }
+        });
       }
     }
+
+    return paddedInputs;
   }
 
-  private static void invertColumns(double[][] input, int size) {
-    for (int i = 0; i < size; i++) {
-      double[] temp = new double[size];
-      Arrays.fill(temp, 0);
-      for (int j = 0; j < size; j++) {
-        temp[j] = input[j][i];
-      }
-      temp = invertSequence(temp);
-      for (int j = 0; j < size; j++) {
-        input[j][i] = temp[j];
-      }
+  private static void getColumn(double[][] input, int col, int height, double[] column) {
+    for (int j = 0; j < height; j++) {
+      column[j] = input[j][col];
     }
   }
 
-  private static void invertRows(double[][] input, int size) {
-    for (int i = 0; i < size; i++) {
-      double[] temp = new double[size];
-      Arrays.fill(temp, 0);
-      System.arraycopy(input[i], 0, temp, 0, size);
-      temp = invertSequence(temp);
-      System.arraycopy(temp, 0, input[i], 0, size);
+  private static void setColumn(double[][] input, int col, int height, double[] column) {
+    for (int j = 0; j < height; j++) {
+      input[j][col] = column[j];
     }
   }
 
@@ -192,19 +154,58 @@ class HaarWaveletUtil {
    * @return A matrix representing the result of inverting the Haar wavelet transform.
    */
   public static double[][] invert(double[][] input, int height, int width) {
-    int size = input.length;
-    int currentSize = 2;
+    return invert(new double[][][]{input}, height, width, new RowBandExecutor(1))[0];
+  }
 
-    while (currentSize <= size) {
-      invertColumns(input, currentSize);
-      invertRows(input, currentSize);
-      currentSize *= 2;
+  /**
+   * Inverts a 2D Haar wavelet transform on each of the given input matrices, which must all have
+   * the same dimensions. The input matrices are inverted in place.
+   *
+   * @param inputs   The input matrices containing the result of the Haar wavelet transform.
+   * @param height   The height of the original matrices before the transformation.
+   * @param width    The width of the original matrices before the transformation.
+   * @param executor The executor used to process the bands of rows and columns.
+   * @return The matrices representing the result of inverting the Haar wavelet transform.
+   */
+  public static double[][][] invert(double[][][] inputs, int height, int width,
+                                    RowBandExecutor executor) {
+    int paddedHeight = inputs[0].length;
+    int paddedWidth = inputs[0][0].length;
+
+    for (int level = getLevels(paddedHeight, paddedWidth) - 1; level >= 0; level--) {
+      int levelHeight = Math.max(1, paddedHeight >> level);
+      int levelWidth = Math.max(1, paddedWidth >> level);
+      if (levelHeight > 1) {
+        executor.forEachBand(levelWidth, (colStart, colEnd) -> {
+          double[] column = new double[levelHeight];
+          double[] scratch = new double[levelHeight];
+          for (double[][] input : inputs) {
+            for (int i = colStart; i < colEnd; i++) {
+              getColumn(input, i, levelHeight, column);
+              invertSequence(column, levelHeight, scratch);
+              setColumn(input, i, levelHeight, column);
+            }
+          }
+        });
+      }
+      if (levelWidth > 1) {
+        executor.forEachBand(levelHeight, (rowStart, rowEnd) -> {
+          double[] scratch = new double[levelWidth];
+          for (double[][] input : inputs) {
+            for (int i = rowStart; i < rowEnd; i++) {
+              invertSequence(input[i], levelWidth, scratch);
+            }
+          }
+        });
+      }
     }
 
-    double[][] result = new double[height][width];
-    padOutput(input, result, height, width);
+    double[][][] results = new double[inputs.length][height][width];
+    for (int c = 0; c < inputs.length; c++) {
+      padOutput(inputs[c], results[c], height, width);
+    }
 
-    return result;
+    return results;
   }
 
   private static void padOutput(double[][] input, double[][] result, int height, int width) {
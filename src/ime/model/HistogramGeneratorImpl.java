@@ -10,17 +10,37 @@
 
 package ime.model;
 
-import java.util.Map;
-
 /**
  * The HistogramGeneratorImpl class implements the HistogramGenerator interface
  * and provides functionality for generating a histogram from an image.
  * This class is designed to be used within the IME framework for image processing.
+ * The image is read once, one band of rows at a time. Each band counts its rows into its own
+ * frequency counters, which are merged into the histogram when the band is done, so the bands can
+ * be processed concurrently.
  *
  * @see HistogramGenerator
  */
 class HistogramGeneratorImpl implements HistogramGenerator {
 
+  private final RowBandExecutor executor;
+
+  /**
+   * Constructs a HistogramGeneratorImpl that reads the image on the calling thread.
+   */
+  public HistogramGeneratorImpl() {
+    this(new RowBandExecutor(1));
+  }
+
+  /**
+   * Constructs a HistogramGeneratorImpl that reads the bands of rows of the image with the given
+   * executor.
+   *
+   * @param executor The executor used to process the bands of rows.
+   */
+  public HistogramGeneratorImpl(RowBandExecutor executor) {
+    this.executor = executor;
+  }
+
   /**
    * Generates a histogram for the provided input image.
    *
@@ -32,10 +52,26 @@ class HistogramGeneratorImpl implements HistogramGenerator {
     int width = inputImage.getWidth();
     int height = inputImage.getHeight();
     int noOfChannels = 3;
-    int[][] channelsArray = extractChannelsArray(inputImage, width, height, noOfChannels);
+    int size = ChannelLut.tableSize(inputImage.getMax());
+
+    FrequencyCounterImpl[] frequencyCounters = createFrequencyCounters(size, noOfChannels);
+    executor.forEachBand(height, (rowStart, rowEnd) -> {
+      FrequencyCounterImpl[] partialCounters = createFrequencyCounters(size, noOfChannels);
+      int[][] row = new int[noOfChannels][width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        inputImage.getRow(i, row[0], row[1], row[2]);
+        for (int c = 0; c < noOfChannels; c++) {
+          partialCounters[c].count(row[c], width);
+        }
+      }
+      synchronized (frequencyCounters) {
+        for (int c = 0; c < noOfChannels; c++) {
+          frequencyCounters[c].merge(partialCounters[c]);
+        }
+      }
+    });
 
-    FrequencyCounter[] frequencyCounters = createFrequencyCounters(channelsArray, noOfChannels);
-    return  extractFrequencyData(frequencyCounters, noOfChannels);
+    return extractFrequencyData(frequencyCounters, noOfChannels);
 
   }
 
@@ -43,55 +79,21 @@ class HistogramGeneratorImpl implements HistogramGenerator {
     int[][] frequencyData = new int[noOfChannels][256];
 
     for (int channel = 0; channel < noOfChannels; channel++) {
-      Map<Integer, Integer> frequencyMap = frequencyCounters[channel].getFrequency();
-
-      for (Map.Entry<Integer, Integer> entry : frequencyMap.entrySet()) {
-        int value = entry.getKey();
-        int frequency = entry.getValue();
-        frequencyData[channel][value] = frequency;
+      for (int value = 0; value < 256; value++) {
+        frequencyData[channel][value] = frequencyCounters[channel].getFrequency(value);
       }
     }
 
     return frequencyData;
   }
 
-  private int[][] extractChannelsArray(Image inputImage, int width, int height, int noOfChannels) {
-    int[][] channelsArray = new int[noOfChannels][width * height];
-
-    for (int c = 0; c < noOfChannels; c++) {
-      for (int i = 0; i < height; i++) {
-        for (int j = 0; j < width; j++) {
-          RGBPixel pixel = (RGBPixel) inputImage.getPixel(i, j);
-          int index = i * width + j;
-          channelsArray[c][index] = getChannelValue(pixel, c);
-        }
-      }
-    }
-
-    return channelsArray;
-  }
-
-  private FrequencyCounter[] createFrequencyCounters(int[][] channelsArray, int noOfChannels) {
-    FrequencyCounter[] frequencyCounters = new FrequencyCounterImpl[noOfChannels];
+  private FrequencyCounterImpl[] createFrequencyCounters(int size, int noOfChannels) {
+    FrequencyCounterImpl[] frequencyCounters = new FrequencyCounterImpl[noOfChannels];
 
     for (int channel = 0; channel < noOfChannels; channel++) {
-      int[] channelValues = channelsArray[channel];
-      frequencyCounters[channel] = new FrequencyCounterImpl(channelValues);
+      frequencyCounters[channel] = new FrequencyCounterImpl(size);
     }
 
     return frequencyCounters;
   }
-
-  private int getChannelValue(RGBPixel pixel, int channel) {
-    switch (channel) {
-      case 0:
-        return pixel.getRed();
-      case 1:
-        return pixel.getGreen();
-      case 2:
-        return pixel.getBlue();
-      default:
-        throw new IllegalArgumentException("Invalid channel index");
-    }
-  }
 }
@@ -5,9 +5,11 @@
 
 package ime.model;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.NoSuchElementException;
 
 /**
  * The IMEFacade interface defines the contract for an application facade responsible
@@ -32,6 +34,24 @@ public interface IMEFacade {
    */
   OutputStream save(String imageName) throws IOException;
 
+  /**
+   * Loads the pixels of a raster and associates them with a given image name.
+   *
+   * @param raster    The raster containing the pixels to be loaded.
+   * @param imageName The name to associate with the loaded image.
+   * @throws NoSuchElementException If a color value of the raster lies outside the range allowed
+   *                                by its maximum value.
+   */
+  void loadRaster(PixelRaster raster, String imageName) throws NoSuchElementException;
+
+  /**
+   * Copies the pixels of the image with the specified name into a raster.
+   *
+   * @param imageName The name of the image to save.
+   * @return A raster containing the pixels of the image.
+   */
+  PixelRaster saveRaster(String imageName);
+
   // Methods for image processing operations:
   /**
    * Applies the red component extraction operation to the input image
@@ -165,5 +185,67 @@ public interface IMEFacade {
    */
   void sepia(String inputImageName, String outputImageName);
 
+  /**
+   * Sets the number of threads used by the per-pixel operations of the facade. A parallelism of
+   * one processes every image on the calling thread. The result of an operation does not depend
+   * on the parallelism.
+   *
+   * @param parallelism The number of threads to be used.
+   * @throws IllegalArgumentException If the parallelism is not a positive integer.
+   */
+  void setParallelism(int parallelism) throws IllegalArgumentException;
+
+  /**
+   * Sets the number of operation results the facade remembers. Repeating an operation with the
+   * same parameters on the same image reuses the remembered result instead of computing it
+   * again, and the least recently used results are forgotten first. The cache is off until a size
+   * is set, and a size of zero turns it off again. Results computed from an image that has been
+   * replaced under its name are forgotten. The result of an operation does not depend on the
+   * cache size.
+   *
+   * @param cacheSize The number of results to be remembered.
+   * @throws IllegalArgumentException If the cache size is negative.
+   */
+  void setCacheSize(int cacheSize) throws IllegalArgumentException;
+
+  /**
+   * Turns lazy evaluation of the per-pixel operations on or off. While it is on, operations such
+   * as brighten, sepia, luma and levels adjustment are only recorded, and a chain of them applied
+   * one after another is carried out in a single pass when the pixels of an image in the chain are
+   * needed, for example to save, filter or display it. Every image in the chain can still be used
+   * by its name. The result of an operation does not depend on lazy evaluation.
+   *
+   * @param lazyEvaluation Whether the per-pixel operations are evaluated lazily.
+   */
+  void setLazyEvaluation(boolean lazyEvaluation);
+
+  /**
+   * Removes the image with the given name, releasing the memory it occupies. Nothing happens if
+   * no image is stored under the name.
+   *
+   * @param imageName The name of the image to remove.
+   */
+  void remove(String imageName);
+
+  /**
+   * Gets how the stored images were served. The counters are the number of retrievals served
+   * from memory (hits), the number of retrievals that had to read an image back from disk
+   * (misses) and the number of images moved to disk to stay within the memory budget (spills).
+   * Without a memory budget every image stays in memory, so there are no misses or spills.
+   *
+   * @return The hits, misses and spills of the image repository, in that order.
+   */
+  long[] getRepositoryCounters();
+
   int[][][] getRawImageData(String imageName);
+
+  /**
+   * Gets an image with the given name for display. The pixels are shared with the stored image
+   * where possible instead of being copied, so the returned image must not be modified. Color
+   * values of images whose maximum value exceeds 255 are scaled down to the range 0 to 255.
+   *
+   * @param imageName The name of the image to display.
+   * @return An RGB BufferedImage with the pixels of the image.
+   */
+  BufferedImage getDisplayImage(String imageName);
 }
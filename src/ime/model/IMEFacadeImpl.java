@@ -5,13 +5,14 @@
 
 package ime.model;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.InputMismatchException;
 import java.util.NoSuchElementException;
-import java.util.Scanner;
+import java.util.function.Supplier;
 
 /**
  * The IMEFacadeImpl class provides an implementation of the IMEFacade interface, offering methods
@@ -20,12 +21,36 @@ import java.util.Scanner;
 public class IMEFacadeImpl implements IMEFacade {
 
   final ImageRepository imageRepository;
+  final OperationCache cache;
+  volatile RowBandExecutor executor;
+  private volatile boolean lazyEvaluation;
 
   /**
-   * Constructs an instance of the IMEFacadeImpl class.
+   * Constructs an instance of the IMEFacadeImpl class. Images are processed on the calling
+   * thread until a different parallelism is set. Remembered operation results keep their input
+   * images in memory, so none are remembered until a cache size is set.
    */
   public IMEFacadeImpl() {
-    this.imageRepository = new InMemoryRepository();
+    this(new InMemoryRepository(), 0);
+  }
+
+  /**
+   * Constructs an instance of the IMEFacadeImpl class that keeps the stored images within the
+   * given memory budget, spilling the least recently used images to temporary files. Remembered
+   * operation results would be kept in memory outside the budget, so none are remembered until a
+   * cache size is set.
+   *
+   * @param memoryBudget The number of bytes the images held in memory may occupy.
+   * @throws IllegalArgumentException If the budget is not positive.
+   */
+  public IMEFacadeImpl(long memoryBudget) throws IllegalArgumentException {
+    this(new SpillingRepository(memoryBudget), 0);
+  }
+
+  private IMEFacadeImpl(ImageRepository imageRepository, int cacheSize) {
+    this.imageRepository = imageRepository;
+    this.cache = new OperationCache(cacheSize, true);
+    this.executor = new RowBandExecutor(1);
   }
 
   // Methods for retrieving and saving images:
@@ -44,155 +69,200 @@ public class IMEFacadeImpl implements IMEFacade {
   // Methods for loading and saving images:
   @Override
   public void load(InputStream imageData, String imageName) throws NoSuchElementException {
-    Scanner sc = new Scanner(imageData);
-    int width = sc.nextInt();
-    int height = sc.nextInt();
-    int max = sc.nextInt();
-    if (width < 0 || height < 0 || max < 0) {
-      throw new NoSuchElementException("Please input a valid file");
-    }
-    Image outputImage = new RGBImage(width, height, max);
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        int red = sc.nextInt();
-        int green = sc.nextInt();
-        int blue = sc.nextInt();
+    loadRaster(PixelRaster.read(imageData), imageName);
+  }
+
+  @Override
+  public OutputStream save(String imageName) throws IOException {
+    OutputStream outputStream = new ByteArrayOutputStream();
+    saveRaster(imageName).write(outputStream);
+    return outputStream;
+  }
+
+  @Override
+  public void loadRaster(PixelRaster raster, String imageName) throws NoSuchElementException {
+    int width = raster.getWidth();
+    int height = raster.getHeight();
+    int max = raster.getMax();
+    int[] samples = raster.getSamples();
+    Image outputImage = ImageUtil.createImage(width, height, max);
+    int[] redRow = new int[width];
+    int[] greenRow = new int[width];
+    int[] blueRow = new int[width];
+    for (int i = 0, k = 0; i < height; i++) {
+      for (int j = 0; j < width; j++, k += 3) {
+        int red = samples[k];
+        int green = samples[k + 1];
+        int blue = samples[k + 2];
         if (red < 0 || red > max || green < 0 || green > max || blue < 0 || blue > max) {
           throw new NoSuchElementException("Please input a valid file");
         }
-        outputImage.setPixel(i, j, new RGBPixel(red, green, blue, max));
+        redRow[j] = red;
+        greenRow[j] = green;
+        blueRow[j] = blue;
       }
+      outputImage.setRow(i, redRow, greenRow, blueRow);
     }
-    if (sc.hasNext()) {
-      throw new NoSuchElementException("Please input a valid file"); }
-    imageRepository.putImage(imageName, outputImage);
+    store(imageName, outputImage);
   }
 
   @Override
-  public OutputStream save(String imageName) throws IOException {
-    StringBuilder imageData = new StringBuilder();
-    Image rgbImage = imageRepository.getImage(imageName);
-    int width = rgbImage.getWidth();
-    int height = rgbImage.getHeight();
-    imageData.append(width).append(" ").append(height)
-        .append(System.lineSeparator());
-    imageData.append(rgbImage.getMax()).append(System.lineSeparator());
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        RGBPixel rgbPixel = (RGBPixel) rgbImage.getPixel(i, j);
-        imageData.append(rgbPixel.getRed()).append(System.lineSeparator());
-        imageData.append(rgbPixel.getGreen()).append(System.lineSeparator());
-        imageData.append(rgbPixel.getBlue()).append(System.lineSeparator());
+  public PixelRaster saveRaster(String imageName) {
+    Image image = imageRepository.getImage(imageName);
+    int width = image.getWidth();
+    int height = image.getHeight();
+    PixelRaster raster = new PixelRaster(width, height, image.getMax());
+    int[] samples = raster.getSamples();
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
+    for (int i = 0, k = 0; i < height; i++) {
+      image.getRow(i, red, green, blue);
+      for (int j = 0; j < width; j++, k += 3) {
+        samples[k] = red[j];
+        samples[k + 1] = green[j];
+        samples[k + 2] = blue[j];
       }
     }
-    OutputStream outputStream = new ByteArrayOutputStream();
-    outputStream.write(imageData.toString().getBytes());
-    return outputStream;
+    return raster;
   }
 
   @Override
   public void redComponent(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new PixelTransformer(pixel -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(rgbPixel.getRed(), 0, 0, rgbPixel.getMax());
-    }).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    Image outputImage = cached("red-component", inputImage,
+        () -> apply(componentProcessor(0), inputImage));
+    store(outputImageName, outputImage);
   }
 
   @Override
   public void greenComponent(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new PixelTransformer(pixel -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(0, rgbPixel.getGreen(), 0, rgbPixel.getMax());
-    }).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    Image outputImage = cached("green-component", inputImage,
+        () -> apply(componentProcessor(1), inputImage));
+    store(outputImageName, outputImage);
   }
 
   @Override
   public void blueComponent(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new PixelTransformer(pixel -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(0, 0, rgbPixel.getBlue(), rgbPixel.getMax());
-    }).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    Image outputImage = cached("blue-component", inputImage,
+        () -> apply(componentProcessor(2), inputImage));
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that keeps one channel of an image and clears the other two.
+   *
+   * @param channel The channel to be kept: 0 for red, 1 for green and 2 for blue.
+   * @return The component processor.
+   */
+  PointOperation componentProcessor(int channel) {
+    double[][] selectionMatrix = new double[3][3];
+    selectionMatrix[channel][channel] = 1;
+    return new LinearColorTransformer(selectionMatrix, executor);
   }
 
   @Override
   public void value(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new PixelTransformer(pixel -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(rgbPixel.getValue(), rgbPixel.getValue(), rgbPixel.getValue(),
-          rgbPixel.getMax());
-    }).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    Image outputImage = cached("value", inputImage, () -> apply(valueProcessor(), inputImage));
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that converts an image to the greyscale version of its value
+   * component, the largest of the three components of every pixel.
+   *
+   * @return The value processor.
+   */
+  PointOperation valueProcessor() {
+    return new PixelTransformer((red, green, blue, width, max) -> {
+      for (int j = 0; j < width; j++) {
+        int value = Math.max(red[j], Math.max(blue[j], green[j]));
+        red[j] = value;
+        green[j] = value;
+        blue[j] = value;
+      }
+    }, executor);
   }
 
   @Override
   public void intensity(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new PixelTransformer(pixel -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(rgbPixel.getIntensity(), rgbPixel.getIntensity(), rgbPixel.getIntensity(),
-          rgbPixel.getMax());
-    }).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    Image outputImage = cached("intensity", inputImage,
+        () -> apply(intensityProcessor(), inputImage));
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that converts an image to the greyscale version of its intensity
+   * component, the average of the three components of every pixel.
+   *
+   * @return The intensity processor.
+   */
+  PointOperation intensityProcessor() {
+    return new PixelTransformer((red, green, blue, width, max) -> {
+      for (int j = 0; j < width; j++) {
+        int intensity = (red[j] + blue[j] + green[j]) / 3;
+        red[j] = intensity;
+        green[j] = intensity;
+        blue[j] = intensity;
+      }
+    }, executor);
   }
 
   @Override
   public void luma(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new PixelTransformer(pixel -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(rgbPixel.getLuma(), rgbPixel.getLuma(), rgbPixel.getLuma(),
-          rgbPixel.getMax());
-    }).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    Image outputImage = cached("luma", inputImage, () -> apply(lumaProcessor(), inputImage));
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that converts an image to its luma greyscale version.
+   *
+   * @return The luma processor.
+   */
+  PointOperation lumaProcessor() {
+    double[][] lumaMatrix = {
+        {0.2126, 0.7152, 0.0722},
+        {0.2126, 0.7152, 0.0722},
+        {0.2126, 0.7152, 0.0722}
+    };
+    return new LinearColorTransformer(lumaMatrix, executor);
   }
 
   @Override
   public void flipVertical(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    int width = inputImage.getWidth();
-    int height = inputImage.getHeight();
-    Image outputImage = new RGBImage(width, height, inputImage.getMax());
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        RGBPixel mirrorPixel = (RGBPixel) inputImage.getPixel(Math.abs(height - 1 - i), j);
-        outputImage.setPixel(i, j,
-            new RGBPixel(mirrorPixel.getRed(), mirrorPixel.getGreen(), mirrorPixel.getBlue(),
-                mirrorPixel.getMax()));
-      }
-      imageRepository.putImage(outputImageName, outputImage);
-    }
+    store(outputImageName, ImageView.mirrorVertical(inputImage));
   }
 
   @Override
   public void flipHorizontal(String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    int width = inputImage.getWidth();
-    int height = inputImage.getHeight();
-    Image outputImage = new RGBImage(width, height, inputImage.getMax());
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        RGBPixel mirrorPixel = (RGBPixel) inputImage.getPixel(i, Math.abs(width - 1 - j));
-        outputImage.setPixel(i, j,
-            new RGBPixel(mirrorPixel.getRed(), mirrorPixel.getGreen(), mirrorPixel.getBlue(),
-                mirrorPixel.getMax()));
-      }
-      imageRepository.putImage(outputImageName, outputImage);
-    }
+    store(outputImageName, ImageView.mirrorHorizontal(inputImage));
   }
 
   @Override
   public void brighten(int increment, String inputImageName, String outputImageName) {
     Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new PixelTransformer(pixel -> pixel.brighten(increment)).process(
-        inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    Image outputImage = cached("brighten", inputImage,
+        () -> apply(brightenProcessor(increment, inputImage.getMax()), inputImage), increment);
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that adds the given increment to every component of an image with the
+   * given maximum color value.
+   *
+   * @param increment The value added to every component, which may be negative.
+   * @param max       The maximum color value of the image.
+   * @return The brighten processor.
+   */
+  PointOperation brightenProcessor(int increment, int max) {
+    return ChannelLut.of(value -> MathUtil.clamp(value + increment, max), max, max, executor);
   }
 
   @Override
@@ -211,41 +281,77 @@ public class IMEFacadeImpl implements IMEFacade {
     Image blueComponentInputImage = imageRepository.getImage(blueComponentInputImageName);
     int width = redComponentInputImage.getWidth();
     int height = redComponentInputImage.getHeight();
-    int max = redComponentInputImage.getMax();
     if (greenComponentInputImage.getHeight() != height
         || greenComponentInputImage.getWidth() != width
         || blueComponentInputImage.getHeight() != height
         || blueComponentInputImage.getWidth() != width) {
       throw new IllegalArgumentException("Combine operation requires images of same dimension");
     }
-    Image outputImage = new RGBImage(width, height, max);
+    Image outputImage = cache.get(new OperationCache.Key("rgb-combine", new Object[0],
+        redComponentInputImage, greenComponentInputImage, blueComponentInputImage),
+        () -> combine(redComponentInputImage, greenComponentInputImage,
+            blueComponentInputImage));
+    store(outputImageName, outputImage);
+  }
+
+  private static Image combine(Image redComponentInputImage, Image greenComponentInputImage,
+                               Image blueComponentInputImage) {
+    int width = redComponentInputImage.getWidth();
+    int height = redComponentInputImage.getHeight();
+    int max = redComponentInputImage.getMax();
+    Image outputImage = ImageUtil.createImage(width, height, max);
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
+    int[] unused = new int[width];
     for (int i = 0; i < height; i++) {
+      redComponentInputImage.getRow(i, red, unused, unused);
+      greenComponentInputImage.getRow(i, unused, green, unused);
+      blueComponentInputImage.getRow(i, unused, unused, blue);
       for (int j = 0; j < width; j++) {
-        RGBPixel redComponentPixel = (RGBPixel) redComponentInputImage.getPixel(i, j);
-        RGBPixel greenComponentPixel = (RGBPixel) greenComponentInputImage.getPixel(i, j);
-        RGBPixel blueComponentPixel = (RGBPixel) blueComponentInputImage.getPixel(i, j);
-        outputImage.setPixel(i, j,
-            new RGBPixel(redComponentPixel.getRed(), greenComponentPixel.getGreen(),
-                blueComponentPixel.getBlue(), max));
+        red[j] = MathUtil.clamp(red[j], max);
+        green[j] = MathUtil.clamp(green[j], max);
+        blue[j] = MathUtil.clamp(blue[j], max);
       }
+      outputImage.setRow(i, red, green, blue);
     }
-    imageRepository.putImage(outputImageName, outputImage);
+    return outputImage;
   }
 
   @Override
   public void blur(String inputImageName, String outputImageName) {
+    Image inputImage = imageRepository.getImage(inputImageName);
+    Image outputImage = cached("blur", inputImage, () -> blurProcessor().process(inputImage));
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that blurs an image with a 3x3 Gaussian kernel.
+   *
+   * @return The blur processor.
+   */
+  ImageProcessor blurProcessor() {
     double[][] gaussianBlurKernel = {
         {1.0 / 16, 1.0 / 8, 1.0 / 16},
         {1.0 / 8, 1.0 / 4, 1.0 / 8},
         {1.0 / 16, 1.0 / 8, 1.0 / 16}
     };
-    Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new Filter(gaussianBlurKernel).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    return new Filter(gaussianBlurKernel, executor);
   }
 
   @Override
   public void sharpen(String inputImageName, String outputImageName) {
+    Image inputImage = imageRepository.getImage(inputImageName);
+    Image outputImage = cached("sharpen", inputImage, () -> sharpenProcessor().process(inputImage));
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that sharpens an image with a 5x5 kernel.
+   *
+   * @return The sharpen processor.
+   */
+  ImageProcessor sharpenProcessor() {
     double[][] sharpeningKernel = {
         {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
         {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
@@ -253,21 +359,108 @@ public class IMEFacadeImpl implements IMEFacade {
         {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
         {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
     };
-    Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new Filter(sharpeningKernel).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    return new Filter(sharpeningKernel, executor);
   }
 
   @Override
   public void sepia(String inputImageName, String outputImageName) {
+    Image inputImage = imageRepository.getImage(inputImageName);
+    Image outputImage = cached("sepia", inputImage, () -> apply(sepiaProcessor(), inputImage));
+    store(outputImageName, outputImage);
+  }
+
+  /**
+   * Creates the processor that applies the sepia tone to an image.
+   *
+   * @return The sepia processor.
+   */
+  PointOperation sepiaProcessor() {
     double[][] sepiaMatrix = {
         {0.393, 0.769, 0.189},
         {0.349, 0.686, 0.168},
         {0.272, 0.534, 0.131}
     };
-    Image inputImage = imageRepository.getImage(inputImageName);
-    Image outputImage = new LinearColorTransformer(sepiaMatrix).process(inputImage);
-    imageRepository.putImage(outputImageName, outputImage);
+    return new LinearColorTransformer(sepiaMatrix, executor);
+  }
+
+  @Override
+  public void setParallelism(int parallelism) throws IllegalArgumentException {
+    RowBandExecutor previous = executor;
+    executor = new RowBandExecutor(parallelism);
+    previous.shutdown();
+  }
+
+  @Override
+  public void setCacheSize(int cacheSize) throws IllegalArgumentException {
+    cache.setCapacity(cacheSize);
+  }
+
+  @Override
+  public void setLazyEvaluation(boolean lazyEvaluation) {
+    this.lazyEvaluation = lazyEvaluation;
+  }
+
+  @Override
+  public long[] getRepositoryCounters() {
+    return new long[]{imageRepository.getHits(), imageRepository.getMisses(),
+        imageRepository.getSpills()};
+  }
+
+  /**
+   * Applies a point operation to an image. While lazy evaluation is on, the operation is only
+   * recorded, and is carried out together with the point operations applied after it once the
+   * pixels of the result are needed.
+   *
+   * @param operation  The point operation to be applied.
+   * @param inputImage The image the operation is applied to.
+   * @return The result of the operation.
+   */
+  Image apply(PointOperation operation, Image inputImage) {
+    if (lazyEvaluation) {
+      return DeferredImage.of(inputImage, operation, () -> executor);
+    }
+    return operation.process(inputImage);
+  }
+
+  /**
+   * Returns the result of an operation on an image, reusing the result of the same operation
+   * with the same parameters on the same image if the cache still holds it.
+   *
+   * @param operation  The name of the operation.
+   * @param inputImage The image the operation is applied to.
+   * @param result     Computes the result of the operation.
+   * @param parameters The parameters of the operation.
+   * @param <T>        The type of the result.
+   * @return The result of the operation.
+   */
+  <T> T cached(String operation, Image inputImage, Supplier<T> result, Object... parameters) {
+    return cache.get(new OperationCache.Key(operation, parameters, inputImage), result);
+  }
+
+  /**
+   * Stores an image under the given name. The image that was stored under the name can no longer
+   * be used as the input of an operation, so the cache forgets the results computed from it or
+   * holding it, and no longer keeps that image in memory.
+   *
+   * @param imageName The name of the image.
+   * @param image     The image to be stored.
+   */
+  void store(String imageName, Image image) {
+    Image previous = imageRepository.putImage(imageName, image);
+    if (previous != null && previous != image) {
+      cache.release(previous);
+    }
+  }
+
+  @Override
+  public void remove(String imageName) {
+    try {
+      cache.release(imageRepository.getImage(imageName));
+    } catch (InputMismatchException e) {
+      // Nothing is stored under the name.
+      return;
+    }
+    imageRepository.removeImage(imageName);
   }
 
   @Override
@@ -278,17 +471,50 @@ public class IMEFacadeImpl implements IMEFacade {
     int width = image.getWidth();
 
     int[][][] rawImageData = new int[height][width][3];
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
 
     for (int i = 0; i < height; i++) {
+      image.getRow(i, red, green, blue);
       for (int j = 0; j < width; j++) {
-        RGBPixel rgbPixel = (RGBPixel) image.getPixel(i, j);
-        rawImageData[i][j][0] = rgbPixel.getRed();
-        rawImageData[i][j][1] = rgbPixel.getGreen();
-        rawImageData[i][j][2] = rgbPixel.getBlue();
+        rawImageData[i][j][0] = red[j];
+        rawImageData[i][j][1] = green[j];
+        rawImageData[i][j][2] = blue[j];
       }
     }
 
     return rawImageData;
 
   }
+
+  @Override
+  public BufferedImage getDisplayImage(String imageName) {
+    Image image = DeferredImage.resolve(imageRepository.getImage(imageName));
+    if (image instanceof PackedRGBImage) {
+      return ((PackedRGBImage) image).toBufferedImage();
+    }
+
+    // Views and images with more than 8 bits per component are packed into a new image once.
+    int height = image.getHeight();
+    int width = image.getWidth();
+    int max = image.getMax();
+    PackedRGBImage packed = new PackedRGBImage(width, height,
+        Math.min(max, PackedRGBImage.MAX_PACKED_VALUE));
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
+    for (int i = 0; i < height; i++) {
+      image.getRow(i, red, green, blue);
+      if (max > PackedRGBImage.MAX_PACKED_VALUE) {
+        for (int j = 0; j < width; j++) {
+          red[j] = (int) ((long) red[j] * PackedRGBImage.MAX_PACKED_VALUE / max);
+          green[j] = (int) ((long) green[j] * PackedRGBImage.MAX_PACKED_VALUE / max);
+          blue[j] = (int) ((long) blue[j] * PackedRGBImage.MAX_PACKED_VALUE / max);
+        }
+      }
+      packed.setRow(i, red, green, blue);
+    }
+    return packed.toBufferedImage();
+  }
 }
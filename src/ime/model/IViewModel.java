@@ -1,9 +1,12 @@
 package ime.model;
 
+import java.awt.image.BufferedImage;
+
 /**
  * The IViewModel interface defines methods for obtaining image data represented
- * as a three-dimensional array of integers. Each element in the array corresponds
- * to a pixel in the image, containing information about its color components.
+ * as a three-dimensional array of integers, where each element in the array corresponds
+ * to a pixel in the image and contains information about its color components, or as a
+ * read-only BufferedImage ready to be displayed.
  */
 public interface IViewModel {
 
@@ -18,4 +21,13 @@ public interface IViewModel {
    */
   int[][][] getImage(String imageName);
 
+  /**
+   * Retrieves the specified image for display. The returned image may share its pixels with
+   * the model and must not be modified.
+   *
+   * @param imageName The name or identifier of the image.
+   * @return An RGB BufferedImage with the pixels of the image.
+   */
+  BufferedImage getDisplayImage(String imageName);
+
 }
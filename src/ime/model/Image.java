@@ -49,6 +49,84 @@ interface Image {
    */
   void setPixel(int row, int col, Pixel pixel);
 
+  /**
+   * Gets the red component of the pixel at the specified row and column.
+   *
+   * @param row The row of the pixel.
+   * @param col The column of the pixel.
+   * @return The red component of the pixel.
+   */
+  int getRed(int row, int col);
+
+  /**
+   * Gets the green component of the pixel at the specified row and column.
+   *
+   * @param row The row of the pixel.
+   * @param col The column of the pixel.
+   * @return The green component of the pixel.
+   */
+  int getGreen(int row, int col);
+
+  /**
+   * Gets the blue component of the pixel at the specified row and column.
+   *
+   * @param row The row of the pixel.
+   * @param col The column of the pixel.
+   * @return The blue component of the pixel.
+   */
+  int getBlue(int row, int col);
+
+  /**
+   * Sets the color components of the pixel at the specified row and column. Components that
+   * cannot be represented by the image are clamped to the nearest value it can store.
+   *
+   * @param row   The row of the pixel.
+   * @param col   The column of the pixel.
+   * @param red   The red component of the pixel.
+   * @param green The green component of the pixel.
+   * @param blue  The blue component of the pixel.
+   */
+  void setRGB(int row, int col, int red, int green, int blue);
+
+  /**
+   * Copies the color components of every pixel in the specified row into the given arrays.
+   * Each array must hold at least {@code getWidth()} elements.
+   *
+   * @param row   The row to be read.
+   * @param red   The array receiving the red components of the row.
+   * @param green The array receiving the green components of the row.
+   * @param blue  The array receiving the blue components of the row.
+   */
+  void getRow(int row, int[] red, int[] green, int[] blue);
+
+  /**
+   * Sets the color components of every pixel in the specified row from the given arrays.
+   * Components that cannot be represented by the image are clamped to the nearest value it
+   * can store.
+   *
+   * @param row   The row to be written.
+   * @param red   The red components of the row.
+   * @param green The green components of the row.
+   * @param blue  The blue components of the row.
+   */
+  void setRow(int row, int[] red, int[] green, int[] blue);
+
+  /**
+   * Sets the color components of a run of pixels in the specified row from the given arrays,
+   * which are read from index 0. Components that cannot be represented by the image are clamped
+   * to the nearest value it can store.
+   *
+   * @param row      The row to be written.
+   * @param colStart The first column of the run.
+   * @param length   The number of pixels in the run.
+   * @param red      The red components of the run.
+   * @param green    The green components of the run.
+   * @param blue     The blue components of the run.
+   * @throws IllegalArgumentException If the run lies outside the image.
+   */
+  void setRowSegment(int row, int colStart, int length, int[] red, int[] green, int[] blue)
+      throws IllegalArgumentException;
+
   /**
    * Retrieves a portion of the image specified by the given range of rows and columns.
    *
@@ -56,7 +134,9 @@ interface Image {
    * @param rowEnd      The ending row of the portion.
    * @param columnStart The starting column of the portion.
    * @param columnEnd   The ending column of the portion.
-   * @return A new {@code Image} representing the specified portion of the original image.
+   * @return A new {@code Image} representing the specified portion of the original image. The
+   *         portion may read its pixels from this image until it is written to, so this image
+   *         must not be modified while the portion is in use.
    */
   Image getPortion(int rowStart, int rowEnd, int columnStart, int columnEnd);
 
@@ -69,4 +149,13 @@ interface Image {
    */
   void replacePortion(int rowStart, int colStart, Image newPortion);
 
+  /**
+   * Creates a copy of the image. Writing to the copy does not change the original, and writing
+   * to the original does not change the copy.
+   *
+   * @return The copy of the image.
+   * @throws CloneNotSupportedException If cloning of the image is not supported.
+   */
+  Image clone() throws CloneNotSupportedException;
+
 }
@@ -18,4 +18,25 @@ interface ImageProcessor {
    * @return An Image object representing the result of the processing.
    */
   Image process(Image inputImage);
+
+  /**
+   * Processes the input image and writes the result into the leftmost columns of the given
+   * output image, leaving its other columns unchanged. The output image must be as tall as the
+   * input image and at least as wide.
+   *
+   * @param inputImage  The input Image object to be processed.
+   * @param outputImage The Image object receiving the result of the processing.
+   */
+  void processInto(Image inputImage, Image outputImage);
+
+  /**
+   * Gets how far from a pixel the processor reads the input image to compute that pixel of the
+   * result, counted in rows or columns. A processor that computes every pixel from the same pixel
+   * of the input image has a reach of 0.
+   *
+   * @return The reach of the processor.
+   */
+  default int getReach() {
+    return 0;
+  }
 }
@@ -23,11 +23,42 @@ interface ImageRepository {
   Image getImage(String imageName) throws InputMismatchException;
 
   /**
-   * Stores an Image in the repository with the specified name.
+   * Stores an Image in the repository with the specified name, replacing any image stored under
+   * the name.
    *
    * @param imageName The name to associate with the Image in the repository.
    * @param image     The Image object to store in the repository.
+   * @return The image that was held in memory under the name, or null if there was none.
    */
-  void putImage(String imageName, Image image);
+  Image putImage(String imageName, Image image);
+
+  /**
+   * Removes the Image with the specified name from the repository, releasing the memory it
+   * occupies. Nothing happens if no image is stored under the name.
+   *
+   * @param imageName The name of the Image to remove.
+   */
+  void removeImage(String imageName);
+
+  /**
+   * Gets the number of retrievals that were served from memory.
+   *
+   * @return The number of hits.
+   */
+  long getHits();
+
+  /**
+   * Gets the number of retrievals that had to read an image back from outside memory.
+   *
+   * @return The number of misses.
+   */
+  long getMisses();
+
+  /**
+   * Gets the number of images that were moved out of memory to stay within a memory budget.
+   *
+   * @return The number of spills.
+   */
+  long getSpills();
 
 }
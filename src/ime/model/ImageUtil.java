@@ -0,0 +1,32 @@
+/**
+ * The ImageUtil class provides utility methods for creating images.
+ * <p>
+ * This class is designed to be used within the IME framework for image processing.
+ * </p>
+ */
+
+package ime.model;
+
+/**
+ * The ImageUtil class provides utility methods for creating images. This class is designed to be
+ * used within the IME framework for image processing.
+ */
+class ImageUtil {
+
+  /**
+   * Creates a black image with the specified width, height, and maximum color value, choosing
+   * the most compact representation that can hold the maximum color value.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @param max    The maximum color value.
+   * @return A new image with the given dimensions.
+   */
+  public static Image createImage(int width, int height, int max) {
+    if (max <= PackedRGBImage.MAX_PACKED_VALUE) {
+      return new PackedRGBImage(width, height, max);
+    }
+    return new RGBImage(width, height, max);
+  }
+
+}
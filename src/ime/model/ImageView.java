@@ -0,0 +1,310 @@
+/**
+ * The ImageView class represents an image whose pixels are read from another image through index
+ * arithmetic, which allows crops, mirrors and transposes to be created without copying pixels.
+ */
+
+package ime.model;
+
+/**
+ * The ImageView class maps every row and column of the view onto a row and column of a backing
+ * image. The mapping is described by an origin and by the step taken in the backing image for
+ * every step down a column and along a row of the view, which covers crops, mirrors, transposes
+ * and any combination of them. Views of views are flattened onto the original backing image, so
+ * reading a pixel always costs a single lookup.
+ *
+ * <p>The backing image is never written through a view. The first write to a view copies its
+ * pixels into a new image, which receives that write and every later access. The backing image
+ * must not be modified while views of it are in use; images stored by the facade are never
+ * modified once they are stored, so views of them remain valid.
+ */
+class ImageView implements Image, Cloneable {
+
+  private final Image source;
+  private final int width;
+  private final int height;
+
+  // The backing row and column of the pixel at row 0 and column 0 of the view.
+  private final int rowOrigin;
+  private final int colOrigin;
+  // The change in the backing row and column for one step down a column of the view.
+  private final int rowStepDown;
+  private final int colStepDown;
+  // The change in the backing row and column for one step along a row of the view.
+  private final int rowStepAcross;
+  private final int colStepAcross;
+
+  // The copy of the view created by the first write, or null while the view is unchanged.
+  private volatile Image materialized;
+
+  private ImageView(Image source, int width, int height, int rowOrigin, int colOrigin,
+                    int rowStepDown, int colStepDown, int rowStepAcross, int colStepAcross) {
+    this.source = source;
+    this.width = width;
+    this.height = height;
+    this.rowOrigin = rowOrigin;
+    this.colOrigin = colOrigin;
+    this.rowStepDown = rowStepDown;
+    this.colStepDown = colStepDown;
+    this.rowStepAcross = rowStepAcross;
+    this.colStepAcross = colStepAcross;
+  }
+
+  // Describes the given image as a view, so that new views are always built on a backing image
+  // that is neither a view nor a deferred image.
+  private static ImageView asView(Image image) {
+    image = DeferredImage.resolve(image);
+    if (image instanceof ImageView) {
+      ImageView view = (ImageView) image;
+      Image copy = view.materialized;
+      if (copy == null) {
+        return view;
+      }
+      image = copy;
+    }
+    return new ImageView(image, image.getWidth(), image.getHeight(), 0, 0, 1, 0, 0, 1);
+  }
+
+  /**
+   * Creates a view of the given range of rows and columns of an image. An empty range, where
+   * the end lies just before the start, creates an empty view.
+   *
+   * @param image       The image to be viewed.
+   * @param rowStart    The first row of the view.
+   * @param rowEnd      The last row of the view.
+   * @param columnStart The first column of the view.
+   * @param columnEnd   The last column of the view.
+   * @return A view of the specified portion of the image.
+   * @throws IllegalArgumentException If the range lies outside the image.
+   */
+  static Image crop(Image image, int rowStart, int rowEnd, int columnStart, int columnEnd)
+      throws IllegalArgumentException {
+    if (rowStart < 0 || columnStart < 0 || rowEnd >= image.getHeight()
+        || columnEnd >= image.getWidth() || rowEnd < rowStart - 1
+        || columnEnd < columnStart - 1) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+    ImageView base = asView(image);
+    return new ImageView(base.source, columnEnd - columnStart + 1, rowEnd - rowStart + 1,
+        base.sourceRow(rowStart, columnStart), base.sourceCol(rowStart, columnStart),
+        base.rowStepDown, base.colStepDown, base.rowStepAcross, base.colStepAcross);
+  }
+
+  /**
+   * Creates a view of an image with the order of its columns reversed.
+   *
+   * @param image The image to be viewed.
+   * @return A view of the image mirrored from left to right.
+   */
+  static Image mirrorHorizontal(Image image) {
+    ImageView base = asView(image);
+    int last = base.width - 1;
+    return new ImageView(base.source, base.width, base.height,
+        base.sourceRow(0, last), base.sourceCol(0, last),
+        base.rowStepDown, base.colStepDown, -base.rowStepAcross, -base.colStepAcross);
+  }
+
+  /**
+   * Creates a view of an image with the order of its rows reversed.
+   *
+   * @param image The image to be viewed.
+   * @return A view of the image mirrored from top to bottom.
+   */
+  static Image mirrorVertical(Image image) {
+    ImageView base = asView(image);
+    int last = base.height - 1;
+    return new ImageView(base.source, base.width, base.height,
+        base.sourceRow(last, 0), base.sourceCol(last, 0),
+        -base.rowStepDown, -base.colStepDown, base.rowStepAcross, base.colStepAcross);
+  }
+
+  /**
+   * Creates a view of an image with its rows and columns swapped, so that the pixel at a row and
+   * column of the view is the pixel at that column and row of the image.
+   *
+   * @param image The image to be viewed.
+   * @return A view of the transposed image.
+   */
+  static Image transpose(Image image) {
+    ImageView base = asView(image);
+    return new ImageView(base.source, base.height, base.width, base.rowOrigin, base.colOrigin,
+        base.rowStepAcross, base.colStepAcross, base.rowStepDown, base.colStepDown);
+  }
+
+  private int sourceRow(int row, int col) {
+    return rowOrigin + row * rowStepDown + col * rowStepAcross;
+  }
+
+  private int sourceCol(int row, int col) {
+    return colOrigin + row * colStepDown + col * colStepAcross;
+  }
+
+  private void checkIndices(int row, int col) {
+    if (row < 0 || row >= height || col < 0 || col >= width) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+  }
+
+  // Returns the copy receiving the writes to the view, creating it on the first write.
+  private Image writable() {
+    Image copy = materialized;
+    if (copy == null) {
+      synchronized (this) {
+        copy = materialized;
+        if (copy == null) {
+          copy = ImageUtil.createImage(width, height, getMax());
+          copy.replacePortion(0, 0, this);
+          materialized = copy;
+        }
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getMax() {
+    return source.getMax();
+  }
+
+  @Override
+  public Pixel getPixel(int row, int col) {
+    Image copy = materialized;
+    if (copy != null) {
+      return copy.getPixel(row, col);
+    }
+    checkIndices(row, col);
+    return source.getPixel(sourceRow(row, col), sourceCol(row, col));
+  }
+
+  @Override
+  public void setPixel(int row, int col, Pixel pixel) {
+    writable().setPixel(row, col, pixel);
+  }
+
+  @Override
+  public int getRed(int row, int col) {
+    Image copy = materialized;
+    if (copy != null) {
+      return copy.getRed(row, col);
+    }
+    checkIndices(row, col);
+    return source.getRed(sourceRow(row, col), sourceCol(row, col));
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    Image copy = materialized;
+    if (copy != null) {
+      return copy.getGreen(row, col);
+    }
+    checkIndices(row, col);
+    return source.getGreen(sourceRow(row, col), sourceCol(row, col));
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    Image copy = materialized;
+    if (copy != null) {
+      return copy.getBlue(row, col);
+    }
+    checkIndices(row, col);
+    return source.getBlue(sourceRow(row, col), sourceCol(row, col));
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    writable().setRGB(row, col, red, green, blue);
+  }
+
+  @Override
+  public void getRow(int row, int[] red, int[] green, int[] blue) {
+    Image copy = materialized;
+    if (copy != null) {
+      copy.getRow(row, red, green, blue);
+      return;
+    }
+    if (row < 0 || row >= height) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+    if (width == 0) {
+      return;
+    }
+    int firstRow = sourceRow(row, 0);
+    int firstCol = sourceCol(row, 0);
+    if (rowStepAcross == 0 && source instanceof PackedRGBImage) {
+      // The row of the view is a run of one backing row, read forwards or backwards.
+      int segmentStart = colStepAcross > 0 ? firstCol : firstCol - width + 1;
+      ((PackedRGBImage) source).getRowSegment(firstRow, segmentStart, width, red, green, blue);
+      if (colStepAcross < 0) {
+        reverse(red, width);
+        reverse(green, width);
+        reverse(blue, width);
+      }
+      return;
+    }
+    for (int j = 0; j < width; j++) {
+      int sourceRow = firstRow + j * rowStepAcross;
+      int sourceCol = firstCol + j * colStepAcross;
+      red[j] = source.getRed(sourceRow, sourceCol);
+      green[j] = source.getGreen(sourceRow, sourceCol);
+      blue[j] = source.getBlue(sourceRow, sourceCol);
+    }
+  }
+
+  private static void reverse(int[] values, int length) {
+    for (int i = 0, j = length - 1; i < j; i++, j--) {
+      int temp = values[i];
+      values[i] = values[j];
+      values[j] = temp;
+    }
+  }
+
+  @Override
+  public void setRow(int row, int[] red, int[] green, int[] blue) {
+    writable().setRow(row, red, green, blue);
+  }
+
+  @Override
+  public void setRowSegment(int row, int colStart, int length, int[] red, int[] green,
+                            int[] blue) throws IllegalArgumentException {
+    writable().setRowSegment(row, colStart, length, red, green, blue);
+  }
+
+  @Override
+  public Image getPortion(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+    return crop(this, rowStart, rowEnd, columnStart, columnEnd);
+  }
+
+  @Override
+  public void replacePortion(int rowStart, int colStart, Image newPortion) {
+    writable().replacePortion(rowStart, colStart, newPortion);
+  }
+
+  /**
+   * Creates a copy of the calling ImageView object. The copy shares the backing image of the
+   * view until either of them is written to.
+   *
+   * @return the copy of the calling ImageView object.
+   * @throws CloneNotSupportedException If cloning of the image is not supported.
+   */
+  @Override
+  public Image clone() throws CloneNotSupportedException {
+    super.clone();
+    Image copy = materialized;
+    if (copy != null) {
+      return copy.clone();
+    }
+    return new ImageView(source, width, height, rowOrigin, colOrigin,
+        rowStepDown, colStepDown, rowStepAcross, colStepAcross);
+  }
+
+}
@@ -5,23 +5,27 @@
 
 package ime.model;
 
-import java.util.HashMap;
 import java.util.InputMismatchException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The InMemoryRepository class serves as an in-memory image repository, storing images by their
- * associated names.
+ * associated names. Images may be stored and retrieved from several threads at once. Every image
+ * stays in memory, so every successful retrieval counts as a hit and nothing is ever spilled.
  */
 class InMemoryRepository implements ImageRepository {
 
   private final Map<String, Image> images;
+  private final LongAdder hits;
 
   /**
    * Constructs an instance of the InMemoryRepository class, initializing an empty image storage.
    */
   public InMemoryRepository() {
-    this.images = new HashMap<>();
+    this.images = new ConcurrentHashMap<>();
+    this.hits = new LongAdder();
   }
 
   // Methods for retrieving and storing images:
@@ -35,10 +39,12 @@ class InMemoryRepository implements ImageRepository {
    */
   @Override
   public Image getImage(String imageName) throws InputMismatchException {
-    if (!images.containsKey(imageName)) {
+    Image image = images.get(imageName);
+    if (image == null) {
       throw new InputMismatchException("Image with the given name not present");
     }
-    return images.get(imageName);
+    hits.increment();
+    return image;
   }
 
   /**
@@ -46,9 +52,50 @@ class InMemoryRepository implements ImageRepository {
    *
    * @param imageName The name to associate with the provided image.
    * @param image The Image object to be stored.
+   * @return The image previously stored under the name, or null if there was none.
    */
   @Override
-  public void putImage(String imageName, Image image) {
-    images.put(imageName, image);
+  public Image putImage(String imageName, Image image) {
+    return images.put(imageName, image);
+  }
+
+  /**
+   * Removes the image with the specified name from the in-memory repository.
+   *
+   * @param imageName The name of the image to remove.
+   */
+  @Override
+  public void removeImage(String imageName) {
+    images.remove(imageName);
+  }
+
+  /**
+   * Gets the number of retrievals that were served from memory.
+   *
+   * @return The number of hits.
+   */
+  @Override
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Images are never read back from outside memory, so there are no misses.
+   *
+   * @return Zero.
+   */
+  @Override
+  public long getMisses() {
+    return 0;
+  }
+
+  /**
+   * Images are never moved out of memory, so there are no spills.
+   *
+   * @return Zero.
+   */
+  @Override
+  public long getSpills() {
+    return 0;
   }
 }
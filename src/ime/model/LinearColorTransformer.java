@@ -5,13 +5,37 @@
 
 package ime.model;
 
+import java.util.Arrays;
+
 /**
  * The LinearColorTransformer class performs a linear color transformation on an input image using
- * the specified matrix.
+ * the specified matrix. Every new color component is the sum of the old components weighted by a
+ * row of the matrix, rounded to the nearest integer and clamped to the range of the image.
+ * <p>
+ * Images with 8-bit color components are transformed in fixed-point arithmetic: the product of
+ * every matrix entry with every possible component is looked up in a precomputed table, and the
+ * three products of a row are added as integers. A sum that lies so close to halfway between two
+ * integers that the table rounding could change the result is computed again in floating point,
+ * so the result is always the same as rounding the floating-point sum.
+ * </p>
+ * <p>
+ * A matrix that only keeps or clears each channel, such as the one extracting the red component,
+ * is applied without any arithmetic. Such a matrix can be composed exactly with any other matrix,
+ * which lets a chain of transformations be carried out as one.
+ * </p>
  */
-class LinearColorTransformer implements ImageProcessor {
+class LinearColorTransformer implements PointOperation {
+
+  // Number of fractional bits of the fixed-point products.
+  private static final int FRACTION_BITS = 20;
+  private static final long ONE = 1L << FRACTION_BITS;
+  private static final long HALF = ONE >> 1;
+  // Largest possible difference between the fixed-point sum of a row and the exact sum, in units
+  // of the last fractional bit. Each of the three table entries is rounded by at most one half.
+  private static final long ROUNDING_GUARD = 2;
 
   private final double[][] matrix;
+  private final RowBandExecutor executor;
 
   /**
    * Constructs an instance of the LinearColorTransformer class with the specified
@@ -20,7 +44,151 @@ class LinearColorTransformer implements ImageProcessor {
    * @param matrix The transformation matrix used for the color transformation.
    */
   public LinearColorTransformer(double[][] matrix) {
+    this(matrix, new RowBandExecutor(1));
+  }
+
+  /**
+   * Constructs an instance of the LinearColorTransformer class with the specified
+   * transformation matrix that processes the rows of the image with the given executor.
+   *
+   * @param matrix   The transformation matrix used for the color transformation.
+   * @param executor The executor used to process the bands of rows.
+   */
+  public LinearColorTransformer(double[][] matrix, RowBandExecutor executor) {
     this.matrix = matrix;
+    this.executor = executor;
+  }
+
+  /**
+   * Checks whether the result of this transformation followed by the given transformation is
+   * exactly the result of their composed matrix. This is the case when either matrix only keeps
+   * or clears channels: the other matrix then sees the very components it would have seen in an
+   * intermediate image, and adds its products in the same order.
+   *
+   * @param next The transformation to be applied on the result of this transformation.
+   * @return True if {@link #andThen} gives exactly the same result as applying both in turn.
+   */
+  public boolean composesExactlyWith(LinearColorTransformer next) {
+    return isChannelSelection(matrix) || isChannelSelection(next.matrix);
+  }
+
+  /**
+   * Composes this transformation with the given transformation into a single transformation,
+   * whose matrix is the product of the two matrices. The composition gives the same result as
+   * applying this transformation and then the given one if
+   * {@link #composesExactlyWith(LinearColorTransformer)} holds; otherwise it may differ by the
+   * rounding of the intermediate components.
+   *
+   * @param next The transformation to be applied on the result of this transformation.
+   * @return The composed transformation.
+   */
+  public LinearColorTransformer andThen(LinearColorTransformer next) {
+    double[][] composed = new double[3][3];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        composed[i][j] = next.matrix[i][0] * matrix[0][j] + next.matrix[i][1] * matrix[1][j]
+            + next.matrix[i][2] * matrix[2][j];
+      }
+    }
+    return new LinearColorTransformer(composed, executor);
+  }
+
+  // Checks whether every row of the matrix keeps the component of its own channel or clears it.
+  private static boolean isChannelSelection(double[][] matrix) {
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        double entry = matrix[i][j];
+        if (entry != 0 && (i != j || entry != 1)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public RowTransform getRowTransform(int inputMax) {
+    if (isChannelSelection(matrix)) {
+      return selection();
+    }
+    if (ChannelLut.tableSize(inputMax) == PackedRGBImage.MAX_PACKED_VALUE + 1) {
+      return fixedPoint();
+    }
+    return (red, green, blue, width, max) -> {
+      for (int j = 0; j < width; j++) {
+        int r = red[j];
+        int g = green[j];
+        int b = blue[j];
+        red[j] = evaluate(0, r, g, b, max);
+        green[j] = evaluate(1, r, g, b, max);
+        blue[j] = evaluate(2, r, g, b, max);
+      }
+    };
+  }
+
+  // Computes one new component in floating point.
+  private int evaluate(int row, int r, int g, int b, int max) {
+    return MathUtil.clamp((int) Math.round(matrix[row][0] * r + matrix[row][1] * g
+        + matrix[row][2] * b), max);
+  }
+
+  private RowTransform selection() {
+    boolean keepRed = matrix[0][0] == 1;
+    boolean keepGreen = matrix[1][1] == 1;
+    boolean keepBlue = matrix[2][2] == 1;
+    return (red, green, blue, width, max) -> {
+      select(red, keepRed, width, max);
+      select(green, keepGreen, width, max);
+      select(blue, keepBlue, width, max);
+    };
+  }
+
+  private static void select(int[] channel, boolean keep, int width, int max) {
+    if (!keep) {
+      Arrays.fill(channel, 0, width, 0);
+      return;
+    }
+    for (int j = 0; j < width; j++) {
+      channel[j] = MathUtil.clamp(channel[j], max);
+    }
+  }
+
+  private RowTransform fixedPoint() {
+    // products[3 * row + column][value] holds matrix[row][column] * value in fixed point.
+    long[][] products = new long[9][PackedRGBImage.MAX_PACKED_VALUE + 1];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        for (int value = 0; value <= PackedRGBImage.MAX_PACKED_VALUE; value++) {
+          products[3 * i + j][value] = Math.round(matrix[i][j] * value * ONE);
+        }
+      }
+    }
+    return (red, green, blue, width, max) -> {
+      for (int j = 0; j < width; j++) {
+        int r = red[j];
+        int g = green[j];
+        int b = blue[j];
+        red[j] = round(products[0][r] + products[1][g] + products[2][b], 0, r, g, b, max);
+        green[j] = round(products[3][r] + products[4][g] + products[5][b], 1, r, g, b, max);
+        blue[j] = round(products[6][r] + products[7][g] + products[8][b], 2, r, g, b, max);
+      }
+    };
+  }
+
+  // Rounds a fixed-point sum to the nearest integer, falling back to floating point when the sum
+  // is too close to halfway between two integers to be rounded reliably.
+  private int round(long sum, int row, int r, int g, int b, int max) {
+    long shifted = sum + HALF;
+    long fraction = shifted & (ONE - 1);
+    if (fraction < ROUNDING_GUARD || fraction > ONE - ROUNDING_GUARD) {
+      return evaluate(row, r, g, b, max);
+    }
+    return MathUtil.clamp((int) (shifted >> FRACTION_BITS), max);
+  }
+
+  @Override
+  public int getOutputMax(int inputMax) {
+    return inputMax;
   }
 
   /**
@@ -31,17 +199,22 @@ class LinearColorTransformer implements ImageProcessor {
    */
   @Override
   public Image process(Image inputImage) {
-    return new PixelTransformer((Pixel pixel) -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(
-          (int) Math.round(matrix[0][0] * rgbPixel.getRed() + matrix[0][1] * rgbPixel.getGreen()
-              + matrix[0][2] * rgbPixel.getBlue()),
-          (int) Math.round(matrix[1][0] * rgbPixel.getRed() + matrix[1][1] * rgbPixel.getGreen()
-              + matrix[1][2] * rgbPixel.getBlue()),
-          (int) Math.round(matrix[2][0] * rgbPixel.getRed() + matrix[2][1] * rgbPixel.getGreen()
-              + matrix[2][2] * rgbPixel.getBlue()),
-          rgbPixel.getMax()
-      );
-    }).process(inputImage);
+    return transformer(inputImage.getMax()).process(inputImage);
+  }
+
+  /**
+   * Applies the linear color transformation to the input image, writing the transformed pixels
+   * into the leftmost columns of the output image.
+   *
+   * @param inputImage  The Image object on which the color transformation is applied.
+   * @param outputImage The Image object receiving the transformed pixels.
+   */
+  @Override
+  public void processInto(Image inputImage, Image outputImage) {
+    transformer(inputImage.getMax()).processInto(inputImage, outputImage);
+  }
+
+  private PixelTransformer transformer(int inputMax) {
+    return new PixelTransformer(getRowTransform(inputMax), executor);
   }
 }
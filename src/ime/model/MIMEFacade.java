@@ -10,6 +10,8 @@
 
 package ime.model;
 
+import java.io.IOException;
+
 /**
  * The MIMEFacade interface extends the IMEFacade interface and defines additional methods
  * for image manipulation and enhancement. This interface is designed to be used within
@@ -113,6 +115,39 @@ public interface MIMEFacade extends IMEFacade {
   void blur(String inputImageName, String outputImageName, double splitPercentage)
           throws CloneNotSupportedException, IllegalArgumentException;
 
+  /**
+   * Blurs the input image by averaging every pixel with the pixels within the given radius, and
+   * saves the result as a new image. The time taken does not depend on the radius. A box blur
+   * weighs every pixel of the square around a pixel equally; otherwise the box is applied three
+   * times, which approximates a Gaussian blur reaching three times the radius.
+   *
+   * @param inputImageName  The name of the input image.
+   * @param outputImageName The name of the output image where the
+   *                        blurred image will be saved.
+   * @param radius          The radius of the box averaged around every pixel.
+   * @param gaussian        Whether the box is applied three times to approximate a Gaussian blur.
+   * @throws IllegalArgumentException If the radius is negative.
+   */
+  void blur(String inputImageName, String outputImageName, int radius, boolean gaussian)
+          throws IllegalArgumentException;
+
+  /**
+   * Blurs the input image with the given radius, as
+   * {@link #blur(String, String, int, boolean)} does, with the specified split percentage
+   * and saves the result as a new image.
+   *
+   * @param inputImageName  The name of the input image.
+   * @param outputImageName The name of the output image where the
+   *                        blurred image will be saved.
+   * @param radius          The radius of the box averaged around every pixel.
+   * @param gaussian        Whether the box is applied three times to approximate a Gaussian blur.
+   * @param splitPercentage The percentage of the image to apply the blur.
+   * @throws CloneNotSupportedException If cloning is not supported.
+   * @throws IllegalArgumentException    If the provided arguments are invalid or out of range.
+   */
+  void blur(String inputImageName, String outputImageName, int radius, boolean gaussian,
+            double splitPercentage) throws CloneNotSupportedException, IllegalArgumentException;
+
   /**
    * Applies sharpening to the input image with the specified split
    *        percentage and saves the result as a new image.
@@ -155,4 +190,26 @@ public interface MIMEFacade extends IMEFacade {
   void luma(String inputImageName, String outputImageName, double splitPercentage)
           throws CloneNotSupportedException, IllegalArgumentException;
 
+  /**
+   * Applies an operation to an image read from the given source and writes the result to the
+   * given sink, without storing either image. The image is read and processed a tile at a time,
+   * so images larger than the available memory can be processed. Only operations that compute
+   * every pixel from the pixels near it can be streamed: red-component, green-component,
+   * blue-component, value, intensity, luma, sepia, brighten, levels-adjust, blur and sharpen.
+   * The sink is not closed.
+   *
+   * @param operation  The name of the operation, as used in scripts.
+   * @param parameters The parameters of the operation: the increment for brighten, the black,
+   *                   mid and white values for levels-adjust, none for the others, and for
+   *                   blur either none or the radius followed by 1 for a single box or 0 for
+   *                   the approximation of a Gaussian blur.
+   * @param source     The source of the image to be processed.
+   * @param sink       The sink receiving the result.
+   * @throws IOException              If there is an error while reading or writing the image.
+   * @throws IllegalArgumentException If the operation cannot be streamed or its parameters are
+   *                                  invalid.
+   */
+  void stream(String operation, int[] parameters, RasterSource source, RasterSink sink)
+          throws IOException, IllegalArgumentException;
+
 }
@@ -12,11 +12,9 @@
 
 package ime.model;
 
-import java.util.function.Function;
 import java.awt.image.BufferedImage;
-import java.awt.image.WritableRaster;
-import java.util.Map;
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.function.Function;
 
 /**
  * The MIMEFacadeImpl class implements the MIMEFacade interface and extends
@@ -28,8 +26,6 @@ import java.util.HashMap;
  * @see IMEFacadeImpl
  */
 public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
-  
-  private Map<Integer, Integer>[] offsetMap;
 
   /**
    * This is a constructor for the MimeFacade implementation which calls super().
@@ -38,6 +34,17 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
     super();
   }
 
+  /**
+   * This is a constructor for the MimeFacade implementation that keeps the stored images within
+   * the given memory budget, spilling the least recently used images to temporary files.
+   *
+   * @param memoryBudget The number of bytes the images held in memory may occupy.
+   * @throws IllegalArgumentException If the budget is not positive.
+   */
+  public MIMEFacadeImpl(long memoryBudget) throws IllegalArgumentException {
+    super(memoryBudget);
+  }
+
   private void validatePercentage(double percentage) throws IllegalArgumentException {
     if (percentage < 0 || percentage > 100) {
       throw new IllegalArgumentException("Invalid percentage value");
@@ -48,6 +55,18 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
   public void adjustLevels(int black, int mid, int white, String inputImageName,
                            String outputImageName) throws IllegalArgumentException {
 
+    Image inputImage = imageRepository.getImage(inputImageName);
+    Image outputImage = cached("levels-adjust", inputImage,
+        () -> apply(levelsAdjustment(black, mid, white, inputImage.getMax()), inputImage),
+        black, mid, white);
+
+    store(outputImageName, outputImage);
+
+  }
+
+  private PointOperation levelsAdjustment(int black, int mid, int white, int max)
+      throws IllegalArgumentException {
+
     if (black < 0 || black > 255 || mid < 0 || mid > 255 || white < 0 || white > 255) {
       throw new IllegalArgumentException("Invalid values provided for black / mid / white");
     }
@@ -60,22 +79,10 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
     double a = levelAdjustCurve.getACoefficient();
     double b = levelAdjustCurve.getBCoefficient();
     double c = levelAdjustCurve.getCCoefficient();
-    Function<Integer, Double> y = x -> a * x * x + b * x + c;
-
-    Image inputImage = imageRepository.getImage(inputImageName);
-
-    Image outputImage = new PixelTransformer(pixel -> {
-      RGBPixel rgbPixel = (RGBPixel) pixel;
-      return new RGBPixel(
-          (int) Math.round(y.apply(rgbPixel.getRed())),
-          (int) Math.round(y.apply(rgbPixel.getGreen())),
-          (int) Math.round(y.apply(rgbPixel.getBlue())),
-          255
-      );
-    }).process(inputImage);
-
-    imageRepository.putImage(outputImageName, outputImage);
 
+    return ChannelLut.of(
+        x -> MathUtil.clamp((int) Math.round(a * x * x + b * x + c), 255),
+        max, max, executor);
   }
 
   @Override
@@ -85,11 +92,10 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
 
     validatePercentage(splitPercentage);
 
-    verticalSplit(inputImageName, splitPercentage);
-    adjustLevels(black, mid, white, inputImageName
-            + "-split-left", inputImageName + "split-left-levels-adjust");
-    verticalSplitReplace(inputImageName, outputImageName,
-            inputImageName + "split-left-levels-adjust");
+    int max = imageRepository.getImage(inputImageName).getMax();
+    ImageProcessor levelsAdjustment = levelsAdjustment(black, mid, white, max);
+    splitApply("levels-adjust", inputImageName, outputImageName, splitPercentage,
+        levelsAdjustment, black, mid, white);
 
   }
 
@@ -102,39 +108,63 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
     }
 
     Image inputImage = imageRepository.getImage(inputImageName);
-    ImageCompressor compressor = new HaarWaveletImageCompressor(inputImage);
-    imageRepository.putImage(outputImageName, compressor.compress(percentage));
+    Image outputImage = cached("compress", inputImage,
+        () -> new HaarWaveletImageCompressor(inputImage, executor).compress(percentage),
+        percentage);
+    store(outputImageName, outputImage);
 
   }
 
   @Override
   public int[][] histogram(String inputImageName, String outputImageName) {
 
-    HistogramGeneratorImpl histogram = new HistogramGeneratorImpl();
     Image inputImage = imageRepository.getImage(inputImageName);
-    int[][] frequencyData  = histogram.generate(inputImage);
+    int[][] frequencyData = histogramData(inputImage);
 
-    plotHistogramInMem(outputImageName, frequencyData);
+    store(outputImageName,
+        cached("histogram-plot", inputImage, () -> plotHistogram(frequencyData)));
     return frequencyData;
   }
 
+  // Returns a copy of the histogram of the image, which the caller is free to modify.
+  private int[][] histogramData(Image image) {
+    int[][] histogramData = cached("histogram", image,
+        () -> new HistogramGeneratorImpl(executor).generate(image));
+    int[][] copy = new int[histogramData.length][];
+    for (int channel = 0; channel < histogramData.length; channel++) {
+      copy[channel] = histogramData[channel].clone();
+    }
+    return copy;
+  }
+
   @Override
   public void colorCorrect(String inputImageName, String outputImageName) {
 
-    int[][] histogramData = histogram(inputImageName,
-            outputImageName + "-histogram");
+    Image inputImage = imageRepository.getImage(inputImageName);
+    Image outputImage = cached("color-correct", inputImage,
+        () -> apply(colorCorrection(histogramData(inputImage), inputImage.getMax()),
+            inputImage));
+
+    store(outputImageName, outputImage);
+  }
+
+  // Builds the color correction for an image from its histogram, which is replaced by the
+  // histogram of the corrected image.
+  private PointOperation colorCorrection(int[][] histogramData, int max) {
     int numChannels = histogramData.length;
 
     int[][] maxValue = findMaxValues(histogramData, numChannels);
     int averagePeakIndex = calculateAveragePeakIndex(histogramData, maxValue, numChannels);
 
-    offsetMap = initializeOffsetMap(numChannels);
-    applyColorCorrection(histogramData, numChannels, averagePeakIndex);
+    int[][] offsetTable = new int[numChannels][256];
+    applyColorCorrection(histogramData, numChannels, averagePeakIndex, offsetTable);
 
-    // for our verification only
-    plotHistogramInMem(outputImageName + "-histogram", histogramData);
-
-    colorCorrectedImage(inputImageName, outputImageName);
+    // Values beyond the histogram have no offset and map to 0.
+    int[][] tables = new int[3][ChannelLut.tableSize(max)];
+    for (int channel = 0; channel < 3; channel++) {
+      System.arraycopy(offsetTable[channel], 0, tables[channel], 0, 256);
+    }
+    return new ChannelLut(tables, 255, executor);
   }
 
   @Override
@@ -143,11 +173,10 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
 
     validatePercentage(splitPercentage);
 
-    verticalSplit(inputImageName, splitPercentage);
-    colorCorrect(inputImageName + "-split-left",
-            inputImageName + "split-left-color-correct");
-    verticalSplitReplace(inputImageName, outputImageName,
-            inputImageName + "split-left-color-correct");
+    // The correction is derived from the histogram of the region it is applied to.
+    splitApply("color-correct", inputImageName, outputImageName, splitPercentage,
+        left -> colorCorrection(new HistogramGeneratorImpl(executor).generate(left),
+            left.getMax()));
 
   }
 
@@ -175,17 +204,8 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
     return sumMaxIndices / numChannels;
   }
 
-  private Map<Integer, Integer>[] initializeOffsetMap(int numChannels) {
-    Map<Integer, Integer>[] offsetMap = new HashMap[numChannels];
-
-    for (int channel = 0; channel < numChannels; channel++) {
-      offsetMap[channel] = new HashMap<>();
-    }
-
-    return offsetMap;
-  }
-
-  private void applyColorCorrection(int[][] histogramData, int numChannels, int averagePeakIndex) {
+  private void applyColorCorrection(int[][] histogramData, int numChannels, int averagePeakIndex,
+                                    int[][] offsetTable) {
     for (int channel = 0; channel < numChannels; channel++) {
       int offset = averagePeakIndex - findIndexOfMaxValue(histogramData[channel]);
       int[] correctedHistogram = new int[256];
@@ -193,7 +213,7 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
       for (int i = 0; i < histogramData[channel].length; i++) {
         int newIndex = i + offset;
         if (newIndex > 0 && newIndex < 256) {
-          offsetMap[channel].put(i, newIndex);
+          offsetTable[channel][i] = newIndex;
           correctedHistogram[newIndex] = histogramData[channel][i];
         }
       }
@@ -223,43 +243,47 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
     return maxIndex;
   }
 
-  private void colorCorrectedImage(String inputImageName, String outputImageName) {
+  @Override
+  public void blur(String inputImageName, String outputImageName, double splitPercentage)
+      throws CloneNotSupportedException, IllegalArgumentException {
 
-    if (imageRepository.getImage(inputImageName) instanceof RGBImage) {
-      RGBImage image = (RGBImage) imageRepository.getImage(inputImageName);
+    validatePercentage(splitPercentage);
 
-      BufferedImage bufferedImage = new BufferedImage(image.getWidth(),
-              image.getHeight(),
-              BufferedImage.TYPE_INT_RGB);
-      WritableRaster writableRaster = bufferedImage.getRaster();
+    splitApply("blur", inputImageName, outputImageName, splitPercentage, blurProcessor());
 
-      for (int i = 0; i < image.getHeight(); i++) {
-        for (int j = 0; j < image.getWidth(); j++) {
-          RGBPixel pxIn = (RGBPixel) image.getPixel(i, j);
-          int red = offsetMap[0].getOrDefault(pxIn.getRed(), 0);
-          int green = offsetMap[1].getOrDefault(pxIn.getGreen(), 0);
-          int blue = offsetMap[2].getOrDefault(pxIn.getBlue(), 0);
-          writableRaster.setPixel(j, i, new int[]{red, green, blue});
-        }
-      }
-      Image rg = convertToRGBImage(bufferedImage);
-      imageRepository.putImage(outputImageName, rg);
-    }
+  }
+
+  @Override
+  public void blur(String inputImageName, String outputImageName, int radius, boolean gaussian)
+      throws IllegalArgumentException {
+
+    ImageProcessor boxBlur = boxBlurProcessor(radius, gaussian);
+    Image inputImage = imageRepository.getImage(inputImageName);
+    Image outputImage = cached("box-blur", inputImage, () -> boxBlur.process(inputImage),
+        radius, gaussian);
+    store(outputImageName, outputImage);
 
   }
 
   @Override
-  public void blur(String inputImageName, String outputImageName, double splitPercentage)
+  public void blur(String inputImageName, String outputImageName, int radius, boolean gaussian,
+                   double splitPercentage)
       throws CloneNotSupportedException, IllegalArgumentException {
 
     validatePercentage(splitPercentage);
 
-    verticalSplit(inputImageName, splitPercentage);
-    blur(inputImageName + "-split-left", inputImageName + "split-left-blur");
-    verticalSplitReplace(inputImageName, outputImageName, inputImageName + "split-left-blur");
+    splitApply("box-blur", inputImageName, outputImageName, splitPercentage,
+        boxBlurProcessor(radius, gaussian), radius, gaussian);
 
   }
 
+  // Creates the processor that applies a box of the given radius once, or three times to
+  // approximate a Gaussian blur.
+  private ImageProcessor boxBlurProcessor(int radius, boolean gaussian)
+      throws IllegalArgumentException {
+    return new BoxBlur(radius, gaussian ? 3 : 1, executor);
+  }
+
   @Override
   public void sharpen(String inputImageName, String outputImageName,
                       double splitPercentage)
@@ -267,11 +291,7 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
 
     validatePercentage(splitPercentage);
 
-    verticalSplit(inputImageName, splitPercentage);
-    sharpen(inputImageName + "-split-left",
-            inputImageName + "split-left-sharpen");
-    verticalSplitReplace(inputImageName, outputImageName,
-            inputImageName + "split-left-sharpen");
+    splitApply("sharpen", inputImageName, outputImageName, splitPercentage, sharpenProcessor());
 
   }
 
@@ -282,41 +302,52 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
 
     validatePercentage(splitPercentage);
 
-    verticalSplit(inputImageName, splitPercentage);
-    sepia(inputImageName + "-split-left",
-            inputImageName + "split-left-sepia");
-    verticalSplitReplace(inputImageName, outputImageName,
-            inputImageName + "split-left-sepia");
+    splitApply("sepia", inputImageName, outputImageName, splitPercentage, sepiaProcessor());
+
+  }
 
+  private void splitApply(String operation, String inputImageName, String outputImageName,
+                          double splitPercentage, ImageProcessor processor,
+                          Object... parameters) {
+    splitApply(operation, inputImageName, outputImageName, splitPercentage, left -> processor,
+        parameters);
   }
 
-  private void verticalSplit(String inputImageName, double splitPercentage)
-      throws CloneNotSupportedException {
+  // Applies the named operation to the part of the input image left of the split line, reusing
+  // the result of an identical earlier split if the cache still holds it.
+  private void splitApply(String operation, String inputImageName, String outputImageName,
+                          double splitPercentage, Function<Image, ImageProcessor> processor,
+                          Object... parameters) {
 
     Image inputImage = imageRepository.getImage(inputImageName);
-    int width = inputImage.getWidth();
-    int splitPoint = (int) Math.round((splitPercentage / 100.0) * width);
+    Object[] splitParameters = new Object[parameters.length + 1];
+    splitParameters[0] = splitPercentage;
+    System.arraycopy(parameters, 0, splitParameters, 1, parameters.length);
+    Image outputImage = cached(operation + "-split", inputImage,
+        () -> split(inputImage, splitPercentage, processor), splitParameters);
+    store(outputImageName, outputImage);
 
-    Image inputImageCopy = ((RGBImage)inputImage).clone();
+  }
 
-    Image leftPortion = inputImageCopy.getPortion(0,
-            inputImageCopy.getHeight() - 1, 0, splitPoint - 1);
-    Image rightPortion = inputImageCopy.getPortion(0,
-            inputImageCopy.getHeight() - 1, splitPoint, inputImageCopy.getWidth() - 1);
+  // Applies the processor created for the part of the input image left of the split line to
+  // that part only, and copies the rest of the input image unchanged. The left part is processed
+  // as an image of its own, straight into the output image, so neither part is copied first.
+  private static Image split(Image inputImage, double splitPercentage,
+                             Function<Image, ImageProcessor> processor) {
 
-    imageRepository.putImage(inputImageName + "-split-left", leftPortion);
-    imageRepository.putImage(inputImageName + "-split-right", rightPortion);
+    int width = inputImage.getWidth();
+    int height = inputImage.getHeight();
+    int splitPoint = (int) Math.round((splitPercentage / 100.0) * width);
 
-  }
+    Image outputImage = ImageUtil.createImage(width, height, inputImage.getMax());
+    outputImage.replacePortion(0, splitPoint,
+            inputImage.getPortion(0, height - 1, splitPoint, width - 1));
+    if (splitPoint > 0) {
+      Image leftPortion = inputImage.getPortion(0, height - 1, 0, splitPoint - 1);
+      processor.apply(leftPortion).processInto(leftPortion, outputImage);
+    }
+    return outputImage;
 
-  private void verticalSplitReplace(String inputImageName, String outputImageName,
-                                    String replaceImageName)
-      throws CloneNotSupportedException {
-    Image replaceImage = imageRepository.getImage(replaceImageName);
-    Image inputImage = imageRepository.getImage(inputImageName);
-    Image inputImageCopy = ((RGBImage)inputImage).clone();
-    inputImageCopy.replacePortion(0, 0, replaceImage);
-    imageRepository.putImage(outputImageName, inputImageCopy);
   }
 
   @Override
@@ -325,40 +356,94 @@ public class MIMEFacadeImpl extends IMEFacadeImpl implements MIMEFacade {
 
     validatePercentage(splitPercentage);
 
-    verticalSplit(inputImageName, splitPercentage);
-    luma(inputImageName + "-split-left",
-            inputImageName + "split-left-luma");
-    verticalSplitReplace(inputImageName, outputImageName,
-            inputImageName + "split-left-luma");
+    splitApply("luma", inputImageName, outputImageName, splitPercentage, lumaProcessor());
 
   }
 
-  private RGBImage convertToRGBImage(BufferedImage bufferedImage) {
+  private Image convertToImage(BufferedImage bufferedImage) {
     int width = bufferedImage.getWidth();
     int height = bufferedImage.getHeight();
     int max = 255;
 
-    RGBImage rgbImage = new RGBImage(width, height, max);
+    Image image = ImageUtil.createImage(width, height, max);
+    int[] rgb = new int[width];
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
 
     for (int i = 0; i < height; i++) {
+      bufferedImage.getRGB(0, i, width, 1, rgb, 0, width);
       for (int j = 0; j < width; j++) {
-        int rgb = bufferedImage.getRGB(j, i);
-
-        int red = (rgb >> 16) & 0xFF;
-        int green = (rgb >> 8) & 0xFF;
-        int blue = rgb & 0xFF;
-
-        RGBPixel pixel = new RGBPixel(red, green, blue, max);
-        rgbImage.setPixel(i, j, pixel);
+        red[j] = (rgb[j] >> 16) & 0xFF;
+        green[j] = (rgb[j] >> 8) & 0xFF;
+        blue[j] = rgb[j] & 0xFF;
       }
+      image.setRow(i, red, green, blue);
     }
-    return rgbImage;
+    return image;
   }
 
-  private void plotHistogramInMem(String outputImageName, int[][] histogramData) {
+  private Image plotHistogram(int[][] histogramData) {
     PlotHistogram plotHist = new PlotHistogramImpl(800, 800);
     BufferedImage bufferedImage = plotHist.plot(histogramData);
-    Image rg = convertToRGBImage(bufferedImage);
-    imageRepository.putImage(outputImageName, rg);
+    return convertToImage(bufferedImage);
+  }
+
+  @Override
+  public void stream(String operation, int[] parameters, RasterSource source, RasterSink sink)
+          throws IOException, IllegalArgumentException {
+    ImageProcessor processor = streamingProcessor(operation, parameters, source.getMax());
+    // Tiles grow to cover the halo of a wide blur, which never needs to exceed the image.
+    int reach = Math.min(processor.getReach(), Math.max(source.getWidth(), source.getHeight()));
+    int tileSize = Math.max(TileStreamer.DEFAULT_TILE_SIZE, reach);
+    new TileStreamer(tileSize).stream(source, processor, sink);
   }
-}
\ No newline at end of file
+
+  private ImageProcessor streamingProcessor(String operation, int[] parameters, int max)
+      throws IllegalArgumentException {
+    int expectedParameters = 0;
+    if (operation.equals("brighten")) {
+      expectedParameters = 1;
+    } else if (operation.equals("levels-adjust")) {
+      expectedParameters = 3;
+    } else if (operation.equals("blur") && parameters.length > 0) {
+      expectedParameters = 2;
+    }
+    if (parameters.length != expectedParameters) {
+      throw new IllegalArgumentException("Invalid number of parameters for " + operation);
+    }
+    switch (operation) {
+      case "red-component":
+        return componentProcessor(0);
+      case "green-component":
+        return componentProcessor(1);
+      case "blue-component":
+        return componentProcessor(2);
+      case "value":
+        return valueProcessor();
+      case "intensity":
+        return intensityProcessor();
+      case "luma":
+        return lumaProcessor();
+      case "sepia":
+        return sepiaProcessor();
+      case "brighten":
+        return brightenProcessor(parameters[0], max);
+      case "levels-adjust":
+        return levelsAdjustment(parameters[0], parameters[1], parameters[2], max);
+      case "blur":
+        if (parameters.length == 0) {
+          return blurProcessor();
+        }
+        if (parameters[1] != 0 && parameters[1] != 1) {
+          throw new IllegalArgumentException("Invalid blur mode : " + parameters[1]);
+        }
+        return boxBlurProcessor(parameters[0], parameters[1] == 0);
+      case "sharpen":
+        return sharpenProcessor();
+      default:
+        throw new IllegalArgumentException("Operation cannot be streamed : " + operation);
+    }
+  }
+
+}
@@ -28,4 +28,20 @@ class MathUtil {
     return nearest_power_of_two;
   }
 
+  /**
+   * Restricts the given value to the range between zero and the given maximum, both inclusive.
+   *
+   * @param value The value to be restricted.
+   * @param max   The largest value allowed.
+   * @return The value, or the nearest bound if the value lies outside the range.
+   */
+  public static int clamp(int value, int max) {
+    if (value > max) {
+      return max;
+    } else if (value < 0) {
+      return 0;
+    }
+    return value;
+  }
+
 }
@@ -0,0 +1,190 @@
+/**
+ * The OperationCache class remembers the results of recent image operations, so that repeating
+ * an operation on the same image returns the earlier result instead of computing it again.
+ */
+
+package ime.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The OperationCache class maps an operation, its parameters and the images it was applied to
+ * onto the result of the operation. Input images are compared by identity: images stored by the
+ * facade are never modified once they are stored, so an image object stands for one version of
+ * its content, and an image loaded or computed again is a new version even if its pixels happen
+ * to be the same.
+ * <p>
+ * The cache holds at most a fixed number of results. When a new result does not fit, the least
+ * recently used result is dropped, or the oldest one if the cache was created to drop results in
+ * the order they were added. A capacity of zero turns the cache off. Results may be looked up and
+ * added from several threads at once; an operation that is requested by two threads at the same
+ * time may be computed by both.
+ * </p>
+ */
+class OperationCache {
+
+  /**
+   * The key of a cached result: the name of the operation, its parameters and its input images.
+   */
+  static final class Key {
+
+    private final String operation;
+    private final Object[] parameters;
+    private final Image[] inputs;
+
+    /**
+     * Creates the key of an operation applied to the given images.
+     *
+     * @param operation  The name of the operation.
+     * @param parameters The parameters of the operation, compared by value.
+     * @param inputs     The images the operation is applied to, compared by identity.
+     */
+    Key(String operation, Object[] parameters, Image... inputs) {
+      this.operation = operation;
+      this.parameters = parameters.clone();
+      this.inputs = inputs.clone();
+    }
+
+    private boolean uses(Image image) {
+      for (Image input : inputs) {
+        if (input == image) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      if (!operation.equals(other.operation) || !Arrays.equals(parameters, other.parameters)
+          || inputs.length != other.inputs.length) {
+        return false;
+      }
+      for (int i = 0; i < inputs.length; i++) {
+        if (inputs[i] != other.inputs[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = 31 * operation.hashCode() + Arrays.hashCode(parameters);
+      for (Image input : inputs) {
+        hash = 31 * hash + System.identityHashCode(input);
+      }
+      return hash;
+    }
+  }
+
+  private final Map<Key, Object> results;
+  private int capacity;
+
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructs an empty OperationCache.
+   *
+   * @param capacity          The number of results the cache may hold.
+   * @param leastRecentlyUsed Whether the least recently used result is dropped first, rather
+   *                          than the oldest one.
+   * @throws IllegalArgumentException If the capacity is negative.
+   */
+  OperationCache(int capacity, boolean leastRecentlyUsed) throws IllegalArgumentException {
+    this.results = new LinkedHashMap<>(16, 0.75f, leastRecentlyUsed);
+    setCapacity(capacity);
+  }
+
+  /**
+   * Returns the cached result for the key, or computes, caches and returns it if it is not
+   * cached. Nothing is cached if the computation throws an exception.
+   *
+   * @param key    The operation and the images it is applied to.
+   * @param result Computes the result of the operation.
+   * @param <T>    The type of the result.
+   * @return The result of the operation.
+   */
+  @SuppressWarnings("unchecked")
+  <T> T get(Key key, Supplier<T> result) {
+    synchronized (this) {
+      Object cached = results.get(key);
+      if (cached != null) {
+        hits++;
+        return (T) cached;
+      }
+      misses++;
+    }
+    T computed = result.get();
+    synchronized (this) {
+      if (capacity > 0) {
+        results.put(key, computed);
+        trim();
+      }
+    }
+    return computed;
+  }
+
+  /**
+   * Changes the number of results the cache may hold, dropping results that no longer fit.
+   *
+   * @param capacity The number of results the cache may hold, or zero to turn the cache off.
+   * @throws IllegalArgumentException If the capacity is negative.
+   */
+  synchronized void setCapacity(int capacity) throws IllegalArgumentException {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Cache size must be a non-negative integer");
+    }
+    this.capacity = capacity;
+    trim();
+  }
+
+  /**
+   * Drops every result that was computed from the given image or that is the given image, so
+   * that the cache no longer keeps the image in memory.
+   *
+   * @param image The image to be released.
+   */
+  synchronized void release(Image image) {
+    results.entrySet().removeIf(entry -> entry.getKey().uses(image) || entry.getValue() == image);
+  }
+
+  /**
+   * Gets the number of results that were served from the cache.
+   *
+   * @return The number of hits.
+   */
+  synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of results that had to be computed.
+   *
+   * @return The number of misses.
+   */
+  synchronized long getMisses() {
+    return misses;
+  }
+
+  // Drops the least recently used or oldest results until the rest fit in the capacity.
+  private void trim() {
+    Iterator<Object> eldest = results.values().iterator();
+    while (results.size() > capacity) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+}
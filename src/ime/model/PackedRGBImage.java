@@ -0,0 +1,243 @@
+/**
+ * The PackedRGBImage class represents an image with RGB (Red, Green, Blue) pixels stored in a
+ * single packed integer array. It implements the Image interface and provides methods to access
+ * and manipulate individual pixels and whole rows without allocating a pixel object per pixel.
+ */
+
+package ime.model;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+/**
+ * The PackedRGBImage class stores every pixel of the image as one {@code 0xRRGGBB} integer in a
+ * row-major array. It supports images whose maximum color value does not exceed 255, which covers
+ * every image read through ImageIO and all 8-bit PPM images.
+ */
+class PackedRGBImage implements Image, Cloneable {
+
+  /**
+   * The largest maximum color value that can be stored in a packed image.
+   */
+  static final int MAX_PACKED_VALUE = 255;
+
+  private int[] data;
+  private final int width;
+  private final int height;
+  private final int max;
+  // Whether the pixel array is also used by a BufferedImage, so that it must be copied before
+  // it is written.
+  private volatile boolean shared;
+
+  /**
+   * Constructs a PackedRGBImage with the specified width, height, and maximum color value.
+   * All the pixels of the image are initially black.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @param max    The maximum color value.
+   * @throws IllegalArgumentException If the maximum color value cannot be packed.
+   */
+  public PackedRGBImage(int width, int height, int max) throws IllegalArgumentException {
+    if (max > MAX_PACKED_VALUE) {
+      throw new IllegalArgumentException("Packed images support a maximum value of "
+          + MAX_PACKED_VALUE);
+    }
+    this.width = width;
+    this.height = height;
+    this.max = max;
+    this.data = new int[width * height];
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getMax() {
+    return max;
+  }
+
+  @Override
+  public Pixel getPixel(int row, int col) {
+    int rgb = data[index(row, col)];
+    return new RGBPixel((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, max);
+  }
+
+  @Override
+  public void setPixel(int row, int col, Pixel pixel) {
+    RGBPixel rgbPixel = (RGBPixel) pixel;
+    setRGB(row, col, rgbPixel.getRed(), rgbPixel.getGreen(), rgbPixel.getBlue());
+  }
+
+  @Override
+  public int getRed(int row, int col) {
+    return (data[index(row, col)] >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    return (data[index(row, col)] >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    return data[index(row, col)] & 0xFF;
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    int index = index(row, col);
+    unshare();
+    data[index] = pack(red, green, blue);
+  }
+
+  @Override
+  public void getRow(int row, int[] red, int[] green, int[] blue) {
+    getRowSegment(row, 0, width, red, green, blue);
+  }
+
+  /**
+   * Copies the color components of a run of pixels in the specified row into the given arrays,
+   * starting at index 0 of each array.
+   *
+   * @param row      The row to be read.
+   * @param colStart The first column of the run.
+   * @param length   The number of pixels in the run.
+   * @param red      The array receiving the red components of the run.
+   * @param green    The array receiving the green components of the run.
+   * @param blue     The array receiving the blue components of the run.
+   * @throws IllegalArgumentException If the run lies outside the image.
+   */
+  void getRowSegment(int row, int colStart, int length, int[] red, int[] green, int[] blue)
+      throws IllegalArgumentException {
+    if (colStart < 0 || length < 0 || colStart + length > width) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+    int offset = rowOffset(row) + colStart;
+    for (int j = 0; j < length; j++) {
+      int rgb = data[offset + j];
+      red[j] = (rgb >> 16) & 0xFF;
+      green[j] = (rgb >> 8) & 0xFF;
+      blue[j] = rgb & 0xFF;
+    }
+  }
+
+  @Override
+  public void setRow(int row, int[] red, int[] green, int[] blue) {
+    setRowSegment(row, 0, width, red, green, blue);
+  }
+
+  @Override
+  public void setRowSegment(int row, int colStart, int length, int[] red, int[] green,
+                            int[] blue) throws IllegalArgumentException {
+    if (colStart < 0 || length < 0 || colStart + length > width) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+    int offset = rowOffset(row) + colStart;
+    unshare();
+    for (int j = 0; j < length; j++) {
+      data[offset + j] = pack(red[j], green[j], blue[j]);
+    }
+  }
+
+  @Override
+  public Image getPortion(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+    return ImageView.crop(this, rowStart, rowEnd, columnStart, columnEnd);
+  }
+
+  @Override
+  public void replacePortion(int rowStart, int colStart, Image newPortion) {
+    int portionWidth = newPortion.getWidth();
+    int portionHeight = newPortion.getHeight();
+    unshare();
+
+    if (newPortion instanceof PackedRGBImage) {
+      PackedRGBImage packedPortion = (PackedRGBImage) newPortion;
+      for (int i = 0; i < portionHeight; i++) {
+        System.arraycopy(packedPortion.data, i * portionWidth,
+            data, rowOffset(rowStart + i) + colStart, portionWidth);
+      }
+      return;
+    }
+
+    int[] red = new int[portionWidth];
+    int[] green = new int[portionWidth];
+    int[] blue = new int[portionWidth];
+    for (int i = 0; i < portionHeight; i++) {
+      newPortion.getRow(i, red, green, blue);
+      int offset = rowOffset(rowStart + i) + colStart;
+      for (int j = 0; j < portionWidth; j++) {
+        data[offset + j] = pack(red[j], green[j], blue[j]);
+      }
+    }
+  }
+
+  /**
+   * Creates a copy of the calling PackedRGBImage object.
+   *
+   * @return the copy of the calling PackedRGBImage object.
+   * @throws CloneNotSupportedException If cloning of the image is not supported.
+   */
+  @Override
+  public Image clone() throws CloneNotSupportedException {
+    super.clone();
+    PackedRGBImage copy = new PackedRGBImage(width, height, max);
+    System.arraycopy(data, 0, copy.data, 0, data.length);
+    return copy;
+  }
+
+  /**
+   * Creates a BufferedImage that shares the pixel array of this image instead of copying it.
+   * Writing to this image afterwards first gives this image a copy of its pixels, so the
+   * BufferedImage keeps showing the pixels it was created with. The BufferedImage must not be
+   * written to.
+   *
+   * @return A BufferedImage with the pixels of this image.
+   */
+  BufferedImage toBufferedImage() {
+    shared = true;
+    DirectColorModel colorModel = new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF);
+    WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(data, data.length),
+        width, height, width, colorModel.getMasks(), null);
+    return new BufferedImage(colorModel, raster, false, null);
+  }
+
+  // Copies the pixel array before the first write after it was shared.
+  private void unshare() {
+    if (shared) {
+      data = data.clone();
+      shared = false;
+    }
+  }
+
+  private int index(int row, int col) {
+    if (row < 0 || row >= height || col < 0 || col >= width) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+    return row * width + col;
+  }
+
+  private int rowOffset(int row) {
+    if (row < 0 || row >= height) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+    return row * width;
+  }
+
+  private static int pack(int red, int green, int blue) {
+    return (MathUtil.clamp(red, MAX_PACKED_VALUE) << 16)
+        | (MathUtil.clamp(green, MAX_PACKED_VALUE) << 8)
+        | MathUtil.clamp(blue, MAX_PACKED_VALUE);
+  }
+
+}
@@ -0,0 +1,180 @@
+/**
+ * The PixelRaster class holds the pixels of an image as primitive color values, and is used to
+ * exchange images between the facade and the image readers and writers.
+ */
+
+package ime.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * The PixelRaster class stores the width, height and maximum color value of an image together
+ * with its color values, interleaved as red, green and blue for every pixel in row-major order.
+ * It also converts to and from the text format used by the stream based load and save methods,
+ * which lists the width, height, maximum value and then every color value separated by
+ * whitespace.
+ */
+public class PixelRaster {
+
+  private final int width;
+  private final int height;
+  private final int max;
+  private final int[] samples;
+
+  /**
+   * Constructs a black PixelRaster with the specified dimensions and maximum color value.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @param max    The maximum color value.
+   * @throws IllegalArgumentException If the dimensions or the maximum value are negative.
+   */
+  public PixelRaster(int width, int height, int max) throws IllegalArgumentException {
+    this(width, height, max, new int[Math.multiplyExact(3, checkSize(width, height, max))]);
+  }
+
+  /**
+   * Constructs a PixelRaster with the specified dimensions, maximum color value and color values.
+   * The raster uses the given array without copying it.
+   *
+   * @param width   The width of the image.
+   * @param height  The height of the image.
+   * @param max     The maximum color value.
+   * @param samples The red, green and blue values of every pixel in row-major order.
+   * @throws IllegalArgumentException If the dimensions or the maximum value are negative, or if
+   *                                  the number of color values does not match the dimensions.
+   */
+  public PixelRaster(int width, int height, int max, int[] samples)
+      throws IllegalArgumentException {
+    if (samples.length != Math.multiplyExact(3, checkSize(width, height, max))) {
+      throw new IllegalArgumentException("Number of color values does not match the image size");
+    }
+    this.width = width;
+    this.height = height;
+    this.max = max;
+    this.samples = samples;
+  }
+
+  private static int checkSize(int width, int height, int max) throws IllegalArgumentException {
+    if (width < 0 || height < 0 || max < 0) {
+      throw new IllegalArgumentException("Please input a valid file");
+    }
+    return Math.multiplyExact(width, height);
+  }
+
+  /**
+   * Gets the width of the image.
+   *
+   * @return The width of the image.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets the height of the image.
+   *
+   * @return The height of the image.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Gets the maximum color value of the image.
+   *
+   * @return The maximum color value.
+   */
+  public int getMax() {
+    return max;
+  }
+
+  /**
+   * Gets the color values of the image. The red, green and blue values of the pixel at a row and
+   * column start at index {@code 3 * (row * width + column)}. Changes to the returned array
+   * change the raster.
+   *
+   * @return The interleaved color values of the image.
+   */
+  public int[] getSamples() {
+    return samples;
+  }
+
+  /**
+   * Copies a rectangular region of the raster into a new raster with the same maximum value.
+   *
+   * @param rowStart The first row of the region.
+   * @param colStart The first column of the region.
+   * @param width    The width of the region.
+   * @param height   The height of the region.
+   * @return A new raster holding the color values of the region.
+   * @throws IllegalArgumentException If the region does not lie within the raster.
+   */
+  public PixelRaster getRegion(int rowStart, int colStart, int width, int height)
+      throws IllegalArgumentException {
+    if (rowStart < 0 || colStart < 0 || width < 0 || height < 0
+        || rowStart + height > this.height || colStart + width > this.width) {
+      throw new IllegalArgumentException("Region lies outside the image");
+    }
+    PixelRaster region = new PixelRaster(width, height, max);
+    for (int i = 0; i < height; i++) {
+      System.arraycopy(samples, 3 * ((rowStart + i) * this.width + colStart), region.samples,
+          3 * i * width, 3 * width);
+    }
+    return region;
+  }
+
+  /**
+   * Reads a raster from its text format.
+   *
+   * @param imageData The stream containing the text format of the raster.
+   * @return The raster that was read.
+   * @throws NoSuchElementException If the text is not a valid raster, or a color value lies
+   *                                outside the range allowed by the maximum value.
+   */
+  public static PixelRaster read(InputStream imageData) throws NoSuchElementException {
+    Scanner sc = new Scanner(imageData);
+    int width = sc.nextInt();
+    int height = sc.nextInt();
+    int max = sc.nextInt();
+    if (width < 0 || height < 0 || max < 0) {
+      throw new NoSuchElementException("Please input a valid file");
+    }
+    PixelRaster raster = new PixelRaster(width, height, max);
+    int[] samples = raster.samples;
+    for (int i = 0; i < samples.length; i++) {
+      int value = sc.nextInt();
+      if (value < 0 || value > max) {
+        throw new NoSuchElementException("Please input a valid file");
+      }
+      samples[i] = value;
+    }
+    if (sc.hasNext()) {
+      throw new NoSuchElementException("Please input a valid file");
+    }
+    return raster;
+  }
+
+  /**
+   * Writes the text format of the raster to the given stream.
+   *
+   * @param out The stream the text format is written to.
+   * @throws IOException If the text cannot be written to the stream.
+   */
+  public void write(OutputStream out) throws IOException {
+    String lineSeparator = System.lineSeparator();
+    StringBuilder imageData = new StringBuilder();
+    imageData.append(width).append(" ").append(height).append(lineSeparator);
+    imageData.append(max).append(lineSeparator);
+    for (int value : samples) {
+      imageData.append(value).append(lineSeparator);
+    }
+    out.write(imageData.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+}
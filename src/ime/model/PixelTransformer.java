@@ -5,23 +5,47 @@
 
 package ime.model;
 
-import java.util.function.Function;
-
 /**
  * The PixelTransformer class allows the transformation of individual pixels in an image using a
- * user-defined function.
+ * user-defined function. The function is applied one row at a time to the primitive color
+ * components of the image, so no pixel objects are created during the transformation. Rows are
+ * processed in bands by a {@link RowBandExecutor}, which may run the bands concurrently.
  */
-class PixelTransformer implements ImageProcessor {
+class PixelTransformer implements PointOperation {
+
+  private final RowTransform transformer;
+  private final RowBandExecutor executor;
 
-  private final Function<Pixel, Pixel> transformer;
+  /**
+   * Constructs a PixelTransformer with the specified pixel transformation function that
+   * processes the image on the calling thread.
+   *
+   * @param transformer A function that transforms the color components of an image row in place.
+   */
+  public PixelTransformer(RowTransform transformer) {
+    this(transformer, new RowBandExecutor(1));
+  }
 
   /**
-   * Constructs a PixelTransformer with the specified pixel transformation function.
+   * Constructs a PixelTransformer with the specified pixel transformation function that
+   * processes the rows of the image with the given executor.
    *
-   * @param transformer A function that takes a Pixel as input and returns a transformed Pixel.
+   * @param transformer A function that transforms the color components of an image row in place.
+   * @param executor    The executor used to process the bands of rows.
    */
-  public PixelTransformer(Function<Pixel, Pixel> transformer) {
+  public PixelTransformer(RowTransform transformer, RowBandExecutor executor) {
     this.transformer = transformer;
+    this.executor = executor;
+  }
+
+  @Override
+  public RowTransform getRowTransform(int inputMax) {
+    return transformer;
+  }
+
+  @Override
+  public int getOutputMax(int inputMax) {
+    return inputMax;
   }
 
   /**
@@ -33,14 +57,33 @@ class PixelTransformer implements ImageProcessor {
    */
   @Override
   public Image process(Image inputImage) {
+    Image outputImage = ImageUtil.createImage(inputImage.getWidth(), inputImage.getHeight(),
+        inputImage.getMax());
+    processInto(inputImage, outputImage);
+    return outputImage;
+  }
+
+  /**
+   * Applies the pixel transformation function to each pixel in the input image, writing the
+   * transformed pixels into the leftmost columns of the output image.
+   *
+   * @param inputImage  The input image to be transformed.
+   * @param outputImage The image receiving the transformed pixels.
+   */
+  @Override
+  public void processInto(Image inputImage, Image outputImage) {
     int width = inputImage.getWidth();
     int height = inputImage.getHeight();
-    Image outputImage = new RGBImage(width, height, inputImage.getMax());
-    for (int i = 0; i < height; i++) {
-      for (int j = 0; j < width; j++) {
-        outputImage.setPixel(i, j, transformer.apply(inputImage.getPixel(i, j)));
+    int max = inputImage.getMax();
+    executor.forEachBand(height, (rowStart, rowEnd) -> {
+      int[] red = new int[width];
+      int[] green = new int[width];
+      int[] blue = new int[width];
+      for (int i = rowStart; i < rowEnd; i++) {
+        inputImage.getRow(i, red, green, blue);
+        transformer.apply(red, green, blue, width, max);
+        outputImage.setRowSegment(i, 0, width, red, green, blue);
       }
-    }
-    return outputImage;
+    });
   }
 }
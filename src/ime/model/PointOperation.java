@@ -0,0 +1,34 @@
+/**
+ * The PointOperation interface represents an image processor whose result for a pixel depends only
+ * on the color components of that pixel.
+ */
+
+package ime.model;
+
+/**
+ * The PointOperation interface defines an image processor that can also be described as a
+ * {@link RowTransform}, so that several point operations applied one after the other can be
+ * carried out together in a single pass over an image.
+ */
+interface PointOperation extends ImageProcessor {
+
+  /**
+   * Gets the transform that this operation applies to every row of an image with the given
+   * maximum color value. The transformed components are not yet restricted to the range of the
+   * image receiving them.
+   *
+   * @param inputMax The maximum color value of the image the operation is applied to.
+   * @return The transform applied to the color components of a row.
+   * @throws IllegalArgumentException If the operation cannot be applied to such an image.
+   */
+  RowTransform getRowTransform(int inputMax) throws IllegalArgumentException;
+
+  /**
+   * Gets the maximum color value of the image produced by this operation.
+   *
+   * @param inputMax The maximum color value of the image the operation is applied to.
+   * @return The maximum color value of the result.
+   */
+  int getOutputMax(int inputMax);
+
+}
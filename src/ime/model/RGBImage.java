@@ -64,17 +64,54 @@ class RGBImage implements Image, Cloneable {
   }
 
   @Override
-  public Image getPortion(int rowStart, int rowEnd, int columnStart, int columnEnd) {
-    Image portion = new RGBImage(columnEnd - columnStart + 1,
-            rowEnd - rowStart + 1, max);
-    for (int i = rowStart; i <= rowEnd; i++) {
-      for (int j = columnStart; j <= columnEnd; j++) {
-        RGBPixel pixel = (RGBPixel) pixels[i][j];
-        portion.setPixel(i - rowStart, j - columnStart,
-                new RGBPixel(pixel.getRed(), pixel.getGreen(), pixel.getBlue(), pixel.getMax()));
-      }
+  public int getRed(int row, int col) {
+    return ((RGBPixel) getPixel(row, col)).getRed();
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    return ((RGBPixel) getPixel(row, col)).getGreen();
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    return ((RGBPixel) getPixel(row, col)).getBlue();
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    setPixel(row, col, new RGBPixel(red, green, blue, max));
+  }
+
+  @Override
+  public void getRow(int row, int[] red, int[] green, int[] blue) {
+    for (int j = 0; j < width; j++) {
+      RGBPixel pixel = (RGBPixel) getPixel(row, j);
+      red[j] = pixel.getRed();
+      green[j] = pixel.getGreen();
+      blue[j] = pixel.getBlue();
+    }
+  }
+
+  @Override
+  public void setRow(int row, int[] red, int[] green, int[] blue) {
+    setRowSegment(row, 0, width, red, green, blue);
+  }
+
+  @Override
+  public void setRowSegment(int row, int colStart, int length, int[] red, int[] green,
+                            int[] blue) throws IllegalArgumentException {
+    if (colStart < 0 || length < 0 || colStart + length > width) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
     }
-    return portion;
+    for (int j = 0; j < length; j++) {
+      setPixel(row, colStart + j, new RGBPixel(red[j], green[j], blue[j], max));
+    }
+  }
+
+  @Override
+  public Image getPortion(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+    return ImageView.crop(this, rowStart, rowEnd, columnStart, columnEnd);
   }
 
   @Override
@@ -0,0 +1,34 @@
+/**
+ * The RasterSink interface represents an image file that is written a band of rows at a time, so
+ * that images larger than the memory of the application can be saved.
+ */
+
+package ime.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The RasterSink interface specifies methods for starting an image of known dimensions and then
+ * writing its rows from top to bottom. Closing the sink completes the file.
+ */
+public interface RasterSink extends Closeable {
+
+  /**
+   * Starts the image, before any of its rows are written.
+   *
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @param max    The maximum color value of the image.
+   * @throws IOException If there is an error while writing to the file.
+   */
+  void start(int width, int height, int max) throws IOException;
+
+  /**
+   * Writes the next band of rows of the image. The raster is as wide as the image.
+   *
+   * @param rows The raster containing the pixels of the rows.
+   * @throws IOException If there is an error while writing to the file.
+   */
+  void writeRows(PixelRaster rows) throws IOException;
+}
@@ -0,0 +1,51 @@
+/**
+ * The RasterSource interface represents an image on disk whose pixels are read a region at a time,
+ * so that images larger than the memory of the application can be processed.
+ */
+
+package ime.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The RasterSource interface specifies methods for reading the dimensions, the maximum color
+ * value and rectangular regions of an image without reading the whole image into memory. Closing
+ * the source releases the file it reads.
+ */
+public interface RasterSource extends Closeable {
+
+  /**
+   * Gets the width of the image.
+   *
+   * @return The width of the image in pixels.
+   */
+  int getWidth();
+
+  /**
+   * Gets the height of the image.
+   *
+   * @return The height of the image in pixels.
+   */
+  int getHeight();
+
+  /**
+   * Gets the maximum value for the color components of the image.
+   *
+   * @return The maximum color value.
+   */
+  int getMax();
+
+  /**
+   * Reads the pixels of a rectangular region of the image.
+   *
+   * @param rowStart The first row of the region.
+   * @param colStart The first column of the region.
+   * @param width    The width of the region.
+   * @param height   The height of the region.
+   * @return A raster containing the pixels of the region, with the maximum color value of the
+   *         image.
+   * @throws IOException If there is an error while reading the region from the file.
+   */
+  PixelRaster readRegion(int rowStart, int colStart, int width, int height) throws IOException;
+}
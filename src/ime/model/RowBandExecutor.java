@@ -0,0 +1,142 @@
+/**
+ * The RowBandExecutor class runs work that is independent for every row of an image, either on
+ * the calling thread or split into bands of rows over a fork/join pool.
+ */
+
+package ime.model;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The RowBandExecutor class splits the rows of an image into contiguous bands and processes the
+ * bands on a {@link ForkJoinPool} of the configured parallelism. A parallelism of one runs every
+ * band on the calling thread. Since every row is written by exactly one band, the result does
+ * not depend on the parallelism.
+ * <p>
+ * Interrupting the thread that called {@link #forEachBand} cancels the remaining bands, which
+ * lets a long operation be abandoned before it stores its result.
+ * </p>
+ */
+class RowBandExecutor {
+
+  /**
+   * The BandTask interface represents work performed on a contiguous band of rows.
+   */
+  @FunctionalInterface
+  interface BandTask {
+
+    /**
+     * Processes the rows in the given range.
+     *
+     * @param rowStart The first row of the band, inclusive.
+     * @param rowEnd   The last row of the band, exclusive.
+     */
+    void run(int rowStart, int rowEnd);
+
+  }
+
+  // Number of bands created per worker, so that uneven bands still keep every worker busy.
+  private static final int BANDS_PER_WORKER = 4;
+
+  // Number of rows processed on the calling thread between checks for cancellation.
+  private static final int SEQUENTIAL_BAND = 64;
+
+  private final int parallelism;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a RowBandExecutor with the specified parallelism.
+   *
+   * @param parallelism The number of worker threads used to process the bands.
+   * @throws IllegalArgumentException If the parallelism is not a positive integer.
+   */
+  public RowBandExecutor(int parallelism) throws IllegalArgumentException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be a positive integer");
+    }
+    this.parallelism = parallelism;
+    this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Gets the number of worker threads used to process the bands.
+   *
+   * @return The parallelism of the executor.
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Processes all the rows from zero up to the given height, waiting for every band to finish.
+   *
+   * @param height The number of rows to be processed.
+   * @param task   The work to be performed on each band of rows.
+   * @throws CancellationException If the calling thread is interrupted before every band has
+   *                               been processed.
+   */
+  public void forEachBand(int height, BandTask task) throws CancellationException {
+    Thread caller = Thread.currentThread();
+    if (pool == null || height < 2) {
+      int rowStart = 0;
+      do {
+        checkCancelled(caller);
+        int rowEnd = Math.min(height, rowStart + SEQUENTIAL_BAND);
+        task.run(rowStart, rowEnd);
+        rowStart = rowEnd;
+      } while (rowStart < height);
+      return;
+    }
+    int grain = Math.max(1, height / (parallelism * BANDS_PER_WORKER));
+    pool.invoke(new Band(task, 0, height, grain, caller));
+  }
+
+  private static void checkCancelled(Thread caller) throws CancellationException {
+    if (caller.isInterrupted()) {
+      throw new CancellationException("Operation was cancelled");
+    }
+  }
+
+  /**
+   * Releases the worker threads of the executor. The executor must not be used afterwards.
+   */
+  public void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  private static class Band extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BandTask task;
+    private final int rowStart;
+    private final int rowEnd;
+    private final int grain;
+    private final Thread caller;
+
+    Band(BandTask task, int rowStart, int rowEnd, int grain, Thread caller) {
+      this.task = task;
+      this.rowStart = rowStart;
+      this.rowEnd = rowEnd;
+      this.grain = grain;
+      this.caller = caller;
+    }
+
+    @Override
+    protected void compute() {
+      if (rowEnd - rowStart <= grain) {
+        checkCancelled(caller);
+        task.run(rowStart, rowEnd);
+        return;
+      }
+      int mid = (rowStart + rowEnd) >>> 1;
+      invokeAll(new Band(task, rowStart, mid, grain, caller),
+          new Band(task, mid, rowEnd, grain, caller));
+    }
+  }
+
+}
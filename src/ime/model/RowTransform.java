@@ -0,0 +1,27 @@
+/**
+ * The RowTransform interface represents a per-pixel color operation that is applied in bulk to
+ * the color components of one row of an image.
+ */
+
+package ime.model;
+
+/**
+ * The RowTransform interface defines a per-pixel color operation over the color components of an
+ * image row. Implementations transform the components in place and must not depend on any pixel
+ * other than the one being transformed.
+ */
+@FunctionalInterface
+interface RowTransform {
+
+  /**
+   * Transforms the color components of the pixels of one row in place.
+   *
+   * @param red   The red components of the row.
+   * @param green The green components of the row.
+   * @param blue  The blue components of the row.
+   * @param width The number of pixels in the row.
+   * @param max   The maximum color value of the image the row belongs to.
+   */
+  void apply(int[] red, int[] green, int[] blue, int width, int max);
+
+}
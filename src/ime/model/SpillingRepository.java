@@ -0,0 +1,277 @@
+/**
+ * The SpillingRepository class implements the ImageRepository interface, keeping the most recently
+ * used images in memory and moving the others to temporary files on disk.
+ */
+
+package ime.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.InputMismatchException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The SpillingRepository class stores images by their associated names within a memory budget.
+ * When the estimated size of the images held in memory exceeds the budget, the least recently
+ * used images are written to temporary files and released. A spilled image is read back into
+ * memory the next time it is retrieved. The repository counts the retrievals served from memory
+ * (hits), the retrievals that had to read an image back from disk (misses) and the images
+ * written to disk (spills).
+ * <p>
+ * Spilled images are stored as their width, height and maximum color value followed by the red,
+ * green and blue value of every pixel, each using as few bytes as the maximum value allows.
+ * </p>
+ */
+class SpillingRepository implements ImageRepository {
+
+  private final Map<String, Image> resident;
+  private final Map<String, Path> spilled;
+  private final long memoryBudget;
+  private long residentBytes;
+  private Path spillDirectory;
+
+  private long hits;
+  private long misses;
+  private long spills;
+
+  /**
+   * Constructs an empty SpillingRepository that keeps images in memory up to the given budget.
+   * The most recently stored or retrieved image is always kept in memory, even if it alone
+   * exceeds the budget.
+   *
+   * @param memoryBudget The number of bytes the images held in memory may occupy.
+   * @throws IllegalArgumentException If the budget is not positive.
+   */
+  public SpillingRepository(long memoryBudget) throws IllegalArgumentException {
+    if (memoryBudget <= 0) {
+      throw new IllegalArgumentException("Memory budget must be positive");
+    }
+    this.resident = new LinkedHashMap<>(16, 0.75f, true);
+    this.spilled = new HashMap<>();
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Retrieves an image with the specified name, reading it back from disk if it was spilled.
+   *
+   * @param imageName The name of the image to retrieve.
+   * @return The Image object associated with the provided image name.
+   * @throws InputMismatchException If the image is not found in the repository, or if a spilled
+   *                                image cannot be read back.
+   */
+  @Override
+  public synchronized Image getImage(String imageName) throws InputMismatchException {
+    Image image = resident.get(imageName);
+    if (image != null) {
+      hits++;
+      return image;
+    }
+    Path file = spilled.get(imageName);
+    if (file == null) {
+      throw new InputMismatchException("Image with the given name not present");
+    }
+    misses++;
+    try {
+      image = readSpill(file);
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      throw new InputMismatchException("Image with the given name could not be read back");
+    }
+    spilled.remove(imageName);
+    keep(imageName, image);
+    return image;
+  }
+
+  /**
+   * Stores an image with the specified name, spilling the least recently used images to disk
+   * if the images in memory no longer fit in the budget.
+   *
+   * @param imageName The name to associate with the provided image.
+   * @param image     The Image object to be stored.
+   * @return The image previously held in memory under the name, or null if there was none or it
+   *         had been spilled.
+   */
+  @Override
+  public synchronized Image putImage(String imageName, Image image) {
+    Image previous = resident.get(imageName);
+    removeImage(imageName);
+    keep(imageName, image);
+    return previous;
+  }
+
+  /**
+   * Removes the image with the specified name, deleting its temporary file if it was spilled.
+   *
+   * @param imageName The name of the image to remove.
+   */
+  @Override
+  public synchronized void removeImage(String imageName) {
+    Image previous = resident.remove(imageName);
+    if (previous != null) {
+      residentBytes -= estimateBytes(previous);
+    }
+    Path file = spilled.remove(imageName);
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        // The stale spill file is left for the temporary directory to clean up.
+      }
+    }
+  }
+
+  /**
+   * Gets the number of retrievals that were served from memory.
+   *
+   * @return The number of hits.
+   */
+  @Override
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Gets the number of retrievals that had to read a spilled image back from disk.
+   *
+   * @return The number of misses.
+   */
+  @Override
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Gets the number of images that were written to disk to stay within the memory budget.
+   *
+   * @return The number of spills.
+   */
+  @Override
+  public synchronized long getSpills() {
+    return spills;
+  }
+
+  /**
+   * Estimates the number of bytes an image occupies in memory. Packed images use one integer per
+   * pixel, while other images hold a pixel object per pixel.
+   *
+   * @param image The image whose size is estimated.
+   * @return The estimated size of the image in bytes.
+   */
+  static long estimateBytes(Image image) {
+    long pixels = (long) image.getWidth() * image.getHeight();
+    return image.getMax() <= PackedRGBImage.MAX_PACKED_VALUE ? 4 * pixels : 40 * pixels;
+  }
+
+  // Keeps the image in memory as the most recently used one, then spills the least recently
+  // used images until the others fit in the budget.
+  private void keep(String imageName, Image image) {
+    resident.put(imageName, image);
+    residentBytes += estimateBytes(image);
+    Iterator<Map.Entry<String, Image>> eldest = resident.entrySet().iterator();
+    while (residentBytes > memoryBudget && resident.size() > 1) {
+      Map.Entry<String, Image> entry = eldest.next();
+      try {
+        spilled.put(entry.getKey(), writeSpill(entry.getValue()));
+      } catch (IOException e) {
+        // Keep the remaining images in memory rather than lose them.
+        return;
+      }
+      spills++;
+      residentBytes -= estimateBytes(entry.getValue());
+      eldest.remove();
+    }
+  }
+
+  private Path writeSpill(Image image) throws IOException {
+    if (spillDirectory == null) {
+      spillDirectory = Files.createTempDirectory("ime-spill");
+      spillDirectory.toFile().deleteOnExit();
+    }
+    Path file = Files.createTempFile(spillDirectory, "image", ".spill");
+    file.toFile().deleteOnExit();
+
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int max = image.getMax();
+    int valueBytes = valueBytes(max);
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(width);
+      out.writeInt(height);
+      out.writeInt(max);
+      int[] red = new int[width];
+      int[] green = new int[width];
+      int[] blue = new int[width];
+      for (int i = 0; i < height; i++) {
+        image.getRow(i, red, green, blue);
+        for (int j = 0; j < width; j++) {
+          writeValue(out, red[j], valueBytes);
+          writeValue(out, green[j], valueBytes);
+          writeValue(out, blue[j], valueBytes);
+        }
+      }
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    return file;
+  }
+
+  private static Image readSpill(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      int width = in.readInt();
+      int height = in.readInt();
+      int max = in.readInt();
+      int valueBytes = valueBytes(max);
+      Image image = ImageUtil.createImage(width, height, max);
+      int[] red = new int[width];
+      int[] green = new int[width];
+      int[] blue = new int[width];
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          red[j] = readValue(in, valueBytes);
+          green[j] = readValue(in, valueBytes);
+          blue[j] = readValue(in, valueBytes);
+        }
+        image.setRow(i, red, green, blue);
+      }
+      return image;
+    }
+  }
+
+  private static int valueBytes(int max) {
+    if (max <= 0xFF) {
+      return 1;
+    }
+    return max <= 0xFFFF ? 2 : 4;
+  }
+
+  private static void writeValue(DataOutputStream out, int value, int valueBytes)
+      throws IOException {
+    if (valueBytes == 1) {
+      out.writeByte(value);
+    } else if (valueBytes == 2) {
+      out.writeShort(value);
+    } else {
+      out.writeInt(value);
+    }
+  }
+
+  private static int readValue(DataInputStream in, int valueBytes) throws IOException {
+    if (valueBytes == 1) {
+      return in.readUnsignedByte();
+    } else if (valueBytes == 2) {
+      return in.readUnsignedShort();
+    }
+    return in.readInt();
+  }
+}
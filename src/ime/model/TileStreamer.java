@@ -0,0 +1,130 @@
+/**
+ * The TileStreamer class applies an image processor to an image read from a file tile by tile,
+ * writing the result to another file as it is computed.
+ */
+
+package ime.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The TileStreamer class processes an image that may not fit in memory. The image is read as a
+ * {@link TiledImage} and processed in square tiles, from left to right and top to bottom. Every
+ * tile is cut from the image together with a halo of the pixels around it that the processor
+ * reads, as given by {@link ImageProcessor#getReach()}, and only the pixels of the tile itself
+ * are kept from the result. The halo is clipped where the image ends, so a processor that treats
+ * pixels outside the image as black, such as a {@link Filter}, computes exactly the pixels it
+ * computes on the whole image. Once a band of tiles spanning the width of the image is complete,
+ * its rows are written to the sink and released.
+ * <p>
+ * At most three bands of the input image and one band of the result are held in memory at a
+ * time, so the memory used depends on the width of the image and the tile size, not on its
+ * height.
+ * </p>
+ */
+class TileStreamer {
+
+  /**
+   * The side of the tiles processed by a streamer unless a different size is given.
+   */
+  static final int DEFAULT_TILE_SIZE = 128;
+
+  private final int tileSize;
+
+  /**
+   * Constructs a TileStreamer that processes tiles of the default size.
+   */
+  public TileStreamer() {
+    this(DEFAULT_TILE_SIZE);
+  }
+
+  /**
+   * Constructs a TileStreamer that processes tiles of the given size.
+   *
+   * @param tileSize The side of the tiles.
+   * @throws IllegalArgumentException If the tile size is not positive.
+   */
+  public TileStreamer(int tileSize) throws IllegalArgumentException {
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("Tile size must be positive");
+    }
+    this.tileSize = tileSize;
+  }
+
+  /**
+   * Applies the processor to the image read from the source and writes the result to the sink.
+   * The sink is not closed.
+   *
+   * @param source    The source of the image to be processed.
+   * @param processor The processor to be applied.
+   * @param sink      The sink receiving the result.
+   * @throws IOException              If there is an error while reading or writing the image.
+   * @throws IllegalArgumentException If the processor reads pixels farther away than a tile.
+   */
+  public void stream(RasterSource source, ImageProcessor processor, RasterSink sink)
+      throws IOException, IllegalArgumentException {
+    // A halo wider than the image holds no more pixels than the whole image.
+    int reach = Math.min(processor.getReach(),
+        Math.max(source.getWidth(), source.getHeight()));
+    if (reach > tileSize) {
+      throw new IllegalArgumentException("Operation reads too far around each pixel");
+    }
+    // The band being processed and the bands above and below it, which hold its halo.
+    TiledImage image = new TiledImage(source, tileSize, 3);
+    try {
+      stream(image, processor, reach, sink);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void stream(TiledImage image, ImageProcessor processor, int reach, RasterSink sink)
+      throws IOException {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    boolean started = false;
+    if (height == 0 || width == 0) {
+      sink.start(width, height, image.getMax());
+      return;
+    }
+    // A tile together with its halo is at most this wide.
+    int[] red = new int[tileSize + 2 * reach];
+    int[] green = new int[tileSize + 2 * reach];
+    int[] blue = new int[tileSize + 2 * reach];
+    for (int rowStart = 0; rowStart < height; rowStart += tileSize) {
+      int rowEnd = Math.min(height, rowStart + tileSize);
+      int haloTop = Math.max(0, rowStart - reach);
+      int haloBottom = Math.min(height, rowEnd + reach);
+      PixelRaster band = null;
+      for (int colStart = 0; colStart < width; colStart += tileSize) {
+        int colEnd = Math.min(width, colStart + tileSize);
+        int haloLeft = Math.max(0, colStart - reach);
+        int haloRight = Math.min(width, colEnd + reach);
+        Image result = processor.process(
+            image.getPortion(haloTop, haloBottom - 1, haloLeft, haloRight - 1));
+        if (!started) {
+          sink.start(width, height, result.getMax());
+          started = true;
+        }
+        if (band == null) {
+          band = new PixelRaster(width, rowEnd - rowStart, result.getMax());
+        }
+        int[] samples = band.getSamples();
+        int tileWidth = colEnd - colStart;
+        for (int i = rowStart; i < rowEnd; i++) {
+          result.getRow(i - haloTop, red, green, blue);
+          int offset = colStart - haloLeft;
+          for (int j = 0, k = 3 * ((i - rowStart) * width + colStart); j < tileWidth;
+               j++, k += 3) {
+            samples[k] = red[offset + j];
+            samples[k + 1] = green[offset + j];
+            samples[k + 2] = blue[offset + j];
+          }
+        }
+      }
+      sink.writeRows(band);
+    }
+  }
+
+}
@@ -0,0 +1,216 @@
+/**
+ * The TiledImage class represents an image whose pixels stay in a file and are read into memory a
+ * tile at a time when they are needed.
+ */
+
+package ime.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The TiledImage class implements a read-only image over a {@link RasterSource}. The image is
+ * divided into tiles of a fixed number of rows spanning its whole width, which suits files that
+ * are decoded from top to bottom. A tile is read from the source the first time one of its pixels
+ * is needed, and only the most recently used tiles are kept in memory, so the memory used by the
+ * image does not depend on its height.
+ * <p>
+ * An error while reading a tile is thrown as an {@link UncheckedIOException}, since the methods of
+ * an image cannot throw checked exceptions. The image cannot be modified.
+ * </p>
+ */
+class TiledImage implements Image {
+
+  private final RasterSource source;
+  private final int tileHeight;
+  private final Map<Integer, Image> tiles;
+  private final int width;
+  private final int height;
+  private final int max;
+
+  /**
+   * Constructs a TiledImage that reads the pixels of the given source in tiles of the given
+   * height, keeping at most the given number of tiles in memory.
+   *
+   * @param source      The source of the pixels.
+   * @param tileHeight  The number of rows of every tile but the last one.
+   * @param cachedTiles The number of tiles kept in memory.
+   * @throws IllegalArgumentException If the tile height or the number of tiles is not positive.
+   */
+  public TiledImage(RasterSource source, int tileHeight, int cachedTiles)
+      throws IllegalArgumentException {
+    if (tileHeight <= 0 || cachedTiles <= 0) {
+      throw new IllegalArgumentException("Tile height and number of tiles must be positive");
+    }
+    this.source = source;
+    this.tileHeight = tileHeight;
+    this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Image> eldest) {
+        return size() > cachedTiles;
+      }
+    };
+    this.width = source.getWidth();
+    this.height = source.getHeight();
+    this.max = source.getMax();
+  }
+
+  // Returns the tile holding the given row, reading it from the source if it is not in memory.
+  private synchronized Image tile(int row) {
+    if (row < 0 || row >= height) {
+      throw new IllegalArgumentException("Row out of bounds");
+    }
+    int index = row / tileHeight;
+    Image tile = tiles.get(index);
+    if (tile == null) {
+      tile = readTile(index);
+      tiles.put(index, tile);
+    }
+    return tile;
+  }
+
+  private Image readTile(int index) {
+    int rowStart = index * tileHeight;
+    int rows = Math.min(tileHeight, height - rowStart);
+    PixelRaster raster;
+    try {
+      raster = source.readRegion(rowStart, 0, width, rows);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    int[] samples = raster.getSamples();
+    Image tile = ImageUtil.createImage(width, rows, max);
+    int[] red = new int[width];
+    int[] green = new int[width];
+    int[] blue = new int[width];
+    for (int i = 0, k = 0; i < rows; i++) {
+      for (int j = 0; j < width; j++, k += 3) {
+        red[j] = samples[k];
+        green[j] = samples[k + 1];
+        blue[j] = samples[k + 2];
+        if (red[j] < 0 || red[j] > max || green[j] < 0 || green[j] > max
+            || blue[j] < 0 || blue[j] > max) {
+          throw new UncheckedIOException(new IOException("Please input a valid file"));
+        }
+      }
+      tile.setRow(i, red, green, blue);
+    }
+    return tile;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public int getMax() {
+    return max;
+  }
+
+  @Override
+  public Pixel getPixel(int row, int col) {
+    return tile(row).getPixel(row % tileHeight, col);
+  }
+
+  @Override
+  public void setPixel(int row, int col, Pixel pixel) {
+    throw new UnsupportedOperationException("Tiled images cannot be modified");
+  }
+
+  @Override
+  public int getRed(int row, int col) {
+    return tile(row).getRed(row % tileHeight, col);
+  }
+
+  @Override
+  public int getGreen(int row, int col) {
+    return tile(row).getGreen(row % tileHeight, col);
+  }
+
+  @Override
+  public int getBlue(int row, int col) {
+    return tile(row).getBlue(row % tileHeight, col);
+  }
+
+  @Override
+  public void setRGB(int row, int col, int red, int green, int blue) {
+    throw new UnsupportedOperationException("Tiled images cannot be modified");
+  }
+
+  @Override
+  public void getRow(int row, int[] red, int[] green, int[] blue) {
+    tile(row).getRow(row % tileHeight, red, green, blue);
+  }
+
+  @Override
+  public void setRow(int row, int[] red, int[] green, int[] blue) {
+    throw new UnsupportedOperationException("Tiled images cannot be modified");
+  }
+
+  @Override
+  public void setRowSegment(int row, int colStart, int length, int[] red, int[] green,
+                            int[] blue) {
+    throw new UnsupportedOperationException("Tiled images cannot be modified");
+  }
+
+  /**
+   * Copies a portion of the image into memory, reading the tiles it covers.
+   *
+   * @param rowStart    The starting row of the portion.
+   * @param rowEnd      The last row of the portion.
+   * @param columnStart The starting column of the portion.
+   * @param columnEnd   The last column of the portion.
+   * @return A new image in memory holding the pixels of the portion.
+   */
+  @Override
+  public Image getPortion(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+    if (rowStart < 0 || columnStart < 0 || rowEnd >= height || columnEnd >= width
+        || rowEnd < rowStart - 1 || columnEnd < columnStart - 1) {
+      throw new IllegalArgumentException("Please input valid pixel indices");
+    }
+    int portionWidth = columnEnd - columnStart + 1;
+    Image portion = ImageUtil.createImage(portionWidth, rowEnd - rowStart + 1, max);
+    int[] red = new int[portionWidth];
+    int[] green = new int[portionWidth];
+    int[] blue = new int[portionWidth];
+    int row = rowStart;
+    while (row <= rowEnd) {
+      // Copy the rows of the portion that lie in the same tile from a view of that tile.
+      int tileStart = row - row % tileHeight;
+      int tileRows = Math.min(rowEnd + 1, tileStart + tileHeight) - row;
+      Image segment = tile(row).getPortion(row - tileStart, row - tileStart + tileRows - 1,
+          columnStart, columnEnd);
+      for (int i = 0; i < tileRows; i++) {
+        segment.getRow(i, red, green, blue);
+        portion.setRow(row - rowStart + i, red, green, blue);
+      }
+      row += tileRows;
+    }
+    return portion;
+  }
+
+  @Override
+  public void replacePortion(int rowStart, int colStart, Image newPortion) {
+    throw new UnsupportedOperationException("Tiled images cannot be modified");
+  }
+
+  /**
+   * Tiled images are not copied, since a copy would have to hold the whole image in memory.
+   *
+   * @return Never returns normally.
+   * @throws CloneNotSupportedException Always.
+   */
+  @Override
+  public Image clone() throws CloneNotSupportedException {
+    throw new CloneNotSupportedException("Tiled images cannot be copied");
+  }
+
+}
@@ -1,5 +1,7 @@
 package ime.model;
 
+import java.awt.image.BufferedImage;
+
 /**
  * ViewModel represents the view model responsible for providing image data
  * through the IViewModel interface. It is constructed with an IMEFacade adapter
@@ -23,4 +25,9 @@ public class ViewModel implements IViewModel {
     return adapter.getRawImageData(imageName);
   }
 
+  @Override
+  public BufferedImage getDisplayImage(String imageName) {
+    return adapter.getDisplayImage(imageName);
+  }
+
 }
@@ -31,4 +31,17 @@ public interface IView {
    */
   void displayErrorMessage(Exception ex, String message);
 
+  /**
+   * Shows or hides the indication that operations are running.
+   *
+   * @param running Whether operations are running.
+   */
+  void showProgress(boolean running);
+
+  /**
+   * Confirms that the current image has been saved.
+   * @param filepath The path the image was saved to.
+   */
+  void showSaved(String filepath);
+
 }
@@ -30,6 +30,7 @@ import javax.swing.ImageIcon;
 import javax.swing.JOptionPane;
 import javax.swing.BorderFactory;
 import javax.swing.JFileChooser;
+import javax.swing.JProgressBar;
 
 import javax.swing.border.LineBorder;
 import javax.swing.border.TitledBorder;
@@ -38,7 +39,6 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.InputMismatchException;
 
 import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
@@ -72,6 +72,8 @@ public class View extends JFrame implements IView {
   private JMenuItem saveMenuItem;
   private  JMenuItem useMeMenuItem;
   private JPanel legendPanel;
+  private JProgressBar progressBar;
+  private JButton cancelButton;
 
   /**
    * Constructs a new View with the specified IViewModel model.
@@ -100,6 +102,9 @@ public class View extends JFrame implements IView {
     JPanel actions = createActionsPanel();
     mainPanel.add(actions);
 
+    JPanel progress = createProgressPanel();
+    mainPanel.add(progress);
+
   }
 
   @Override
@@ -124,15 +129,14 @@ public class View extends JFrame implements IView {
 
     goButton.addActionListener(e -> filters(controller));
     splitCheckBox.addActionListener(e -> splitViewDisabled(e, controller));
+    cancelButton.addActionListener(e -> controller.cancel());
 
   }
 
   @Override
   public void refresh(String currentImageName, String histogramImageName) {
-    int[][][] currentImageData = model.getImage(currentImageName);
-    displayCurrentImage(currentImageData);
-    int[][][] histogramImageData = model.getImage(histogramImageName);
-    displayHistogramImage(histogramImageData);
+    displayCurrentImage(model.getDisplayImage(currentImageName));
+    displayHistogramImage(model.getDisplayImage(histogramImageName));
   }
 
 
@@ -193,6 +197,21 @@ public class View extends JFrame implements IView {
     return actionPanel;
   }
 
+  private JPanel createProgressPanel() {
+    JPanel progressPanel = new JPanel();
+    progressPanel.setLayout(new FlowLayout(FlowLayout.RIGHT, 5, 5));
+
+    // Shown while an operation is running in the background
+    progressBar = new JProgressBar();
+    progressBar.setVisible(false);
+    cancelButton = new JButton("Cancel");
+    cancelButton.setEnabled(false);
+
+    progressPanel.add(progressBar);
+    progressPanel.add(cancelButton);
+    return progressPanel;
+  }
+
   private void setImageSaved(boolean state) {
     isImageSaved = state;
   }
@@ -343,10 +362,13 @@ public class View extends JFrame implements IView {
         "JPEG files (*.jpeg, *.jpg)", "jpeg", "jpg");
     FileNameExtensionFilter ppmFilter = new FileNameExtensionFilter(
         "PPM files", "ppm");
+    FileNameExtensionFilter pnmFilter = new FileNameExtensionFilter(
+        "Binary PPM files (*.pnm)", "pnm");
 
     fileChooser.addChoosableFileFilter(pngFilter);
     fileChooser.addChoosableFileFilter(jpegFilter);
     fileChooser.addChoosableFileFilter(ppmFilter);
+    fileChooser.addChoosableFileFilter(pnmFilter);
 
     // Set default filter to PNG
     fileChooser.setFileFilter(pngFilter);
@@ -413,15 +435,13 @@ public class View extends JFrame implements IView {
 
   }
 
-  private void displayCurrentImage(int[][][] currentImageData) {
-    BufferedImage currentImage = getDisplayImage(currentImageData);
+  private void displayCurrentImage(BufferedImage currentImage) {
     currentImageLabel.setIcon(new ImageIcon(currentImage));
     currentImageLabel.setHorizontalAlignment(JLabel.CENTER);
     currentImageLabel.setVerticalAlignment(JLabel.CENTER);
   }
 
-  private void displayHistogramImage(int[][][] histogramImageData) {
-    BufferedImage histogramImage = getDisplayImage(histogramImageData);
+  private void displayHistogramImage(BufferedImage histogramImage) {
     ImageIcon scaledIcon = scaleImage(histogramImage,
             histogramImageLabel.getWidth(),
             histogramImageLabel.getHeight());
@@ -438,87 +458,30 @@ public class View extends JFrame implements IView {
     return new ImageIcon(scaledImage);
   }
 
-  private BufferedImage getDisplayImage(int[][][] imageData) {
-    int height = imageData.length;
-    int width = imageData[0].length;
-    BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-    int[] data = new int[width * height];
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int rgb = (imageData[y][x][0] << 16) | (imageData[y][x][1] << 8) | imageData[y][x][2];
-        data[y * width + x] = rgb;
-      }
-    }
-    bufferedImage.setRGB(0, 0, width, height, data, 0, width);
-    return bufferedImage;
-  }
-
   private void save(Features controller) {
 
-    try {
-      if (currentImageLabel.getIcon() != null) {
-        String imageFilePath = saveAs();
-        controller.save(imageFilePath);
-        setImageSaved(TRUE);
-        JOptionPane.showMessageDialog(
-                null,
-                "Saved Successfully",
-                "Confirmation",
-                JOptionPane.INFORMATION_MESSAGE);
-      }
-      else {
-        JOptionPane.showMessageDialog(
-                null,
-                "Nothing to save",
-                "Confirmation",
-                JOptionPane.INFORMATION_MESSAGE);
-
-      }
-    } catch (IOException | CloneNotSupportedException ex) {
-      showErrorDialog("Error Saving",
-              "Error occurred while saving the image", ex);
-    }
-  }
-
-  private void redComponent(Features controller) {
-    try {
-      controller.redComponent();
-    } catch (IOException | CloneNotSupportedException ex) {
-      showErrorDialog("Error",
-              "Error occurred while creating the red component", ex);
-    }
-  }
-
-  private void blueComponent(Features controller) {
-    try {
-      controller.blueComponent();
-    } catch (IOException | CloneNotSupportedException ex) {
-      showErrorDialog("Error", "Error occurred while creating the blue component", ex);
+    if (currentImageLabel.getIcon() != null) {
+      // The image is marked as saved once the controller confirms it was written.
+      controller.save(saveAs());
     }
-  }
+    else {
+      JOptionPane.showMessageDialog(
+              null,
+              "Nothing to save",
+              "Confirmation",
+              JOptionPane.INFORMATION_MESSAGE);
 
-  private void greenComponent(Features controller) {
-    try {
-      controller.greenComponent();
-    } catch (IOException | CloneNotSupportedException ex) {
-      showErrorDialog("Error", "Error occurred while creating the green component", ex);
     }
   }
 
-  private void flipHorizontal(Features controller) {
-    try {
-      controller.flipHorizontal();
-    } catch (IOException | CloneNotSupportedException ex) {
-      showErrorDialog("Error", "Error occurred while flipping the image horizontally", ex);
-    }
-  }
-
-  private void flipVertical(Features controller) {
-    try {
-      controller.flipVertical();
-    } catch (IOException | CloneNotSupportedException ex) {
-      showErrorDialog("Error", "Error occurred while flipping the image vertically", ex);
-    }
+  @Override
+  public void showSaved(String filepath) {
+    setImageSaved(TRUE);
+    JOptionPane.showMessageDialog(
+            null,
+            "Saved Successfully",
+            "Confirmation",
+            JOptionPane.INFORMATION_MESSAGE);
   }
 
   private void filters(Features controller) {
@@ -590,7 +553,7 @@ public class View extends JFrame implements IView {
         }
       }
 
-    } catch (IOException | CloneNotSupportedException | NullPointerException ex) {
+    } catch (NullPointerException ex) {
       showErrorDialog("Error",
               "Error occurred while performing the selected operation",
               ex);
@@ -620,6 +583,14 @@ public class View extends JFrame implements IView {
     showErrorDialog("Error", message, ex);
   }
 
+  @Override
+  public void showProgress(boolean running) {
+    progressBar.setIndeterminate(running);
+    progressBar.setVisible(running);
+    cancelButton.setEnabled(running);
+    revalidate();
+  }
+
   private void showErrorDialog(String title, String message, Exception ex) {
     JOptionPane.showMessageDialog(this,
         message,
@@ -635,19 +606,19 @@ public class View extends JFrame implements IView {
     }
     switch (action) {
       case "redComponent" :
-        redComponent(controller);
+        controller.redComponent();
         break;
       case "greenComponent":
-        greenComponent(controller);
+        controller.greenComponent();
         break;
       case "blueComponent":
-        blueComponent(controller);
+        controller.blueComponent();
         break;
       case "flipHorizontal":
-        flipHorizontal(controller);
+        controller.flipHorizontal();
         break;
       case "flipVertical":
-        flipVertical(controller);
+        controller.flipVertical();
         break;
       default:
         System.out.println("Invalid Operation");
@@ -657,32 +628,22 @@ public class View extends JFrame implements IView {
 
   private void load(Features controller) {
     String imageFilePath = loadFile();
-    try {
-      if (!getIsImageSaved() && currentImageLabel.getIcon() != null) {
-        int response = JOptionPane.showConfirmDialog(
-                null,
-                "Do you want to proceed to Save?",
-                "Save image",
-                JOptionPane.YES_NO_OPTION);
-
-        // Check the user's response
-        if (response == JOptionPane.YES_OPTION ) {
-          saveMenuItem.doClick();
-        } else {
-          controller.load(imageFilePath);
-        }
+    if (!getIsImageSaved() && currentImageLabel.getIcon() != null) {
+      int response = JOptionPane.showConfirmDialog(
+              null,
+              "Do you want to proceed to Save?",
+              "Save image",
+              JOptionPane.YES_NO_OPTION);
+
+      // Check the user's response
+      if (response == JOptionPane.YES_OPTION ) {
+        saveMenuItem.doClick();
+      } else {
+        controller.load(imageFilePath);
       }
-
-      controller.load(imageFilePath);
-
-    } catch (IOException | CloneNotSupportedException ex) {
-      showErrorDialog("Error Opening",
-              "Error occurred while opening the image", ex);
-    }
-    catch (InputMismatchException exInM) {
-      showErrorDialog("Error Opening",
-              "Would like to save the old Image before ", exInM);
     }
+
+    controller.load(imageFilePath);
   }
 
   private String loadFile() {
@@ -692,7 +653,7 @@ public class View extends JFrame implements IView {
 
     // Add file filters for PNG and JPEG
     FileNameExtensionFilter imageFilter = new FileNameExtensionFilter(
-            "Image files", "png", "jpeg", "jpg", "ppm");
+            "Image files", "png", "jpeg", "jpg", "ppm", "pnm");
     fileLoader.addChoosableFileFilter(imageFilter);
     // Set default filter to PNG
     fileLoader.setFileFilter(imageFilter);
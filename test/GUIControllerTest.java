@@ -1,14 +1,23 @@
 import ime.controller.Features;
 import ime.controller.GUIController;
 import ime.model.MIMEFacade;
+import ime.model.PixelRaster;
+import ime.model.RasterSink;
+import ime.model.RasterSource;
 import ime.view.IView;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * The GUIControllerTest class serves as a test class for the GUIController, which manages
@@ -20,14 +29,18 @@ public class GUIControllerTest {
 
   private Features controller;
   private StringBuilder modelLogger;
+  private StringBuilder viewLogger;
+  private MIMEFacade model;
+  private IView view;
 
   @Before
   public void setUp() {
     modelLogger = new StringBuilder();
-    StringBuilder viewLogger = new StringBuilder();
-    MIMEFacade model = new MockModel(modelLogger);
-    IView view = new MockView(viewLogger);
-    controller = new GUIController(model, view);
+    viewLogger = new StringBuilder();
+    model = new MockModel(modelLogger);
+    view = new MockView(viewLogger);
+    // Operations and view updates run on the calling thread, one after the other.
+    controller = new GUIController(model, view, Runnable::run, Runnable::run);
   }
 
   @Test
@@ -40,9 +53,50 @@ public class GUIControllerTest {
             + System.lineSeparator(), modelLogger.toString());
   }
 
-  @Test(expected = IOException.class)
+  @Test
   public void testLoadFailure() throws IOException, CloneNotSupportedException {
     controller.load("test.ppm");
+    assertEquals("", modelLogger.toString());
+    assertTrue(viewLogger.toString().matches(
+        ".*Input given: trueInput given: .+Input given: false"));
+  }
+
+  @Test
+  public void testOnlyLatestPreviewRuns() throws IOException, CloneNotSupportedException {
+    List<Runnable> queued = new ArrayList<>();
+    controller = new GUIController(model, view, queued::add, Runnable::run);
+    controller.blur(20);
+    controller.blur(40);
+    controller.blur();
+    controller.blur(60);
+    queued.forEach(Runnable::run);
+    assertEquals("Input given: "
+            + "b1a34ce9-af60-489f-a0f3-9e20ca55789d b1a34ce9-af60-489f-a0f3-9e20ca55789d"
+            + System.lineSeparator() + "Input given: "
+            + "b1a34ce9-af60-489f-a0f3-9e20ca55789d fe25d39c-ed69-4816-a4e1-2d30db48b905"
+            + System.lineSeparator() + "Input given: "
+            + "b1a34ce9-af60-489f-a0f3-9e20ca55789d ba2b6a3d-aece-489f-9228-90f5500c55e3 60.0"
+            + System.lineSeparator(), modelLogger.toString());
+  }
+
+  @Test
+  public void testCancelSkipsWaitingOperations() throws IOException, CloneNotSupportedException {
+    List<Runnable> queued = new ArrayList<>();
+    controller = new GUIController(model, view, queued::add, Runnable::run);
+    viewLogger.setLength(0);
+    controller.blur();
+    controller.sepia();
+    controller.cancel();
+    controller.luma();
+    queued.forEach(Runnable::run);
+    assertEquals("Input given: "
+            + "b1a34ce9-af60-489f-a0f3-9e20ca55789d b1a34ce9-af60-489f-a0f3-9e20ca55789d"
+            + System.lineSeparator() + "Input given: "
+            + "b1a34ce9-af60-489f-a0f3-9e20ca55789d fe25d39c-ed69-4816-a4e1-2d30db48b905"
+            + System.lineSeparator(), modelLogger.toString());
+    assertEquals("Input given: true" + "Input given: "
+            + "b1a34ce9-af60-489f-a0f3-9e20ca55789d fe25d39c-ed69-4816-a4e1-2d30db48b905"
+            + "Input given: false", viewLogger.toString());
   }
 
   @Test
@@ -54,6 +108,22 @@ public class GUIControllerTest {
             + System.lineSeparator(), modelLogger.toString());
   }
 
+  @Test
+  public void testSaveConfirmedAfterWriting() {
+    viewLogger.setLength(0);
+    controller.save("test.jpg");
+    assertTrue(viewLogger.toString().endsWith("Input given: test.jpgInput given: false"));
+  }
+
+  @Test
+  public void testFailedSaveIsNotConfirmed() {
+    viewLogger.setLength(0);
+    controller.save("missing-folder" + File.separator + "test.ppm");
+    assertFalse(viewLogger.toString().contains("test.ppm"));
+    assertTrue(viewLogger.toString().matches(
+        "Input given: trueInput given: .+Input given: false"));
+  }
+
   @Test
   public void testRedComponent() throws IOException, CloneNotSupportedException {
     controller.redComponent();
@@ -253,6 +323,16 @@ public class GUIControllerTest {
     public void displayErrorMessage(Exception ex, String message) {
       logger.append("Input given:").append(" ").append(message);
     }
+
+    @Override
+    public void showProgress(boolean running) {
+      logger.append("Input given:").append(" ").append(running);
+    }
+
+    @Override
+    public void showSaved(String filepath) {
+      logger.append("Input given:").append(" ").append(filepath);
+    }
   }
 
   private static class MockModel implements MIMEFacade {
@@ -277,6 +357,17 @@ public class GUIControllerTest {
       return outputStream;
     }
 
+    @Override
+    public void loadRaster(PixelRaster raster, String imageName) {
+      logger.append("Input given:").append(" ").append(imageName).append(System.lineSeparator());
+    }
+
+    @Override
+    public PixelRaster saveRaster(String imageName) {
+      logger.append("Input given:").append(" ").append(imageName).append(System.lineSeparator());
+      return new PixelRaster(2, 2, 255, new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+    }
+
     @Override
     public void redComponent(String inputImageName, String outputImageName) {
       logger.append("Input given:").append(" ").append(inputImageName).append(" ")
@@ -370,6 +461,24 @@ public class GUIControllerTest {
               .append(System.lineSeparator());
     }
 
+    @Override
+    public void blur(String inputImageName, String outputImageName, int radius,
+                     boolean gaussian) {
+      logger.append("Input given:").append(" ").append(inputImageName)
+              .append(" ").append(outputImageName).append(" ").append(radius)
+              .append(" ").append(gaussian)
+              .append(System.lineSeparator());
+    }
+
+    @Override
+    public void blur(String inputImageName, String outputImageName, int radius,
+                     boolean gaussian, double splitPercentage) {
+      logger.append("Input given:").append(" ").append(inputImageName)
+              .append(" ").append(outputImageName).append(" ").append(radius)
+              .append(" ").append(gaussian).append(" ").append(splitPercentage)
+              .append(System.lineSeparator());
+    }
+
 
     @Override
     public void sharpen(String inputImageName, String outputImageName) {
@@ -399,6 +508,42 @@ public class GUIControllerTest {
               .append(System.lineSeparator());
     }
 
+    @Override
+    public void setParallelism(int parallelism) {
+      logger.append("Input given:").append(" ").append(parallelism)
+              .append(System.lineSeparator());
+    }
+
+    @Override
+    public void setCacheSize(int cacheSize) {
+      logger.append("Input given:").append(" ").append(cacheSize)
+              .append(System.lineSeparator());
+    }
+
+    @Override
+    public void stream(String operation, int[] parameters, RasterSource source,
+                       RasterSink sink) {
+      logger.append("Input given:").append(" ").append(operation)
+              .append(System.lineSeparator());
+    }
+
+    @Override
+    public void setLazyEvaluation(boolean lazyEvaluation) {
+      logger.append("Input given:").append(" ").append(lazyEvaluation)
+              .append(System.lineSeparator());
+    }
+
+    @Override
+    public void remove(String imageName) {
+      logger.append("Input given:").append(" ").append(imageName)
+              .append(System.lineSeparator());
+    }
+
+    @Override
+    public long[] getRepositoryCounters() {
+      return new long[3];
+    }
+
     @Override
     public int[][][] getRawImageData(String imageName) {
       logger.append("Input given:").append(" ").append(imageName)
@@ -409,6 +554,15 @@ public class GUIControllerTest {
       };
     }
 
+    @Override
+    public BufferedImage getDisplayImage(String imageName) {
+      logger.append("Input given:").append(" ").append(imageName)
+              .append(System.lineSeparator());
+      BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+      image.setRGB(0, 0, 2, 2, new int[]{0x010203, 0x040506, 0x070809, 0x0A0B0C}, 0, 2);
+      return image;
+    }
+
     @Override
     public void compress(double percentage, String inputImageName, String outputImageName)
         throws IllegalArgumentException {
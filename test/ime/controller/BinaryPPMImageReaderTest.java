@@ -0,0 +1,180 @@
+package ime.controller;
+
+import ime.model.PixelRaster;
+import ime.model.RasterSource;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The BinaryPPMImageReaderTest class contains test cases for the BinaryPPMImageReader class,
+ * ensuring that P6 files with one and two bytes per color value are read correctly, that comments
+ * and whitespace in the header are skipped, that regions are read from the right offsets, and that
+ * invalid files are rejected.
+ */
+public class BinaryPPMImageReaderTest {
+
+  private final BinaryPPMImageReader reader = new BinaryPPMImageReader();
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("ime-p6", ".pnm");
+    file.deleteOnExit();
+  }
+
+  // Writes a P6 file with the given header followed by the color values.
+  private void write(String header, int max, int... samples) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bytes.write(header.getBytes(StandardCharsets.US_ASCII));
+    for (int sample : samples) {
+      if (max > 255) {
+        bytes.write(sample >> 8);
+      }
+      bytes.write(sample);
+    }
+    Files.write(file.toPath(), bytes.toByteArray());
+  }
+
+  private static int[] pattern(int width, int height, int max) {
+    int[] samples = new int[3 * width * height];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = (i * 37 + 11) % (max + 1);
+    }
+    return samples;
+  }
+
+  @Test
+  public void testReadEightBit() throws IOException {
+    int[] samples = pattern(3, 2, 255);
+    write("P6\n3 2\n255\n", 255, samples);
+    PixelRaster raster = reader.readRaster(file.getPath());
+    assertEquals(3, raster.getWidth());
+    assertEquals(2, raster.getHeight());
+    assertEquals(255, raster.getMax());
+    assertArrayEquals(samples, raster.getSamples());
+  }
+
+  @Test
+  public void testReadSixteenBit() throws IOException {
+    int[] samples = pattern(2, 3, 1000);
+    samples[0] = 1000;
+    write("P6\n2 3\n1000\n", 1000, samples);
+    PixelRaster raster = reader.readRaster(file.getPath());
+    assertEquals(1000, raster.getMax());
+    assertArrayEquals(samples, raster.getSamples());
+  }
+
+  @Test
+  public void testHeaderCommentsAndWhitespace() throws IOException {
+    int[] samples = pattern(2, 2, 255);
+    // The single whitespace character after the maximum value is followed by a sample that is
+    // itself a newline.
+    samples[0] = '\n';
+    write("P6 # binary\n# a whole comment line\n  2\t# width\n2\r\n255 ", 255, samples);
+    assertArrayEquals(samples, reader.readRaster(file.getPath()).getSamples());
+    try (RasterSource source = reader.openRaster(file.getPath())) {
+      assertArrayEquals(samples, source.readRegion(0, 0, 2, 2).getSamples());
+    }
+  }
+
+  @Test
+  public void testReadRegions() throws IOException {
+    int[] samples = pattern(5, 4, 255);
+    write("P6\n5 4\n255\n", 255, samples);
+    PixelRaster whole = reader.readRaster(file.getPath());
+    try (RasterSource source = reader.openRaster(file.getPath())) {
+      assertEquals(5, source.getWidth());
+      assertEquals(4, source.getHeight());
+      assertEquals(255, source.getMax());
+      assertArrayEquals(samples, source.readRegion(0, 0, 5, 4).getSamples());
+      assertArrayEquals(whole.getRegion(1, 2, 3, 2).getSamples(),
+          source.readRegion(1, 2, 3, 2).getSamples());
+      assertArrayEquals(Arrays.copyOfRange(samples, 45, 60),
+          source.readRegion(3, 0, 5, 1).getSamples());
+      assertEquals(0, source.readRegion(4, 5, 0, 0).getSamples().length);
+    }
+  }
+
+  @Test
+  public void testReadSixteenBitRegions() throws IOException {
+    int[] samples = pattern(4, 3, 65535);
+    write("P6\n4 3\n65535\n", 65535, samples);
+    PixelRaster whole = reader.readRaster(file.getPath());
+    try (RasterSource source = reader.openRaster(file.getPath())) {
+      assertEquals(65535, source.getMax());
+      assertArrayEquals(whole.getRegion(1, 1, 2, 2).getSamples(),
+          source.readRegion(1, 1, 2, 2).getSamples());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testRegionOutsideImage() throws IOException {
+    write("P6\n2 2\n255\n", 255, pattern(2, 2, 255));
+    try (RasterSource source = reader.openRaster(file.getPath())) {
+      source.readRegion(1, 0, 2, 2);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedFile() throws IOException {
+    write("P6\n3 3\n255\n", 255, Arrays.copyOf(pattern(3, 3, 255), 20));
+    reader.readRaster(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedFileOpenedForRegions() throws IOException {
+    write("P6\n3 3\n255\n", 255, Arrays.copyOf(pattern(3, 3, 255), 20));
+    reader.openRaster(file.getPath()).close();
+  }
+
+  @Test(expected = IOException.class)
+  public void testZeroMaximum() throws IOException {
+    write("P6\n1 1\n0\n", 255, 0, 0, 0);
+    reader.readRaster(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void testMaximumTooLarge() throws IOException {
+    write("P6\n1 1\n65536\n", 65536, 0, 0, 0);
+    reader.openRaster(file.getPath()).close();
+  }
+
+  @Test(expected = IOException.class)
+  public void testMissingHeaderValue() throws IOException {
+    write("P6\n1 \n# no height\nx\n", 255, 0, 0, 0);
+    reader.readRaster(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void testPlainPPMIsRejected() throws IOException {
+    write("P3\n1 1\n255\n0 0 0\n", 255);
+    reader.readRaster(file.getPath());
+  }
+
+  @Test(expected = IOException.class)
+  public void testMissingFile() throws IOException {
+    reader.openRaster(file.getPath() + "-missing").close();
+  }
+
+  @Test
+  public void testIsBinaryPPM() throws IOException {
+    write("P6\n1 1\n255\n", 255, 1, 2, 3);
+    assertTrue(BinaryPPMImageReader.isBinaryPPM(file.getPath()));
+    write("P3\n1 1\n255\n1 2 3\n", 255);
+    assertFalse(BinaryPPMImageReader.isBinaryPPM(file.getPath()));
+    write("P", 255);
+    assertFalse(BinaryPPMImageReader.isBinaryPPM(file.getPath()));
+    assertFalse(BinaryPPMImageReader.isBinaryPPM(file.getPath() + "-missing"));
+  }
+
+}
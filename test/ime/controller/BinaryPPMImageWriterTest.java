@@ -0,0 +1,107 @@
+package ime.controller;
+
+import ime.model.PixelRaster;
+import ime.model.RasterSink;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The BinaryPPMImageWriterTest class contains test cases for the BinaryPPMImageWriter class,
+ * ensuring that the files it writes have the expected layout and are read back unchanged by the
+ * BinaryPPMImageReader, whether they are written whole or a band of rows at a time.
+ */
+public class BinaryPPMImageWriterTest {
+
+  private final BinaryPPMImageWriter writer = new BinaryPPMImageWriter();
+  private final BinaryPPMImageReader reader = new BinaryPPMImageReader();
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("ime-p6", ".pnm");
+    file.deleteOnExit();
+  }
+
+  private static PixelRaster pattern(int width, int height, int max) {
+    PixelRaster raster = new PixelRaster(width, height, max);
+    int[] samples = raster.getSamples();
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = (i * 37 + 11) % (max + 1);
+    }
+    samples[samples.length - 1] = max;
+    return raster;
+  }
+
+  private void assertRoundTrip(PixelRaster raster) throws IOException {
+    writer.writeRaster(raster, file.getPath());
+    PixelRaster read = reader.readRaster(file.getPath());
+    assertEquals(raster.getWidth(), read.getWidth());
+    assertEquals(raster.getHeight(), read.getHeight());
+    assertEquals(raster.getMax(), read.getMax());
+    assertArrayEquals(raster.getSamples(), read.getSamples());
+  }
+
+  @Test
+  public void testEightBitLayout() throws IOException {
+    PixelRaster raster = new PixelRaster(2, 1, 255, new int[]{1, 2, 3, 255, 128, 0});
+    writer.writeRaster(raster, file.getPath());
+    byte[] header = "P6\n2 1\n255\n".getBytes(StandardCharsets.US_ASCII);
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    assertArrayEquals(header, Arrays.copyOf(bytes, header.length));
+    assertArrayEquals(new byte[]{1, 2, 3, (byte) 255, (byte) 128, 0},
+        Arrays.copyOfRange(bytes, header.length, bytes.length));
+  }
+
+  @Test
+  public void testSixteenBitLayout() throws IOException {
+    PixelRaster raster = new PixelRaster(1, 1, 1000, new int[]{1000, 256, 7});
+    writer.writeRaster(raster, file.getPath());
+    byte[] header = "P6\n1 1\n1000\n".getBytes(StandardCharsets.US_ASCII);
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    assertArrayEquals(new byte[]{3, (byte) 232, 1, 0, 0, 7},
+        Arrays.copyOfRange(bytes, header.length, bytes.length));
+  }
+
+  @Test
+  public void testEightBitRoundTrip() throws IOException {
+    assertRoundTrip(pattern(7, 5, 255));
+  }
+
+  @Test
+  public void testSixteenBitRoundTrip() throws IOException {
+    assertRoundTrip(pattern(5, 7, 65535));
+  }
+
+  @Test
+  public void testSmallMaximumRoundTrip() throws IOException {
+    assertRoundTrip(pattern(3, 3, 15));
+  }
+
+  @Test
+  public void testBandsMatchWholeRaster() throws IOException {
+    PixelRaster raster = pattern(6, 10, 300);
+    try (RasterSink sink = writer.openSink(file.getPath())) {
+      sink.start(6, 10, 300);
+      sink.writeRows(raster.getRegion(0, 0, 6, 4));
+      sink.writeRows(raster.getRegion(4, 0, 6, 4));
+      sink.writeRows(raster.getRegion(8, 0, 6, 2));
+    }
+    byte[] streamed = Files.readAllBytes(file.toPath());
+    writer.writeRaster(raster, file.getPath());
+    assertArrayEquals(Files.readAllBytes(file.toPath()), streamed);
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidPath() throws IOException {
+    writer.writeRaster(pattern(1, 1, 255),
+        file.getPath() + "-missing" + File.separator + "image.pnm");
+  }
+
+}
@@ -0,0 +1,143 @@
+package ime.controller;
+
+import ime.model.PixelRaster;
+import ime.model.RasterSource;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The ImageIOReaderTest class contains test cases for the ImageIOReader class, ensuring that the
+ * regions of an image opened for reading a region at a time hold the same pixels and maximum
+ * value as the image read as a whole, including for images much taller than they are wide.
+ */
+public class ImageIOReaderTest {
+
+  private static final int WIDTH = 23;
+  private static final int HEIGHT = 3000;
+  private static final int BAND = 128;
+
+  private final ImageIOReader reader = new ImageIOReader();
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("ime-reader", ".img");
+    file.deleteOnExit();
+  }
+
+  private static BufferedImage pattern(int type, int limit) {
+    BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        int red = (x * 31 + y * 7) % limit;
+        int green = (x * y + 3) % limit;
+        int blue = ((x + 5) * (y + 2) * 13) % limit;
+        image.setRGB(x, y, (red << 16) | (green << 8) | blue);
+      }
+    }
+    return image;
+  }
+
+  private void write(BufferedImage image, String format, boolean progressive)
+      throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+    ImageWriteParam param = writer.getDefaultWriteParam();
+    if (progressive) {
+      param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+    }
+    Files.deleteIfExists(file.toPath());
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  // Reads the image a band of rows at a time and checks it against the whole image, and checks
+  // whether the image was decoded into a temporary file or read into memory.
+  private void assertRegionsMatch(boolean decodedOnce) throws IOException {
+    PixelRaster whole = reader.readRaster(file.getPath());
+    try (RasterSource source = reader.openRaster(file.getPath())) {
+      assertEquals(decodedOnce, source instanceof ImageIOReader.SpilledSource);
+      assertEquals(whole.getWidth(), source.getWidth());
+      assertEquals(whole.getHeight(), source.getHeight());
+      assertEquals(whole.getMax(), source.getMax());
+      for (int rowStart = 0; rowStart < HEIGHT; rowStart += BAND) {
+        int rows = Math.min(BAND, HEIGHT - rowStart);
+        PixelRaster region = source.readRegion(rowStart, 0, WIDTH, rows);
+        assertEquals(whole.getMax(), region.getMax());
+        assertArrayEquals(Arrays.copyOfRange(whole.getSamples(), 3 * rowStart * WIDTH,
+            3 * (rowStart + rows) * WIDTH), region.getSamples());
+      }
+      PixelRaster middle = source.readRegion(1000, 5, 11, 7);
+      assertArrayEquals(whole.getRegion(1000, 5, 11, 7).getSamples(), middle.getSamples());
+    }
+  }
+
+  @Test
+  public void testTallPng() throws IOException {
+    write(pattern(BufferedImage.TYPE_3BYTE_BGR, 256), "png", false);
+    assertRegionsMatch(true);
+  }
+
+  @Test
+  public void testTallPngKeepsMaximum() throws IOException {
+    write(pattern(BufferedImage.TYPE_INT_RGB, 200), "png", false);
+    assertRegionsMatch(true);
+    try (RasterSource source = reader.openRaster(file.getPath())) {
+      assertEquals(199, source.getMax());
+    }
+  }
+
+  @Test
+  public void testTallGrayPng() throws IOException {
+    write(pattern(BufferedImage.TYPE_BYTE_GRAY, 256), "png", false);
+    assertRegionsMatch(true);
+  }
+
+  @Test
+  public void testTallJpeg() throws IOException {
+    write(pattern(BufferedImage.TYPE_3BYTE_BGR, 256), "jpeg", false);
+    assertRegionsMatch(true);
+  }
+
+  @Test
+  public void testTallProgressiveJpeg() throws IOException {
+    write(pattern(BufferedImage.TYPE_3BYTE_BGR, 256), "jpeg", true);
+    assertRegionsMatch(true);
+  }
+
+  @Test
+  public void testTallBmpIsReadIntoMemory() throws IOException {
+    write(pattern(BufferedImage.TYPE_3BYTE_BGR, 256), "bmp", false);
+    assertRegionsMatch(false);
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedPng() throws IOException {
+    write(pattern(BufferedImage.TYPE_3BYTE_BGR, 256), "png", false);
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+    reader.openRaster(file.getPath()).close();
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidFile() throws IOException {
+    Files.write(file.toPath(), new byte[]{1, 2, 3});
+    reader.openRaster(file.getPath()).close();
+  }
+
+}
@@ -0,0 +1,119 @@
+package ime.controller;
+
+import ime.model.PixelRaster;
+import ime.model.RasterSink;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * The ImageIOWriterTest class contains test cases for the ImageIOWriter class, ensuring that an
+ * image written a band of rows at a time gives the same file as the whole raster written at once,
+ * and that images which cannot be written are refused before any of their rows.
+ */
+public class ImageIOWriterTest {
+
+  private static final int WIDTH = 37;
+  private static final int HEIGHT = 300;
+  private static final int BAND = 128;
+
+  private final ImageIOWriter writer = new ImageIOWriter();
+  private File streamed;
+  private File whole;
+
+  @Before
+  public void setUp() throws IOException {
+    streamed = File.createTempFile("ime-writer", ".img");
+    streamed.deleteOnExit();
+    whole = File.createTempFile("ime-writer", ".img");
+    whole.deleteOnExit();
+  }
+
+  private static PixelRaster pattern(int max) {
+    PixelRaster raster = new PixelRaster(WIDTH, HEIGHT, max);
+    int[] samples = raster.getSamples();
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = (i * 31 + i / (3 * WIDTH) * 7) % (max + 1);
+    }
+    return raster;
+  }
+
+  private static File withExtension(File file, String extension) {
+    File renamed = new File(file.getPath() + "." + extension);
+    renamed.deleteOnExit();
+    return renamed;
+  }
+
+  // Streams the raster a band of rows at a time and checks the file against writing it whole.
+  private void assertStreamMatchesWhole(PixelRaster raster, String extension) throws IOException {
+    File streamedFile = withExtension(streamed, extension);
+    File wholeFile = withExtension(whole, extension);
+    try (RasterSink sink = writer.openSink(streamedFile.getPath())) {
+      sink.start(raster.getWidth(), raster.getHeight(), raster.getMax());
+      for (int rowStart = 0; rowStart < HEIGHT; rowStart += BAND) {
+        sink.writeRows(raster.getRegion(rowStart, 0, WIDTH, Math.min(BAND, HEIGHT - rowStart)));
+      }
+    }
+    writer.writeRaster(raster, wholeFile.getPath());
+    assertArrayEquals(Files.readAllBytes(wholeFile.toPath()),
+        Files.readAllBytes(streamedFile.toPath()));
+  }
+
+  @Test
+  public void testStreamedPng() throws IOException {
+    assertStreamMatchesWhole(pattern(255), "png");
+  }
+
+  @Test
+  public void testStreamedJpeg() throws IOException {
+    assertStreamMatchesWhole(pattern(255), "jpg");
+  }
+
+  @Test
+  public void testStreamedBmp() throws IOException {
+    assertStreamMatchesWhole(pattern(255), "bmp");
+  }
+
+  @Test
+  public void testStreamedWideValues() throws IOException {
+    assertStreamMatchesWhole(pattern(1000), "png");
+  }
+
+  @Test
+  public void testStreamedBlackImage() throws IOException {
+    assertStreamMatchesWhole(new PixelRaster(WIDTH, HEIGHT, 0), "png");
+  }
+
+  @Test
+  public void testIncompleteImageIsNotEncoded() throws IOException {
+    File file = withExtension(streamed, "png");
+    try (RasterSink sink = writer.openSink(file.getPath())) {
+      sink.start(WIDTH, HEIGHT, 255);
+      sink.writeRows(pattern(255).getRegion(0, 0, WIDTH, BAND));
+    }
+    assertEquals(0, file.length());
+  }
+
+  @Test
+  public void testTooLargeImageIsRefused() throws IOException {
+    File file = withExtension(streamed, "png");
+    try (RasterSink sink = writer.openSink(file.getPath())) {
+      sink.start(100000, 100000, 255);
+      fail("An image with more pixels than an int can index should be refused");
+    } catch (IOException e) {
+      assertEquals("Image is too large to be written as png", e.getMessage());
+    }
+    assertEquals(0, file.length());
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnsupportedFormat() throws IOException {
+    writer.openSink(withExtension(streamed, "tiff2").getPath()).close();
+  }
+
+}
@@ -0,0 +1,134 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The BoxBlurTest class contains test cases for the BoxBlur class, ensuring that the running sums
+ * give the same averages as summing every window directly, and that repeated passes match
+ * applying the box blur again.
+ */
+public class BoxBlurTest {
+
+  private final RowBandExecutor executor = new RowBandExecutor(1);
+  private Image image;
+
+  private static Image pattern(int width, int height, int max) {
+    Image image = ImageUtil.createImage(width, height, max);
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        image.setRGB(i, j, (i * 31 + j * 17) % (max + 1), (i * j * 7 + 3) % (max + 1),
+            ((i + 5) * (j + 2) * 13) % (max + 1));
+      }
+    }
+    return image;
+  }
+
+  @Before
+  public void setUp() {
+    image = pattern(17, 9, 255);
+  }
+
+  // Averages every window directly, rounding after the horizontal and after the vertical pass.
+  private static int[][][] direct(Image image, int radius) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int size = 2 * radius + 1;
+    int[][][] horizontal = new int[3][height][width];
+    for (int i = 0; i < height; i++) {
+      for (int j = 0; j < width; j++) {
+        long[] sums = new long[3];
+        for (int n = j - radius; n <= j + radius; n++) {
+          if (n >= 0 && n < width) {
+            sums[0] += image.getRed(i, n);
+            sums[1] += image.getGreen(i, n);
+            sums[2] += image.getBlue(i, n);
+          }
+        }
+        for (int c = 0; c < 3; c++) {
+          horizontal[c][i][j] = (int) Math.floor((double) sums[c] / size + 0.5);
+        }
+      }
+    }
+    int[][][] result = new int[3][height][width];
+    for (int c = 0; c < 3; c++) {
+      for (int i = 0; i < height; i++) {
+        for (int j = 0; j < width; j++) {
+          long sum = 0;
+          for (int m = i - radius; m <= i + radius; m++) {
+            if (m >= 0 && m < height) {
+              sum += horizontal[c][m][j];
+            }
+          }
+          result[c][i][j] = (int) Math.floor((double) sum / size + 0.5);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void assertMatchesDirect(Image input, int radius, Image actual) {
+    int[][][] expected = direct(input, radius);
+    for (int i = 0; i < input.getHeight(); i++) {
+      for (int j = 0; j < input.getWidth(); j++) {
+        assertEquals(expected[0][i][j], actual.getRed(i, j));
+        assertEquals(expected[1][i][j], actual.getGreen(i, j));
+        assertEquals(expected[2][i][j], actual.getBlue(i, j));
+      }
+    }
+  }
+
+  private static void assertSamePixels(Image expected, Image actual) {
+    assertEquals(expected.getMax(), actual.getMax());
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testMatchesDirectAverage() {
+    for (int radius : new int[]{0, 1, 2, 5, 8}) {
+      assertMatchesDirect(image, radius, new BoxBlur(radius, 1, executor).process(image));
+    }
+  }
+
+  @Test
+  public void testRadiusLargerThanImage() {
+    assertMatchesDirect(image, 30, new BoxBlur(30, 1, executor).process(image));
+  }
+
+  @Test
+  public void testWideValues() {
+    Image wide = pattern(11, 7, 1000);
+    assertMatchesDirect(wide, 3, new BoxBlur(3, 1, executor).process(wide));
+  }
+
+  @Test
+  public void testRadiusZeroKeepsImage() {
+    assertSamePixels(image, new BoxBlur(0, 3, executor).process(image));
+  }
+
+  @Test
+  public void testPassesMatchRepeatedBox() {
+    BoxBlur box = new BoxBlur(2, 1, executor);
+    Image expected = box.process(box.process(box.process(image)));
+    assertSamePixels(expected, new BoxBlur(2, 3, executor).process(image));
+    assertEquals(6, new BoxBlur(2, 3, executor).getReach());
+  }
+
+  @Test
+  public void testParallelMatchesSequential() {
+    Image large = pattern(150, 120, 255);
+    assertSamePixels(new BoxBlur(4, 3, executor).process(large),
+        new BoxBlur(4, 3, new RowBandExecutor(4)).process(large));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeRadius() {
+    new BoxBlur(-1, 1, executor);
+  }
+
+}
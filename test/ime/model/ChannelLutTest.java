@@ -0,0 +1,65 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The ChannelLutTest class contains test cases for the ChannelLut class, ensuring that lookups
+ * are applied per channel and that composed lookups match applying the lookups one by one.
+ */
+public class ChannelLutTest {
+
+  private Image image;
+  private RowBandExecutor executor;
+
+  @Before
+  public void setUp() {
+    image = new PackedRGBImage(2, 2, 255);
+    image.setRow(0, new int[]{0, 100}, new int[]{50, 200}, new int[]{250, 255});
+    image.setRow(1, new int[]{10, 20}, new int[]{30, 40}, new int[]{128, 5});
+    executor = new RowBandExecutor(1);
+  }
+
+  @Test
+  public void testSameFunctionForAllChannels() {
+    Image output = ChannelLut.of(value -> MathUtil.clamp(value + 10, 255), 255, 255, executor)
+        .process(image);
+    assertEquals(new RGBPixel(10, 60, 255, 255), output.getPixel(0, 0));
+    assertEquals(new RGBPixel(110, 210, 255, 255), output.getPixel(0, 1));
+  }
+
+  @Test
+  public void testTablePerChannel() {
+    int[] identity = new int[256];
+    int[] inverse = new int[256];
+    for (int value = 0; value < 256; value++) {
+      identity[value] = value;
+      inverse[value] = 255 - value;
+    }
+    Image output = new ChannelLut(new int[][]{identity, inverse, identity}, 255, executor)
+        .process(image);
+    assertEquals(new RGBPixel(0, 205, 250, 255), output.getPixel(0, 0));
+    assertEquals(new RGBPixel(20, 215, 5, 255), output.getPixel(1, 1));
+  }
+
+  @Test
+  public void testComposedLookup() {
+    ChannelLut brighten = ChannelLut.of(value -> value + 100, 255, 255, executor);
+    ChannelLut halve = ChannelLut.of(value -> value / 2, 255, 255, executor);
+    Image separately = halve.process(brighten.process(image));
+    Image composed = brighten.andThen(halve).process(image);
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < 2; j++) {
+        assertEquals(separately.getPixel(i, j), composed.getPixel(i, j));
+      }
+    }
+    assertEquals(new RGBPixel(100, 127, 127, 255), composed.getPixel(0, 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTableTooShort() {
+    new ChannelLut(new int[][]{new int[256], new int[256], new int[10]}, 255, executor);
+  }
+
+}
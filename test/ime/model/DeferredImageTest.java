@@ -0,0 +1,110 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The DeferredImageTest class contains test cases for the DeferredImage class, ensuring that a
+ * chain of point operations computed in one pass gives the same pixels as applying the operations
+ * one after the other.
+ */
+public class DeferredImageTest {
+
+  private final RowBandExecutor executor = new RowBandExecutor(1);
+  private Image image;
+  private PointOperation brighten;
+  private PointOperation darken;
+  private PointOperation sepia;
+
+  @Before
+  public void setUp() {
+    image = new PackedRGBImage(3, 2, 255);
+    image.setRow(0, new int[]{10, 200, 30}, new int[]{40, 250, 60}, new int[]{70, 80, 90});
+    image.setRow(1, new int[]{255, 0, 1}, new int[]{2, 254, 3}, new int[]{4, 5, 253});
+    brighten = new PixelTransformer((red, green, blue, width, max) -> {
+      for (int j = 0; j < width; j++) {
+        red[j] += 100;
+        green[j] += 100;
+        blue[j] += 100;
+      }
+    }, executor);
+    darken = ChannelLut.of(value -> Math.max(0, value - 150), 255, 255, executor);
+    sepia = new LinearColorTransformer(new double[][]{
+        {0.393, 0.769, 0.189},
+        {0.349, 0.686, 0.168},
+        {0.272, 0.534, 0.131}
+    }, executor);
+  }
+
+  private static void assertSamePixels(Image expected, Image actual) {
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getMax(), actual.getMax());
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testChainMatchesOperationsAppliedInTurn() {
+    Image first = DeferredImage.of(image, brighten, () -> executor);
+    Image second = DeferredImage.of(first, darken, () -> executor);
+    Image third = DeferredImage.of(second, sepia, () -> executor);
+
+    // The brightened components are clamped to 255 before they are darkened.
+    Image expectedFirst = brighten.process(image);
+    Image expectedSecond = darken.process(expectedFirst);
+    assertSamePixels(sepia.process(expectedSecond), third);
+    assertSamePixels(expectedSecond, second);
+    assertSamePixels(expectedFirst, first);
+  }
+
+  @Test
+  public void testChainOnWideValuesAndChangedMaximum() {
+    Image wide = new RGBImage(2, 1, 1000);
+    wide.setRow(0, new int[]{1000, 300}, new int[]{999, 0}, new int[]{500, 700});
+    PointOperation narrow = new ChannelLut(new int[][]{
+        new int[ChannelLut.tableSize(1000)], new int[ChannelLut.tableSize(1000)],
+        new int[ChannelLut.tableSize(1000)]}, 255, executor);
+
+    Image deferred = DeferredImage.of(DeferredImage.of(wide, brighten, () -> executor),
+        narrow, () -> executor);
+    assertEquals(255, deferred.getMax());
+    assertSamePixels(narrow.process(brighten.process(wide)), deferred);
+  }
+
+  @Test
+  public void testFoldedLinearTransformsMatchTransformsInTurn() {
+    PointOperation green = new LinearColorTransformer(
+        new double[][]{{0, 0, 0}, {0, 1, 0}, {0, 0, 0}}, executor);
+    Image first = DeferredImage.of(image, green, () -> executor);
+    Image second = DeferredImage.of(first, sepia, () -> executor);
+    Image third = DeferredImage.of(second, green, () -> executor);
+
+    Image expectedSecond = sepia.process(green.process(image));
+    assertSamePixels(green.process(expectedSecond), third);
+    assertSamePixels(expectedSecond, second);
+  }
+
+  @Test
+  public void testOperationOnComputedImageStartsNewChain() {
+    Image first = DeferredImage.of(image, brighten, () -> executor);
+    Image computed = DeferredImage.resolve(first);
+    assertTrue(computed instanceof PackedRGBImage);
+
+    Image second = DeferredImage.of(first, darken, () -> executor);
+    assertSamePixels(darken.process(computed), second);
+    assertSamePixels(computed, ImageView.mirrorHorizontal(ImageView.mirrorHorizontal(first)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLookupThatDoesNotCoverImage() {
+    Image wide = new RGBImage(1, 1, 1000);
+    DeferredImage.of(wide, darken, () -> executor);
+  }
+
+}
@@ -0,0 +1,83 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The FilterTest class contains test cases for the Filter class, comparing the separable and
+ * tiled convolutions against a direct convolution of every pixel.
+ */
+public class FilterTest {
+
+  private Image image;
+
+  @Before
+  public void setUp() {
+    image = new PackedRGBImage(70, 67, 255);
+    for (int i = 0; i < image.getHeight(); i++) {
+      for (int j = 0; j < image.getWidth(); j++) {
+        image.setRGB(i, j, (i * 31 + j * 7) % 256, (i * j) % 256, (i + 3 * j) % 256);
+      }
+    }
+  }
+
+  @Test
+  public void testSeparableKernel() {
+    double[][] blurKernel = {
+        {1.0 / 16, 1.0 / 8, 1.0 / 16},
+        {1.0 / 8, 1.0 / 4, 1.0 / 8},
+        {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    };
+    assertSameImage(convolve(image, blurKernel), new Filter(blurKernel).process(image));
+  }
+
+  @Test
+  public void testNonSeparableKernel() {
+    double[][] sharpenKernel = {
+        {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8},
+        {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+        {-1.0 / 8, 1.0 / 4, 1.0, 1.0 / 4, -1.0 / 8},
+        {-1.0 / 8, 1.0 / 4, 1.0 / 4, 1.0 / 4, -1.0 / 8},
+        {-1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8, -1.0 / 8}
+    };
+    assertSameImage(convolve(image, sharpenKernel), new Filter(sharpenKernel).process(image));
+    assertSameImage(convolve(image, sharpenKernel),
+        new Filter(sharpenKernel, new RowBandExecutor(3)).process(image));
+  }
+
+  private static Image convolve(Image input, double[][] kernel) {
+    int radius = kernel.length / 2;
+    Image output = new PackedRGBImage(input.getWidth(), input.getHeight(), input.getMax());
+    for (int i = 0; i < input.getHeight(); i++) {
+      for (int j = 0; j < input.getWidth(); j++) {
+        double red = 0;
+        double green = 0;
+        double blue = 0;
+        for (int m = 0; m < kernel.length; m++) {
+          for (int n = 0; n < kernel.length; n++) {
+            int k = i + m - radius;
+            int l = j + n - radius;
+            if (k >= 0 && k < input.getHeight() && l >= 0 && l < input.getWidth()) {
+              red += kernel[m][n] * input.getRed(k, l);
+              green += kernel[m][n] * input.getGreen(k, l);
+              blue += kernel[m][n] * input.getBlue(k, l);
+            }
+          }
+        }
+        output.setRGB(i, j, (int) Math.round(red), (int) Math.round(green),
+            (int) Math.round(blue));
+      }
+    }
+    return output;
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+      }
+    }
+  }
+
+}
@@ -36,4 +36,20 @@ public class FrequencyCounterImplTest {
     assertEquals(4, frequencyCounter.getPeak().getSecond());
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testMergePartialCounts() {
+    FrequencyCounterImpl first = new FrequencyCounterImpl(256);
+    FrequencyCounterImpl second = new FrequencyCounterImpl(256);
+    first.count(new int[]{0, 255, 7, 7, 99}, 4);
+    second.count(new int[]{255, 255, 0}, 3);
+    first.merge(second);
+
+    assertEquals(2, first.getFrequency(0));
+    assertEquals(2, first.getFrequency(7));
+    assertEquals(3, first.getFrequency(255));
+    assertEquals(0, first.getFrequency(99));
+    assertEquals(255, first.getPeak().getFirst());
+    assertEquals(3, first.getPeak().getSecond());
+  }
+
+}
@@ -11,15 +11,20 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
 import javax.imageio.ImageIO;
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -699,6 +704,26 @@ public class IMEFacadeImplTest {
     imeFacade.sepia("no-such-image", "blurred");
   }
 
+  @Test
+  public void testDisplayImageSharesPixelsUntilWritten() {
+    BufferedImage display = imeFacade.getDisplayImage("test");
+    assertEquals(0xF3F4FF, display.getRGB(0, 0) & 0xFFFFFF);
+    assertEquals(0x0C2338, display.getRGB(1, 1) & 0xFFFFFF);
+
+    // Writing to the stored image leaves the displayed pixels as they were.
+    imeFacade.getImage("test").setRGB(0, 0, 1, 2, 3);
+    assertEquals(0xF3F4FF, display.getRGB(0, 0) & 0xFFFFFF);
+    assertEquals(0x010203, imeFacade.getDisplayImage("test").getRGB(0, 0) & 0xFFFFFF);
+  }
+
+  @Test
+  public void testDisplayImageScalesWideValues() {
+    imeFacade.loadRaster(new PixelRaster(1, 1, 1000, new int[]{1000, 500, 0}), "wide");
+    imeFacade.flipHorizontal("test", "flipped");
+    assertEquals(0xFF7F00, imeFacade.getDisplayImage("wide").getRGB(0, 0) & 0xFFFFFF);
+    assertEquals(0x5A4C2C, imeFacade.getDisplayImage("flipped").getRGB(0, 0) & 0xFFFFFF);
+  }
+
   @Test
   public void testGetRawImageData() {
 
@@ -719,4 +744,78 @@ public class IMEFacadeImplTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testParallelismProducesSameResult() {
+    imeFacade.sepia("test2X3", "sepia-sequential");
+    imeFacade.brighten(25, "test2X3", "brighten-sequential");
+    imeFacade.setParallelism(4);
+    imeFacade.sepia("test2X3", "sepia-parallel");
+    imeFacade.brighten(25, "test2X3", "brighten-parallel");
+
+    Image sequential = imeFacade.getImage("sepia-sequential");
+    Image parallel = imeFacade.getImage("sepia-parallel");
+    Image brightenSequential = imeFacade.getImage("brighten-sequential");
+    Image brightenParallel = imeFacade.getImage("brighten-parallel");
+    for (int i = 0; i < sequential.getHeight(); i++) {
+      for (int j = 0; j < sequential.getWidth(); j++) {
+        assertEquals(sequential.getPixel(i, j), parallel.getPixel(i, j));
+        assertEquals(brightenSequential.getPixel(i, j), brightenParallel.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testInterruptedOperationStoresNothing() {
+    Thread.currentThread().interrupt();
+    try {
+      imeFacade.sepia("test2X3", "sepia-cancelled");
+      fail("Interrupted operation was not cancelled");
+    } catch (CancellationException e) {
+      // expected
+    } finally {
+      Thread.interrupted();
+    }
+    try {
+      imeFacade.getImage("sepia-cancelled");
+      fail("Cancelled operation stored its result");
+    } catch (InputMismatchException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testCacheIsOffByDefault() {
+    imeFacade.loadRaster(new PixelRaster(4, 4, 255), "cached");
+    imeFacade.brighten(10, "cached", "bright");
+    imeFacade.brighten(10, "cached", "bright-again");
+    assertNotSame(imeFacade.getImage("bright"), imeFacade.getImage("bright-again"));
+    assertEquals(0, imeFacade.cache.getHits());
+  }
+
+  @Test
+  public void testSupersededInputsAreReleased() {
+    imeFacade.setCacheSize(16);
+    imeFacade.loadRaster(new PixelRaster(4, 4, 255), "versions");
+    WeakReference<Image> first = new WeakReference<>(imeFacade.getImage("versions"));
+    for (int i = 0; i < 3; i++) {
+      imeFacade.brighten(10, "versions", "versions");
+    }
+
+    // Results computed from the image still stored under its name are reused.
+    imeFacade.brighten(10, "versions", "bright");
+    imeFacade.brighten(10, "versions", "bright-again");
+    assertSame(imeFacade.getImage("bright"), imeFacade.getImage("bright-again"));
+
+    // The first version can no longer be named, so the cache does not keep it in memory.
+    for (int i = 0; i < 10 && first.get() != null; i++) {
+      System.gc();
+    }
+    assertNull(first.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidParallelism() {
+    imeFacade.setParallelism(0);
+  }
+
+}
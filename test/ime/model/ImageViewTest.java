@@ -0,0 +1,80 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The ImageViewTest class contains test cases for the ImageView class, ensuring that crops,
+ * mirrors and transposes read the expected pixels and that writes never reach the backing image.
+ */
+public class ImageViewTest {
+
+  private Image image;
+
+  @Before
+  public void setUp() {
+    image = new PackedRGBImage(3, 2, 255);
+    image.setRow(0, new int[]{10, 20, 30}, new int[]{40, 50, 60}, new int[]{70, 80, 90});
+    image.setRow(1, new int[]{255, 0, 1}, new int[]{2, 254, 3}, new int[]{4, 5, 253});
+  }
+
+  @Test
+  public void testMirrors() {
+    Image horizontal = ImageView.mirrorHorizontal(image);
+    assertEquals(new RGBPixel(30, 60, 90, 255), horizontal.getPixel(0, 0));
+    assertEquals(new RGBPixel(255, 2, 4, 255), horizontal.getPixel(1, 2));
+
+    Image vertical = ImageView.mirrorVertical(image);
+    assertEquals(new RGBPixel(255, 2, 4, 255), vertical.getPixel(0, 0));
+    assertEquals(new RGBPixel(30, 60, 90, 255), vertical.getPixel(1, 2));
+
+    int[] red = new int[3];
+    int[] green = new int[3];
+    int[] blue = new int[3];
+    ImageView.mirrorVertical(horizontal).getRow(0, red, green, blue);
+    assertEquals(1, red[0]);
+    assertEquals(254, green[1]);
+    assertEquals(4, blue[2]);
+  }
+
+  @Test
+  public void testTransposeOfCrop() {
+    Image view = ImageView.transpose(ImageView.crop(image, 0, 1, 1, 2));
+    assertEquals(2, view.getWidth());
+    assertEquals(2, view.getHeight());
+    assertEquals(new RGBPixel(0, 254, 5, 255), view.getPixel(0, 1));
+    assertEquals(new RGBPixel(30, 60, 90, 255), view.getPixel(1, 0));
+
+    int[] red = new int[2];
+    int[] green = new int[2];
+    int[] blue = new int[2];
+    view.getRow(1, red, green, blue);
+    assertEquals(30, red[0]);
+    assertEquals(3, green[1]);
+  }
+
+  @Test
+  public void testWriteLeavesBackingImageUnchanged() throws CloneNotSupportedException {
+    Image view = ImageView.mirrorHorizontal(image);
+    Image copy = view.clone();
+    view.setRGB(0, 0, 1, 2, 3);
+    assertEquals(new RGBPixel(1, 2, 3, 255), view.getPixel(0, 0));
+    assertEquals(new RGBPixel(20, 50, 80, 255), view.getPixel(0, 1));
+    assertEquals(new RGBPixel(30, 60, 90, 255), copy.getPixel(0, 0));
+    assertEquals(new RGBPixel(30, 60, 90, 255), image.getPixel(0, 2));
+  }
+
+  @Test
+  public void testEmptyCrop() {
+    Image view = ImageView.crop(image, 0, 1, 3, 2);
+    assertEquals(0, view.getWidth());
+    assertEquals(2, view.getHeight());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCropOutsideImage() {
+    ImageView.crop(image, 0, 2, 0, 1);
+  }
+
+}
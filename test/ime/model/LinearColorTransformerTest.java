@@ -0,0 +1,107 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The LinearColorTransformerTest class contains test cases for the LinearColorTransformer class,
+ * ensuring that the fixed-point evaluation rounds like floating point and that composed matrices
+ * match applying the transformations one by one.
+ */
+public class LinearColorTransformerTest {
+
+  private static final double[][] SEPIA = {
+      {0.393, 0.769, 0.189},
+      {0.349, 0.686, 0.168},
+      {0.272, 0.534, 0.131}
+  };
+
+  private RowBandExecutor executor;
+  private LinearColorTransformer sepia;
+  private LinearColorTransformer red;
+
+  @Before
+  public void setUp() {
+    executor = new RowBandExecutor(1);
+    sepia = new LinearColorTransformer(SEPIA, executor);
+    red = new LinearColorTransformer(new double[][]{{1, 0, 0}, {0, 0, 0}, {0, 0, 0}}, executor);
+  }
+
+  private static int expected(double[] row, int r, int g, int b, int max) {
+    return MathUtil.clamp((int) Math.round(row[0] * r + row[1] * g + row[2] * b), max);
+  }
+
+  private static Image gradient(int max) {
+    Image image = ImageUtil.createImage(64, 64, max);
+    int[] red = new int[64];
+    int[] green = new int[64];
+    int[] blue = new int[64];
+    for (int i = 0; i < 64; i++) {
+      for (int j = 0; j < 64; j++) {
+        red[j] = j * max / 63;
+        green[j] = i * max / 63;
+        blue[j] = (i * 37 + j * 11) % (max + 1);
+      }
+      image.setRow(i, red, green, blue);
+    }
+    return image;
+  }
+
+  private static void assertSamePixels(Image expected, Image actual) {
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testFixedPointRoundsLikeFloatingPoint() {
+    // The red sum of the pixel 2, 1, 5 is 2.5, which lies halfway between two integers.
+    int[][] pixels = {{2, 1, 5}, {5, 5, 10}, {0, 0, 0}, {255, 255, 255}, {250, 0, 0},
+        {100, 150, 200}};
+    RowTransform transform = sepia.getRowTransform(255);
+    for (int[] pixel : pixels) {
+      int[] r = {pixel[0]};
+      int[] g = {pixel[1]};
+      int[] b = {pixel[2]};
+      transform.apply(r, g, b, 1, 255);
+      assertEquals(expected(SEPIA[0], pixel[0], pixel[1], pixel[2], 255), r[0]);
+      assertEquals(expected(SEPIA[1], pixel[0], pixel[1], pixel[2], 255), g[0]);
+      assertEquals(expected(SEPIA[2], pixel[0], pixel[1], pixel[2], 255), b[0]);
+    }
+  }
+
+  @Test
+  public void testWideValuesUseFloatingPoint() {
+    Image image = gradient(1000);
+    Image output = sepia.process(image);
+    for (int i = 0; i < 64; i += 7) {
+      for (int j = 0; j < 64; j += 5) {
+        int r = image.getRed(i, j);
+        int g = image.getGreen(i, j);
+        int b = image.getBlue(i, j);
+        assertEquals(expected(SEPIA[0], r, g, b, 1000), output.getRed(i, j));
+        assertEquals(expected(SEPIA[2], r, g, b, 1000), output.getBlue(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testComposedSelectionsMatchSeparateTransforms() {
+    Image image = gradient(255);
+    assertTrue(red.composesExactlyWith(sepia));
+    assertTrue(sepia.composesExactlyWith(red));
+    assertSamePixels(sepia.process(red.process(image)), red.andThen(sepia).process(image));
+    assertSamePixels(red.process(sepia.process(image)), sepia.andThen(red).process(image));
+  }
+
+  @Test
+  public void testGeneralMatricesDoNotComposeExactly() {
+    assertFalse(sepia.composesExactlyWith(sepia));
+  }
+
+}
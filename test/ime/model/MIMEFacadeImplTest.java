@@ -8,11 +8,16 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.InputMismatchException;
 import java.util.Scanner;
 import javax.imageio.ImageIO;
 import org.junit.Before;
 import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -384,6 +389,267 @@ public class MIMEFacadeImplTest {
 
   }
 
+  @Test
+  public void testThresholdOfDistinctMagnitudes() {
+    HaarWaveletImageCompressor compressor =
+            new HaarWaveletImageCompressor(new PackedRGBImage(1, 1, 255));
+    double[][][] channels = {
+            {{-3.5, 0.0}, {2.25, 7.0}},
+            {{3.5, -0.0}, {1e-9, -7.0}},
+            {{100.0, 2.25}, {-0.5, 0.5}}
+    };
+    // distinct magnitudes: 0, 1e-9, 0.5, 2.25, 3.5, 7, 100
+    assertEquals(0.0, compressor.getThreshold(channels, 0), 0);
+    assertEquals(0.0, compressor.getThreshold(channels, 10), 0);
+    assertEquals(2.25, compressor.getThreshold(channels, 50), 0);
+    assertEquals(7.0, compressor.getThreshold(channels, 90), 0);
+    assertEquals(100.0, compressor.getThreshold(channels, 100), 0);
+  }
+
+  @Test
+  public void testRectangularTransformPadding() {
+    double[][] input = {
+            {12, 200, 45, 0, 255},
+            {7, 99, 130, 61, 18},
+            {240, 3, 88, 176, 50}
+    };
+    double[][] transformed = HaarWaveletUtil.transform(input);
+    assertEquals(4, transformed.length);
+    assertEquals(8, transformed[0].length);
+
+    double[][] inverted = HaarWaveletUtil.invert(transformed, 3, 5);
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(input[i][j], inverted[i][j], 1e-9);
+      }
+    }
+  }
+
+  @Test
+  public void testParallelCompressMatchesSequential() {
+    Image image = new PackedRGBImage(37, 21, 255);
+    for (int i = 0; i < image.getHeight(); i++) {
+      for (int j = 0; j < image.getWidth(); j++) {
+        image.setRGB(i, j, (i * 17 + j * 5) % 256, (i * j) % 256, (200 - i * 3 + j) % 256);
+      }
+    }
+    Image sequential = new HaarWaveletImageCompressor(image).compress(60);
+    Image parallel = new HaarWaveletImageCompressor(image, new RowBandExecutor(3)).compress(60);
+    for (int i = 0; i < image.getHeight(); i++) {
+      for (int j = 0; j < image.getWidth(); j++) {
+        assertEquals(sequential.getPixel(i, j), parallel.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testSplitProcessesLeftRegionOnly() throws CloneNotSupportedException {
+    PixelRaster raster = new PixelRaster(9, 4, 255);
+    int[] samples = raster.getSamples();
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = (i * 37) % 256;
+    }
+    mimeFacade.loadRaster(raster, "split-input");
+    mimeFacade.blur("split-input", "split-blur", 40);
+    Image input = mimeFacade.getImage("split-input");
+    Image actual = mimeFacade.getImage("split-blur");
+
+    // The left region is blurred as an image of its own, the rest is copied unchanged.
+    Image left = new Filter(new double[][]{
+        {1.0 / 16, 1.0 / 8, 1.0 / 16},
+        {1.0 / 8, 1.0 / 4, 1.0 / 8},
+        {1.0 / 16, 1.0 / 8, 1.0 / 16}
+    }).process(input.getPortion(0, 3, 0, 3));
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 9; j++) {
+        assertEquals(j < 4 ? left.getPixel(i, j) : input.getPixel(i, j), actual.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testColorCorrectAndRemoveLeaveNoImagesBehind() {
+    mimeFacade.colorCorrect("test-png", "corrected");
+    try {
+      mimeFacade.getImage("corrected-histogram");
+      fail("Color correction stored an intermediate image");
+    } catch (InputMismatchException e) {
+      // expected
+    }
+    mimeFacade.remove("corrected");
+    try {
+      mimeFacade.getImage("corrected");
+      fail("Removed image is still present");
+    } catch (InputMismatchException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testRepeatedOperationsReuseCachedResults() {
+    mimeFacade.setCacheSize(16);
+    int[][] histogram = mimeFacade.histogram("test-png", "histogram");
+    long misses = mimeFacade.cache.getMisses();
+    histogram[0][0] = -1;
+
+    // The color correction reuses the histogram, and the second plot is not drawn again.
+    mimeFacade.colorCorrect("test-png", "corrected");
+    int[][] again = mimeFacade.histogram("test-png", "histogram-again");
+    assertEquals(misses + 1, mimeFacade.cache.getMisses());
+    assertSame(mimeFacade.getImage("histogram"), mimeFacade.getImage("histogram-again"));
+    assertEquals(again[1][0], mimeFacade.histogram("test-png", "histogram")[1][0]);
+    assertTrue(again[0][0] >= 0);
+
+    mimeFacade.colorCorrect("test-png", "corrected-again");
+    assertSame(mimeFacade.getImage("corrected"), mimeFacade.getImage("corrected-again"));
+
+    mimeFacade.setCacheSize(0);
+    mimeFacade.colorCorrect("test-png", "corrected-uncached");
+    assertNotSame(mimeFacade.getImage("corrected"), mimeFacade.getImage("corrected-uncached"));
+  }
+
+  @Test
+  public void testLazyEvaluationMatchesEagerEvaluation() {
+    mimeFacade.setCacheSize(0);
+    mimeFacade.brighten(40, "test-png", "bright");
+    mimeFacade.sepia("bright", "sepia");
+    mimeFacade.luma("sepia", "luma");
+    mimeFacade.adjustLevels(20, 100, 230, "luma", "levels");
+
+    mimeFacade.setLazyEvaluation(true);
+    mimeFacade.brighten(40, "test-png", "lazy-bright");
+    mimeFacade.sepia("lazy-bright", "lazy-sepia");
+    mimeFacade.luma("lazy-sepia", "lazy-luma");
+    mimeFacade.adjustLevels(20, 100, 230, "lazy-luma", "lazy-levels");
+    assertTrue(mimeFacade.getImage("lazy-levels") instanceof DeferredImage);
+
+    for (String name : new String[]{"levels", "sepia", "bright", "luma"}) {
+      Image expected = mimeFacade.getImage(name);
+      Image actual = mimeFacade.getImage("lazy-" + name);
+      assertEquals(expected.getMax(), actual.getMax());
+      for (int i = 0; i < expected.getHeight(); i++) {
+        for (int j = 0; j < expected.getWidth(); j++) {
+          assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+        }
+      }
+    }
+  }
+
+  // Streams an image stored in the facade through an operation and returns the result.
+  private PixelRaster stream(String operation, int[] parameters, String imageName)
+      throws IOException {
+    PixelRaster input = mimeFacade.saveRaster(imageName);
+    PixelRaster[] output = new PixelRaster[1];
+    int[] rowsWritten = new int[1];
+    RasterSource source = new RasterSource() {
+      @Override
+      public int getWidth() {
+        return input.getWidth();
+      }
+
+      @Override
+      public int getHeight() {
+        return input.getHeight();
+      }
+
+      @Override
+      public int getMax() {
+        return input.getMax();
+      }
+
+      @Override
+      public PixelRaster readRegion(int rowStart, int colStart, int width, int height) {
+        return input.getRegion(rowStart, colStart, width, height);
+      }
+
+      @Override
+      public void close() {
+        // Nothing to release.
+      }
+    };
+    RasterSink sink = new RasterSink() {
+      @Override
+      public void start(int width, int height, int max) {
+        output[0] = new PixelRaster(width, height, max);
+      }
+
+      @Override
+      public void writeRows(PixelRaster rows) {
+        System.arraycopy(rows.getSamples(), 0, output[0].getSamples(),
+            3 * rowsWritten[0] * rows.getWidth(), rows.getSamples().length);
+        rowsWritten[0] += rows.getHeight();
+      }
+
+      @Override
+      public void close() {
+        // Nothing to release.
+      }
+    };
+    mimeFacade.stream(operation, parameters, source, sink);
+    return output[0];
+  }
+
+  @Test
+  public void testStreamMatchesStoredOperations() throws IOException {
+    mimeFacade.adjustLevels(20, 100, 230, "test-png", "levels");
+    assertArrayEquals(mimeFacade.saveRaster("levels").getSamples(),
+        stream("levels-adjust", new int[]{20, 100, 230}, "test-png").getSamples());
+    mimeFacade.blur("test-png", "blur");
+    assertArrayEquals(mimeFacade.saveRaster("blur").getSamples(),
+        stream("blur", new int[0], "test-png").getSamples());
+    mimeFacade.brighten(-30, "test-png", "darker");
+    assertArrayEquals(mimeFacade.saveRaster("darker").getSamples(),
+        stream("brighten", new int[]{-30}, "test-png").getSamples());
+    mimeFacade.blur("test-png", "gaussian", 3, true);
+    assertArrayEquals(mimeFacade.saveRaster("gaussian").getSamples(),
+        stream("blur", new int[]{3, 0}, "test-png").getSamples());
+    mimeFacade.blur("test-png", "box", 200, false);
+    assertArrayEquals(mimeFacade.saveRaster("box").getSamples(),
+        stream("blur", new int[]{200, 1}, "test-png").getSamples());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStreamBlurWithInvalidMode() throws IOException {
+    stream("blur", new int[]{3, 2}, "test-png");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStreamOperationThatReadsWholeImage() throws IOException {
+    stream("color-correct", new int[0], "test-png");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStreamWithMissingParameters() throws IOException {
+    stream("brighten", new int[0], "test-png");
+  }
+
+  @Test
+  public void testBlurWithRadius() throws CloneNotSupportedException {
+    Image input = mimeFacade.getImage("test-png");
+    mimeFacade.blur("test-png", "box", 3, false);
+    mimeFacade.blur("test-png", "gaussian", 3, true);
+    mimeFacade.blur("test-png", "gaussian-split", 3, true, 50);
+    Image box = new BoxBlur(3, 1, new RowBandExecutor(1)).process(input);
+    Image gaussian = new BoxBlur(3, 3, new RowBandExecutor(1)).process(input);
+    int width = input.getWidth();
+    Image left = new BoxBlur(3, 3, new RowBandExecutor(1)).process(
+        input.getPortion(0, input.getHeight() - 1, 0, width / 2 - 1));
+
+    for (int i = 0; i < input.getHeight(); i++) {
+      for (int j = 0; j < width; j++) {
+        assertEquals(box.getPixel(i, j), mimeFacade.getImage("box").getPixel(i, j));
+        assertEquals(gaussian.getPixel(i, j), mimeFacade.getImage("gaussian").getPixel(i, j));
+        assertEquals(j < width / 2 ? left.getPixel(i, j) : input.getPixel(i, j),
+            mimeFacade.getImage("gaussian-split").getPixel(i, j));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBlurWithNegativeRadius() {
+    mimeFacade.blur("test-png", "box", -2, false);
+  }
+
   //LevelsAdjust
 
   @Test
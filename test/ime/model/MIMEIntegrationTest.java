@@ -12,6 +12,7 @@ import ime.controller.Controller;
 import ime.controller.MIMECommandRepository;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringReader;
 
@@ -193,4 +194,30 @@ public class MIMEIntegrationTest {
 
   }
 
+  @Test
+  public void testBlurWithRadiusScript() throws IOException {
+    MIMEFacadeImpl mimeFacade = new MIMEFacadeImpl();
+    mimeFacade.load(new ByteArrayInputStream(
+        "3 2 255 10 20 30 40 50 60 70 80 90 100 110 120 130 140 150 160 170 180".getBytes()),
+        "test");
+    mimeFacade.blur("test", "expected-box", 1, false);
+    mimeFacade.blur("test", "expected-gaussian", 1, true);
+
+    StringBuilder out = new StringBuilder();
+    Controller controller = new CommandController(new StringReader(
+        "blur test test-box radius 1 box\nblur test test-gaussian radius 1"),
+        out, new MIMECommandRepository());
+    controller.goAhead(mimeFacade);
+
+    for (String name : new String[]{"box", "gaussian"}) {
+      Image expected = mimeFacade.getImage("expected-" + name);
+      Image actual = mimeFacade.getImage("test-" + name);
+      for (int i = 0; i < expected.getHeight(); i++) {
+        for (int j = 0; j < expected.getWidth(); j++) {
+          assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+        }
+      }
+    }
+  }
+
 }
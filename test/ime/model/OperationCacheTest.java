@@ -0,0 +1,95 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * The OperationCacheTest class contains test cases for the OperationCache class, ensuring that
+ * results are reused for identical operations on the same image and dropped in the right order.
+ */
+public class OperationCacheTest {
+
+  private Image first;
+  private Image second;
+
+  @Before
+  public void setUp() {
+    first = ImageUtil.createImage(2, 2, 255);
+    second = ImageUtil.createImage(2, 2, 255);
+  }
+
+  private static OperationCache.Key key(String operation, Image input, Object... parameters) {
+    return new OperationCache.Key(operation, parameters, input);
+  }
+
+  @Test
+  public void testSameOperationOnSameImageIsReused() {
+    OperationCache cache = new OperationCache(4, true);
+    Image result = cache.get(key("brighten", first, 10), () -> second);
+    assertSame(second, result);
+    assertSame(second, cache.get(key("brighten", first, 10), () -> first));
+    assertSame(first, cache.get(key("brighten", first, 20), () -> first));
+    // An image with the same pixels is a different version of the content.
+    assertSame(first, cache.get(key("brighten", second, 10), () -> first));
+    assertEquals(1, cache.getHits());
+    assertEquals(3, cache.getMisses());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedResultIsDropped() {
+    OperationCache cache = new OperationCache(2, true);
+    cache.get(key("blur", first), () -> first);
+    cache.get(key("sepia", first), () -> first);
+    cache.get(key("blur", first), () -> first);
+    cache.get(key("luma", first), () -> first);
+    cache.get(key("blur", first), () -> first);
+    cache.get(key("sepia", first), () -> first);
+    assertEquals(2, cache.getHits());
+    assertEquals(4, cache.getMisses());
+  }
+
+  @Test
+  public void testOldestResultIsDropped() {
+    OperationCache cache = new OperationCache(2, false);
+    cache.get(key("blur", first), () -> first);
+    cache.get(key("sepia", first), () -> first);
+    cache.get(key("blur", first), () -> first);
+    cache.get(key("luma", first), () -> first);
+    cache.get(key("blur", first), () -> first);
+    assertEquals(1, cache.getHits());
+    assertEquals(4, cache.getMisses());
+  }
+
+  @Test
+  public void testReleasedImageIsForgotten() {
+    OperationCache cache = new OperationCache(4, true);
+    cache.get(key("blur", first), () -> second);
+    cache.get(key("sepia", second), () -> second);
+    cache.release(second);
+    cache.get(key("blur", first), () -> second);
+    cache.get(key("sepia", second), () -> second);
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  public void testFailedOperationIsNotCached() {
+    OperationCache cache = new OperationCache(4, true);
+    try {
+      cache.get(key("blur", first), () -> {
+        throw new IllegalArgumentException("failed");
+      });
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertSame(second, cache.get(key("blur", first), () -> second));
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeCapacity() {
+    new OperationCache(-1, true);
+  }
+
+}
@@ -0,0 +1,72 @@
+package ime.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The PackedRGBImageTest class contains test cases for the PackedRGBImage class,
+ * ensuring that pixels and rows are stored and retrieved correctly.
+ */
+public class PackedRGBImageTest {
+
+  private Image image;
+
+  @Before
+  public void setUp() {
+    image = new PackedRGBImage(3, 2, 255);
+    image.setRow(0, new int[]{10, 20, 30}, new int[]{40, 50, 60}, new int[]{70, 80, 90});
+    image.setRow(1, new int[]{255, 0, 1}, new int[]{2, 254, 3}, new int[]{4, 5, 253});
+  }
+
+  @Test
+  public void testGetPixel() {
+    assertEquals(new RGBPixel(20, 50, 80, 255), image.getPixel(0, 1));
+    assertEquals(new RGBPixel(1, 3, 253, 255), image.getPixel(1, 2));
+    assertEquals(255, image.getRed(1, 0));
+    assertEquals(254, image.getGreen(1, 1));
+    assertEquals(90, image.getBlue(0, 2));
+  }
+
+  @Test
+  public void testSetRGBClampsValues() {
+    image.setRGB(0, 0, 300, -5, 128);
+    assertEquals(new RGBPixel(255, 0, 128, 255), image.getPixel(0, 0));
+  }
+
+  @Test
+  public void testGetRow() {
+    int[] red = new int[3];
+    int[] green = new int[3];
+    int[] blue = new int[3];
+    image.getRow(1, red, green, blue);
+    assertEquals(255, red[0]);
+    assertEquals(254, green[1]);
+    assertEquals(253, blue[2]);
+  }
+
+  @Test
+  public void testGetAndReplacePortion() throws CloneNotSupportedException {
+    Image portion = image.getPortion(0, 1, 1, 2);
+    assertEquals(2, portion.getWidth());
+    assertEquals(2, portion.getHeight());
+    assertEquals(new RGBPixel(30, 60, 90, 255), portion.getPixel(0, 1));
+
+    Image copy = image.clone();
+    copy.replacePortion(0, 0, portion);
+    assertEquals(new RGBPixel(20, 50, 80, 255), copy.getPixel(0, 0));
+    assertEquals(new RGBPixel(1, 3, 253, 255), copy.getPixel(1, 1));
+    assertEquals(new RGBPixel(10, 40, 70, 255), image.getPixel(0, 0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetPixelOutOfBounds() {
+    image.getPixel(0, 3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMaxTooLargeToPack() {
+    new PackedRGBImage(2, 2, 65535);
+  }
+
+}
@@ -0,0 +1,90 @@
+package ime.model;
+
+import ime.controller.CommandController;
+import ime.controller.MIMECommandRepository;
+import ime.controller.ParallelCommandController;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests that running a script with the ParallelCommandController produces the same
+ * output and images as running it line by line with the CommandController.
+ */
+public class ParallelIntegrationTest {
+
+  private Path directory;
+  private String script;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("parallel-script");
+    StringBuilder ppm = new StringBuilder("P3\n6 5\n255\n");
+    for (int i = 0; i < 6 * 5 * 3; i++) {
+      ppm.append((i * 47) % 256).append('\n');
+    }
+    Path input = directory.resolve("input.ppm");
+    Files.write(input, ppm.toString().getBytes(StandardCharsets.US_ASCII));
+    String copy = directory.resolve("copy.ppm").toString();
+
+    script = "load " + input + " img\n"
+        + "blur img img-blur\n"
+        + "sharpen img img-sharpen\n"
+        + "sepia img-blur img-blur-sepia\n"
+        + "horizontal-flip img img\n"
+        + "value img img-value\n"
+        + "unknown img img-unknown\n"
+        + "luma missing img-luma\n"
+        + "save " + copy + " img-blur-sepia\n"
+        + "load " + copy + " img-copy\n"
+        + "brighten 20 img-copy img-copy\n"
+        + "color-correct img-copy img-cc split 50\n"
+        + "levels-adjust 20 100 255 img-value img-levels\n"
+        + "rgb-split img-levels r g b\n"
+        + "rgb-combine img-combined b g r\n"
+        + "remove img-sharpen\n"
+        + "compress 50 img-sharpen img-compressed\n";
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testSameOutputAndImagesAsSequentialRun() throws IOException {
+    MIMEFacadeImpl sequential = new MIMEFacadeImpl();
+    StringBuilder sequentialOut = new StringBuilder();
+    new CommandController(new StringReader(script), sequentialOut, new MIMECommandRepository())
+        .goAhead(sequential);
+
+    MIMEFacadeImpl parallel = new MIMEFacadeImpl();
+    StringBuilder parallelOut = new StringBuilder();
+    new ParallelCommandController(new StringReader(script), parallelOut,
+        new MIMECommandRepository(), 4).goAhead(parallel);
+
+    assertEquals(sequentialOut.toString(), parallelOut.toString());
+    for (String name : new String[]{"img", "img-blur", "img-blur-sepia", "img-value",
+        "img-copy", "img-cc", "img-levels", "img-combined"}) {
+      assertSameImage(sequential.getImage(name), parallel.getImage(name));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidNumberOfWorkers() {
+    new ParallelCommandController(new StringReader(script), new StringBuilder(),
+        new MIMECommandRepository(), 0);
+  }
+
+}
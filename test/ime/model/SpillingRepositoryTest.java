@@ -0,0 +1,132 @@
+package ime.model;
+
+import java.util.InputMismatchException;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * The SpillingRepositoryTest class contains test cases for the SpillingRepository class,
+ * ensuring that images beyond the memory budget are spilled to disk and read back unchanged.
+ */
+public class SpillingRepositoryTest {
+
+  private SpillingRepository repository;
+
+  @Before
+  public void setUp() {
+    // Room for two 4x4 packed images of 64 bytes each.
+    repository = new SpillingRepository(128);
+  }
+
+  private static Image createImage(int seed, int max) {
+    Image image = ImageUtil.createImage(4, 4, max);
+    for (int i = 0; i < 4; i++) {
+      for (int j = 0; j < 4; j++) {
+        image.setRGB(i, j, (seed + i * 4 + j) % (max + 1), (seed * 7 + j) % (max + 1),
+            (seed * 13 + i) % (max + 1));
+      }
+    }
+    return image;
+  }
+
+  private static void assertSameImage(Image expected, Image actual) {
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getMax(), actual.getMax());
+    for (int i = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++) {
+        assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+      }
+    }
+  }
+
+  @Test
+  public void testLeastRecentlyUsedImageIsSpilled() {
+    Image first = createImage(1, 255);
+    Image second = createImage(2, 255);
+    repository.putImage("first", first);
+    repository.putImage("second", second);
+    repository.getImage("first");
+    repository.putImage("third", createImage(3, 255));
+
+    assertEquals(1, repository.getSpills());
+    assertEquals(1, repository.getHits());
+    assertEquals(0, repository.getMisses());
+
+    assertSameImage(second, repository.getImage("second"));
+    assertEquals(1, repository.getMisses());
+    assertEquals(2, repository.getSpills());
+  }
+
+  @Test
+  public void testFacadeReportsCounters() {
+    IMEFacade facade = new IMEFacadeImpl(128);
+    for (String name : new String[]{"a", "b", "c"}) {
+      PixelRaster raster = new PixelRaster(4, 4, 255);
+      facade.loadRaster(raster, name);
+    }
+    facade.saveRaster("c");
+    facade.saveRaster("a");
+    assertArrayEquals(new long[]{1, 1, 2}, facade.getRepositoryCounters());
+
+    IMEFacade unbounded = new IMEFacadeImpl();
+    unbounded.loadRaster(new PixelRaster(4, 4, 255), "a");
+    unbounded.saveRaster("a");
+    assertArrayEquals(new long[]{1, 0, 0}, unbounded.getRepositoryCounters());
+  }
+
+  @Test
+  public void testSpilledWideImageIsReadBack() {
+    Image wide = createImage(5, 1000);
+    repository.putImage("wide", wide);
+    assertEquals(0, repository.getSpills());
+    repository.putImage("other", createImage(6, 255));
+    assertEquals(1, repository.getSpills());
+    assertSameImage(wide, repository.getImage("wide"));
+  }
+
+  @Test
+  public void testReplacingSpilledImage() {
+    repository.putImage("a", createImage(1, 255));
+    repository.putImage("b", createImage(2, 255));
+    repository.putImage("c", createImage(3, 255));
+    Image replacement = createImage(4, 255);
+    repository.putImage("a", replacement);
+    assertSameImage(replacement, repository.getImage("a"));
+  }
+
+  @Test
+  public void testRemovedImagesAreGone() {
+    repository.putImage("a", createImage(1, 255));
+    repository.putImage("b", createImage(2, 255));
+    repository.putImage("c", createImage(3, 255));
+    repository.removeImage("a");
+    repository.removeImage("c");
+    repository.removeImage("missing");
+    for (String name : new String[]{"a", "c"}) {
+      try {
+        repository.getImage(name);
+        fail("Removed image " + name + " is still present");
+      } catch (InputMismatchException e) {
+        // expected
+      }
+    }
+    // Only one image is left in memory, so nothing else needs to be spilled.
+    repository.putImage("d", createImage(4, 255));
+    assertEquals(1, repository.getSpills());
+  }
+
+  @Test(expected = InputMismatchException.class)
+  public void testMissingImage() {
+    repository.getImage("missing");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new SpillingRepository(0);
+  }
+
+}
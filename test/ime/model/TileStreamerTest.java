@@ -0,0 +1,200 @@
+package ime.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The TileStreamerTest class contains test cases for the TileStreamer class, ensuring that an
+ * image processed tile by tile gives the same pixels as processing the whole image at once, and
+ * that every band of the image is read only once.
+ */
+public class TileStreamerTest {
+
+  private static final int WIDTH = 13;
+  private static final int HEIGHT = 11;
+
+  private final RowBandExecutor executor = new RowBandExecutor(1);
+  private PixelRaster raster;
+  private Image image;
+
+  /**
+   * A source over a raster in memory that counts the regions read from it.
+   */
+  private static class CountingSource implements RasterSource {
+
+    private final PixelRaster raster;
+    private int regionsRead;
+
+    CountingSource(PixelRaster raster) {
+      this.raster = raster;
+    }
+
+    @Override
+    public int getWidth() {
+      return raster.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+      return raster.getHeight();
+    }
+
+    @Override
+    public int getMax() {
+      return raster.getMax();
+    }
+
+    @Override
+    public PixelRaster readRegion(int rowStart, int colStart, int width, int height) {
+      regionsRead++;
+      return raster.getRegion(rowStart, colStart, width, height);
+    }
+
+    @Override
+    public void close() {
+      // Nothing to release.
+    }
+  }
+
+  /**
+   * A sink that collects the rows written to it in memory.
+   */
+  private static class CollectingSink implements RasterSink {
+
+    private PixelRaster raster;
+    private int rowsWritten;
+
+    @Override
+    public void start(int width, int height, int max) {
+      raster = new PixelRaster(width, height, max);
+    }
+
+    @Override
+    public void writeRows(PixelRaster rows) {
+      assertEquals(raster.getWidth(), rows.getWidth());
+      System.arraycopy(rows.getSamples(), 0, raster.getSamples(),
+          3 * rowsWritten * raster.getWidth(), rows.getSamples().length);
+      rowsWritten += rows.getHeight();
+    }
+
+    @Override
+    public void close() {
+      // Nothing to release.
+    }
+  }
+
+  @Before
+  public void setUp() {
+    raster = new PixelRaster(WIDTH, HEIGHT, 255);
+    int[] samples = raster.getSamples();
+    for (int k = 0; k < samples.length; k++) {
+      samples[k] = (k * 37 + (k / 7) * 11) % 256;
+    }
+    image = ImageUtil.createImage(WIDTH, HEIGHT, 255);
+    for (int i = 0, k = 0; i < HEIGHT; i++) {
+      for (int j = 0; j < WIDTH; j++, k += 3) {
+        image.setRGB(i, j, samples[k], samples[k + 1], samples[k + 2]);
+      }
+    }
+  }
+
+  private PixelRaster stream(ImageProcessor processor, int tileSize) throws IOException {
+    CollectingSink sink = new CollectingSink();
+    new TileStreamer(tileSize).stream(new CountingSource(raster), processor, sink);
+    assertEquals(HEIGHT, sink.rowsWritten);
+    return sink.raster;
+  }
+
+  private static void assertSamePixels(Image expected, PixelRaster actual) {
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    assertEquals(expected.getMax(), actual.getMax());
+    int[] samples = actual.getSamples();
+    for (int i = 0, k = 0; i < expected.getHeight(); i++) {
+      for (int j = 0; j < expected.getWidth(); j++, k += 3) {
+        assertArrayEquals(new int[]{expected.getRed(i, j), expected.getGreen(i, j),
+            expected.getBlue(i, j)}, new int[]{samples[k], samples[k + 1], samples[k + 2]});
+      }
+    }
+  }
+
+  @Test
+  public void testBlurMatchesWholeImage() throws IOException {
+    Filter blur = new Filter(new double[][]{
+        {0.0625, 0.125, 0.0625},
+        {0.125, 0.25, 0.125},
+        {0.0625, 0.125, 0.0625}
+    }, executor);
+    assertSamePixels(blur.process(image), stream(blur, 4));
+  }
+
+  @Test
+  public void testSharpenMatchesWholeImage() throws IOException {
+    double[][] kernel = new double[5][5];
+    for (double[] row : kernel) {
+      Arrays.fill(row, -0.125);
+    }
+    for (int i = 1; i < 4; i++) {
+      for (int j = 1; j < 4; j++) {
+        kernel[i][j] = 0.25;
+      }
+    }
+    kernel[2][2] = 1;
+    Filter sharpen = new Filter(kernel, executor);
+    // Tiles as small as the reach of the kernel take their halo from two bands around them.
+    assertSamePixels(sharpen.process(image), stream(sharpen, 2));
+    assertSamePixels(sharpen.process(image), stream(sharpen, 5));
+  }
+
+  @Test
+  public void testPointOperationMatchesWholeImage() throws IOException {
+    LinearColorTransformer sepia = new LinearColorTransformer(new double[][]{
+        {0.393, 0.769, 0.189},
+        {0.349, 0.686, 0.168},
+        {0.272, 0.534, 0.131}
+    }, executor);
+    assertSamePixels(sepia.process(image), stream(sepia, 3));
+    assertSamePixels(sepia.process(image), stream(sepia, 100));
+  }
+
+  @Test
+  public void testBoxBlurMatchesWholeImage() throws IOException {
+    // Three passes of radius 2 reach 6 pixels, so every tile reads a halo of 6 pixels.
+    BoxBlur gaussian = new BoxBlur(2, 3, executor);
+    assertSamePixels(gaussian.process(image), stream(gaussian, 6));
+    assertSamePixels(gaussian.process(image), stream(gaussian, 8));
+    BoxBlur box = new BoxBlur(4, 1, executor);
+    assertSamePixels(box.process(image), stream(box, 4));
+  }
+
+  @Test
+  public void testReachBeyondImageIsClipped() throws IOException {
+    BoxBlur blur = new BoxBlur(50, 3, executor);
+    assertSamePixels(blur.process(image), stream(blur, Math.max(WIDTH, HEIGHT)));
+  }
+
+  @Test
+  public void testEveryBandIsReadOnce() throws IOException {
+    Filter blur = new Filter(new double[][]{{0, 0.25, 0}, {0.25, 0, 0.25}, {0, 0.25, 0}},
+        executor);
+    CountingSource source = new CountingSource(raster);
+    new TileStreamer(4).stream(source, blur, new CollectingSink());
+    assertEquals((HEIGHT + 3) / 4, source.regionsRead);
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidValueInSource() throws IOException {
+    raster.getSamples()[10] = 256;
+    stream(new Filter(new double[][]{{1}}, executor), 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReachLargerThanTile() throws IOException {
+    stream(new Filter(new double[7][7], executor), 2);
+  }
+
+}
@@ -1,5 +1,6 @@
 package ime.model;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -23,6 +24,15 @@ public class ViewModelTest {
     model = new MockModel(modelLogger);
   }
 
+  @Test
+  public void testGetDisplayImage() {
+    BufferedImage image = new ViewModel(model).getDisplayImage("dummy");
+    assertEquals(2, image.getWidth());
+    assertEquals(2, image.getHeight());
+    assertEquals(0x040506, image.getRGB(1, 0) & 0xFFFFFF);
+    assertEquals(0x070809, image.getRGB(0, 1) & 0xFFFFFF);
+  }
+
   @Test
   public void testGetImage() {
     int[][][] expected = new int[][][]{
@@ -61,6 +71,17 @@ public class ViewModelTest {
       return outputStream;
     }
 
+    @Override
+    public void loadRaster(PixelRaster raster, String imageName) {
+      logger.append("Input given:").append(" ").append(imageName);
+    }
+
+    @Override
+    public PixelRaster saveRaster(String imageName) {
+      logger.append("Input given:").append(" ").append(imageName);
+      return new PixelRaster(2, 2, 255, new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+    }
+
     @Override
     public void redComponent(String inputImageName, String outputImageName) {
       logger.append("Input given:").append(" ").append(inputImageName).append(" ")
@@ -151,6 +172,22 @@ public class ViewModelTest {
               .append(" ").append(outputImageName).append(" ").append(splitPercentage);
     }
 
+    @Override
+    public void blur(String inputImageName, String outputImageName, int radius,
+                     boolean gaussian) {
+      logger.append("Input given:").append(" ").append(inputImageName)
+              .append(" ").append(outputImageName).append(" ").append(radius)
+              .append(" ").append(gaussian);
+    }
+
+    @Override
+    public void blur(String inputImageName, String outputImageName, int radius,
+                     boolean gaussian, double splitPercentage) {
+      logger.append("Input given:").append(" ").append(inputImageName)
+              .append(" ").append(outputImageName).append(" ").append(radius)
+              .append(" ").append(gaussian).append(" ").append(splitPercentage);
+    }
+
     @Override
     public void sharpen(String inputImageName, String outputImageName) {
       logger.append("Input given:").append(" ").append(inputImageName).append(" ")
@@ -177,6 +214,37 @@ public class ViewModelTest {
               .append(" ").append(outputImageName).append(" ").append(splitPercentage);
     }
 
+    @Override
+    public void setParallelism(int parallelism) {
+      logger.append("Input given:").append(" ").append(parallelism);
+    }
+
+    @Override
+    public void setCacheSize(int cacheSize) {
+      logger.append("Input given:").append(" ").append(cacheSize);
+    }
+
+    @Override
+    public void stream(String operation, int[] parameters, RasterSource source,
+                       RasterSink sink) {
+      logger.append("Input given:").append(" ").append(operation);
+    }
+
+    @Override
+    public void setLazyEvaluation(boolean lazyEvaluation) {
+      logger.append("Input given:").append(" ").append(lazyEvaluation);
+    }
+
+    @Override
+    public void remove(String imageName) {
+      logger.append("Input given:").append(" ").append(imageName);
+    }
+
+    @Override
+    public long[] getRepositoryCounters() {
+      return new long[3];
+    }
+
     @Override
     public int[][][] getRawImageData(String imageName) {
       logger.append("Input given:").append(" ").append(imageName);
@@ -186,6 +254,14 @@ public class ViewModelTest {
       };
     }
 
+    @Override
+    public BufferedImage getDisplayImage(String imageName) {
+      logger.append("Input given:").append(" ").append(imageName);
+      BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+      image.setRGB(0, 0, 2, 2, new int[]{0x010203, 0x040506, 0x070809, 0x0A0B0C}, 0, 2);
+      return image;
+    }
+
     @Override
     public void compress(double percentage, String inputImageName, String outputImageName)
         throws IllegalArgumentException {